@@ -0,0 +1,117 @@
+package com.spx.inventory_service.benchmarks;
+
+import com.spx.inventory_service.dto.SoftwareLicenseSummaryDTO;
+import com.spx.inventory_service.models.Asset;
+import com.spx.inventory_service.models.AssetType;
+import com.spx.inventory_service.models.Office;
+import com.spx.inventory_service.models.SoftwareLicense;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Shared in-memory fixtures for the benchmarks.
+ * Values mirror db_files/data.sql so the payload sizes are realistic.
+ */
+final class BenchmarkFixtures {
+
+    // Base64 secret used only by benchmarks (256 bit, HS256)
+    static final String JWT_SECRET = "Y2lhbXMtYmVuY2htYXJrLXNlY3JldC1rZXktMzItYnl0ZXMtbG9uZyE=";
+
+    private BenchmarkFixtures() {
+    }
+
+    static Office office(long id, String name) {
+        Office office = new Office();
+        office.setId(id);
+        office.setName(name);
+        return office;
+    }
+
+    static AssetType assetType(long id, String name, String description) {
+        AssetType assetType = new AssetType();
+        assetType.setId(id);
+        assetType.setAssetTypeName(name);
+        assetType.setAssetTypeDescription(description);
+        return assetType;
+    }
+
+    static Asset asset(long id, String serialNumber, Office office, AssetType assetType) {
+        Asset asset = new Asset();
+        asset.setId(id);
+        asset.setSerialNumber(serialNumber);
+        asset.setPurchaseDate(LocalDate.of(2025, 2, 10));
+        asset.setOffice(office);
+        asset.setAssetType(assetType);
+        return asset;
+    }
+
+    static SoftwareLicense license(long id, String softwareName, Integer maxInstallations) {
+        SoftwareLicense license = new SoftwareLicense();
+        license.setId(id);
+        license.setSoftwareName(softwareName);
+        license.setMaxInstallations(maxInstallations);
+        license.setExpirationDate(LocalDate.of(2026, 2, 1));
+        return license;
+    }
+
+    /* A license installed on "installations" assets spread over a few offices */
+    static SoftwareLicense licenseWithInstallations(int installations) {
+
+        Office[] offices = { office(1, "milan"), office(2, "rome-hq"), office(3, "turin") };
+        AssetType laptop = assetType(1, "laptop", "portable-computer");
+
+        SoftwareLicense license = license(1, "jetbrains-datagrip", installations);
+
+        for (int i = 0; i < installations; i++) {
+            license.addAsset(asset(i + 1, "lap-dev-%05d".formatted(i), offices[i % offices.length], laptop));
+        }
+
+        return license;
+    }
+
+    /* An asset with a handful of installed licenses, as returned by /assets/{serial}/details */
+    static Asset assetWithLicenses(int licenses) {
+
+        Asset asset = asset(1, "lap-dev-001", office(1, "milan"), assetType(1, "laptop", "portable-computer"));
+
+        for (int i = 0; i < licenses; i++) {
+            license(i + 1, "software-" + i, 10).addAsset(asset);
+        }
+
+        return asset;
+    }
+
+    /* Installed licenses of /assets/{serial}/details, as loaded by the summary query */
+    static List<SoftwareLicenseSummaryDTO> licenseSummaries(int licenses) {
+
+        List<SoftwareLicenseSummaryDTO> summaries = new ArrayList<>(licenses);
+
+        for (int i = 0; i < licenses; i++) {
+            SoftwareLicenseSummaryDTO summary = new SoftwareLicenseSummaryDTO();
+            summary.setId(i + 1L);
+            summary.setSoftwareName("software-" + i);
+            summary.setMaxInstallations(10);
+            summary.setExpirationDate(LocalDate.of(2026, 2, 1));
+            summary.setInstallationCount(7L);
+            summaries.add(summary);
+        }
+
+        return summaries;
+    }
+
+    static String token(String username, List<String> roles) {
+        return Jwts.builder()
+                .subject(username)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .claim("roles", roles)
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JWT_SECRET)), Jwts.SIG.HS256)
+                .compact();
+    }
+}
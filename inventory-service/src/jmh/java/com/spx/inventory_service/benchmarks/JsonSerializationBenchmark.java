@@ -0,0 +1,53 @@
+package com.spx.inventory_service.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.spx.inventory_service.dto.AssetDetailedResponseDTO;
+import com.spx.inventory_service.mappers.AssetMapper;
+import com.spx.inventory_service.mappers.AssetMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the /assets/{serialNumber}/details response.
+ * ObjectMapper is configured like Spring Boot's default one (java.time support, ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    // Number of licenses installed on the asset
+    @Param({"0", "5", "50"})
+    private int licenses;
+
+    private ObjectMapper objectMapper;
+
+    private AssetDetailedResponseDTO detailedAsset;
+
+    @Setup
+    public void setup() {
+
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        try (AnnotationConfigApplicationContext context =
+                     new AnnotationConfigApplicationContext(AssetMapperImpl.class)) {
+            detailedAsset = context.getBean(AssetMapper.class).toDetailedDTO(BenchmarkFixtures.assetWithLicenses(licenses));
+        }
+
+        // Installed licenses are filled by the service from the summary query
+        detailedAsset.setSoftwareLicenses(BenchmarkFixtures.licenseSummaries(licenses));
+    }
+
+    @Benchmark
+    public byte[] assetDetailedToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(detailedAsset);
+    }
+}
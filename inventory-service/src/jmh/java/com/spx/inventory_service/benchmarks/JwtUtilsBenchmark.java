@@ -0,0 +1,67 @@
+package com.spx.inventory_service.benchmarks;
+
+import com.spx.inventory_service.security.JwtUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT work done by JwtAuthenticationFilter on every authenticated request:
+ * one validation plus one parse for the username and one for the roles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtUtilsBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+
+    private JwtUtils jwtUtils;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("jmh", Map.of("spring.security.jwt.secret", BenchmarkFixtures.JWT_SECRET)));
+        context.register(JwtUtils.class);
+        context.refresh();
+
+        jwtUtils = context.getBean(JwtUtils.class);
+        token = BenchmarkFixtures.token("bench-user", List.of("USER", "ADMIN"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtils.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtUtils.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public List<String> getRolesFromToken() {
+        return jwtUtils.getRolesFromToken(token);
+    }
+
+    /* Same sequence as JwtAuthenticationFilter.doFilterInternal */
+    @Benchmark
+    public List<String> filterSequence() {
+        jwtUtils.validateToken(token);
+        jwtUtils.getUsernameFromToken(token);
+        return jwtUtils.getRolesFromToken(token);
+    }
+}
@@ -0,0 +1,85 @@
+package com.spx.inventory_service.benchmarks;
+
+import com.spx.inventory_service.dto.AssetDetailedResponseDTO;
+import com.spx.inventory_service.dto.AssetRequestDTO;
+import com.spx.inventory_service.dto.AssetResponseDTO;
+import com.spx.inventory_service.dto.SoftwareLicenseResponseDTO;
+import com.spx.inventory_service.mappers.AssetMapper;
+import com.spx.inventory_service.mappers.AssetMapperImpl;
+import com.spx.inventory_service.mappers.SoftwareLicenseMapper;
+import com.spx.inventory_service.mappers.SoftwareLicenseMapperImpl;
+import com.spx.inventory_service.models.Asset;
+import com.spx.inventory_service.models.SoftwareLicense;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions used by every asset and software license endpoint.
+ *
+ * The mappers are wired by a minimal Spring context, exactly like in the application.
+ * The license mapping takes the installation count instead of walking installedAssets,
+ * so its cost must not grow with the installations parameter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+
+    // Number of assets a license is installed on
+    @Param({"1", "50", "1000"})
+    private int installations;
+
+    private AnnotationConfigApplicationContext context;
+
+    private AssetMapper assetMapper;
+    private SoftwareLicenseMapper softwareLicenseMapper;
+
+    private Asset asset;
+    private SoftwareLicense license;
+    private AssetRequestDTO assetRequest;
+
+    @Setup
+    public void setup() {
+
+        context = new AnnotationConfigApplicationContext(AssetMapperImpl.class, SoftwareLicenseMapperImpl.class);
+        assetMapper = context.getBean(AssetMapper.class);
+        softwareLicenseMapper = context.getBean(SoftwareLicenseMapper.class);
+
+        asset = BenchmarkFixtures.assetWithLicenses(5);
+        license = BenchmarkFixtures.licenseWithInstallations(installations);
+
+        assetRequest = new AssetRequestDTO();
+        assetRequest.setSerialNumber("lap-dev-001");
+        assetRequest.setOfficeName("milan");
+        assetRequest.setAssetTypeName("laptop");
+        assetRequest.setPurchaseDate(LocalDate.of(2025, 2, 10));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Asset assetToEntity() {
+        return assetMapper.toEntity(assetRequest);
+    }
+
+    @Benchmark
+    public AssetResponseDTO assetToDTO() {
+        return assetMapper.toDTO(asset);
+    }
+
+    @Benchmark
+    public AssetDetailedResponseDTO assetToDetailedDTO() {
+        return assetMapper.toDetailedDTO(asset);
+    }
+
+    @Benchmark
+    public SoftwareLicenseResponseDTO softwareLicenseToDTO() {
+        return softwareLicenseMapper.toDTO(license, license.getInstalledAssets().size());
+    }
+}
@@ -0,0 +1,76 @@
+package com.spx.inventory_service.benchmarks;
+
+import com.spx.inventory_service.dto.AssetRequestDTO;
+import com.spx.inventory_service.dto.AssetTypeRequestDTO;
+import com.spx.inventory_service.dto.OfficeRequestDTO;
+import com.spx.inventory_service.dto.SoftwareLicenseRequestDTO;
+import com.spx.inventory_service.utils.normalizer.AssetRequestNormalizer;
+import com.spx.inventory_service.utils.normalizer.AssetTypeRequestNormalizer;
+import com.spx.inventory_service.utils.normalizer.OfficeRequestNormalizer;
+import com.spx.inventory_service.utils.normalizer.SoftwareLicenseRequestNormalizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request normalizers, run on every create and update request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RequestNormalizerBenchmark {
+
+    // clean = client already sends normalized keys, dirty = everything must be rewritten
+    @Param({"clean", "dirty"})
+    private String input;
+
+    private AssetRequestDTO assetRequest;
+    private OfficeRequestDTO officeRequest;
+    private AssetTypeRequestDTO assetTypeRequest;
+    private SoftwareLicenseRequestDTO softwareLicenseRequest;
+
+    @Setup
+    public void setup() {
+
+        boolean clean = input.equals("clean");
+
+        assetRequest = new AssetRequestDTO();
+        assetRequest.setSerialNumber(clean ? "lap-dev-001" : "  LAP-DEV-001 ");
+        assetRequest.setOfficeName(clean ? "rome-hq" : "Rome-HQ\t");
+        assetRequest.setAssetTypeName(clean ? "docking-station" : " Docking-Station");
+        assetRequest.setPurchaseDate(LocalDate.of(2025, 1, 15));
+
+        officeRequest = new OfficeRequestDTO();
+        officeRequest.setOfficeName(clean ? "warehouse-east" : "  Warehouse   East ");
+
+        assetTypeRequest = new AssetTypeRequestDTO();
+        assetTypeRequest.setAssetTypeName(clean ? "monitor" : "MONITOR ");
+        assetTypeRequest.setAssetTypeDescription(clean ? "External display" : "  External   display  ");
+
+        softwareLicenseRequest = new SoftwareLicenseRequestDTO();
+        softwareLicenseRequest.setSoftwareName(clean ? "intellij-idea-ultimate" : " IntelliJ-IDEA-Ultimate  ");
+        softwareLicenseRequest.setMaxInstallations(5);
+        softwareLicenseRequest.setExpirationDate(LocalDate.of(2026, 2, 10));
+    }
+
+    @Benchmark
+    public AssetRequestDTO asset() {
+        return AssetRequestNormalizer.normalize(assetRequest);
+    }
+
+    @Benchmark
+    public OfficeRequestDTO office() {
+        return OfficeRequestNormalizer.normalize(officeRequest);
+    }
+
+    @Benchmark
+    public AssetTypeRequestDTO assetType() {
+        return AssetTypeRequestNormalizer.normalize(assetTypeRequest);
+    }
+
+    @Benchmark
+    public SoftwareLicenseRequestDTO softwareLicense() {
+        return SoftwareLicenseRequestNormalizer.normalize(softwareLicenseRequest);
+    }
+}
@@ -0,0 +1,107 @@
+package com.spx.inventory_service.benchmarks;
+
+import com.spx.inventory_service.utils.TextNormalizer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single-pass TextNormalizer with the previous regex based implementation.
+ *
+ * Key distributions:
+ * - clean: keys already normalized (what most clients send, e.g. "milan", "lap-dev-001")
+ * - mixed: 70% clean, 20% upper/mixed case, 10% padded or with repeated spaces
+ * - dirty: every key needs to be rewritten
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TextNormalizerBenchmark {
+
+    private static final String[] CLEAN_KEYS = {
+            "milan", "rome-hq", "warehouse-east", "training-center", "laptop", "docking-station",
+            "lap-dev-001", "mon-ops-001", "srv-dc-001", "microsoft-office-365", "intellij-idea-ultimate"
+    };
+
+    private static final String[] DESCRIPTIONS = {
+            "portable-computer", "External display for the  operations team", "  Datacenter server  "
+    };
+
+    @Param({"clean", "mixed", "dirty"})
+    private String distribution;
+
+    private String[] keys;
+
+    private int index;
+
+    @Setup
+    public void setup() {
+
+        Random random = new Random(42);
+        keys = new String[1024];
+
+        for (int i = 0; i < keys.length; i++) {
+            String key = CLEAN_KEYS[random.nextInt(CLEAN_KEYS.length)];
+            int roll = random.nextInt(100);
+
+            keys[i] = switch (distribution) {
+                case "clean" -> key;
+                case "dirty" -> "  " + key.toUpperCase(Locale.ROOT).replace("-", "  -  ") + " ";
+                default -> roll < 70 ? key : roll < 90 ? key.toUpperCase(Locale.ROOT) : "  " + key.replace("-", "   ") + "\t";
+            };
+        }
+    }
+
+    private String nextKey() {
+        index = (index + 1) & (keys.length - 1);
+        return keys[index];
+    }
+
+    @Benchmark
+    public String normalizeKey() {
+        return TextNormalizer.normalizeKey(nextKey());
+    }
+
+    @Benchmark
+    public String normalizeKeyLegacy() {
+        return LegacyTextNormalizer.normalizeKey(nextKey());
+    }
+
+    @Benchmark
+    public void normalizeText(Blackhole blackhole) {
+        for (String description : DESCRIPTIONS) {
+            blackhole.consume(TextNormalizer.normalizeText(description));
+        }
+    }
+
+    @Benchmark
+    public void normalizeTextLegacy(Blackhole blackhole) {
+        for (String description : DESCRIPTIONS) {
+            blackhole.consume(LegacyTextNormalizer.normalizeText(description));
+        }
+    }
+
+    /* Previous implementation, kept here as the baseline */
+    static final class LegacyTextNormalizer {
+
+        private LegacyTextNormalizer() {
+        }
+
+        static String normalizeKey(String incomingText) {
+            if (incomingText == null) {
+                return null;
+            }
+            return incomingText.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        }
+
+        static String normalizeText(String incomingDescription) {
+            if (incomingDescription == null) {
+                return null;
+            }
+            return incomingDescription.trim().replaceAll("\\s+", " ");
+        }
+    }
+}
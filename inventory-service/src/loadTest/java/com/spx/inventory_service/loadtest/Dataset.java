@@ -0,0 +1,9 @@
+package com.spx.inventory_service.loadtest;
+
+import java.util.List;
+
+/**
+ * Keys of the seeded rows, used to build request URLs.
+ */
+record Dataset(List<String> officeNames, List<String> assetTypeNames, List<String> serialNumbers, List<String> softwareNames) {
+}
@@ -0,0 +1,113 @@
+package com.spx.inventory_service.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds a synthetic dataset straight through JDBC (batched inserts), bypassing the REST API.
+ *
+ * All keys are prefixed with "lt-" so the load test never touches data.sql rows,
+ * and every insert is ON CONFLICT DO NOTHING: seeding twice with the same settings is a no-op.
+ */
+@Slf4j
+final class DatasetSeeder {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    DatasetSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    Dataset seed(LoadTestSettings settings) {
+
+        long start = System.nanoTime();
+        Random random = new Random(settings.seed());
+
+        // Step 1: Offices and asset types
+        List<String> officeNames = names("lt-office-%04d", settings.offices());
+        List<String> assetTypeNames = names("lt-type-%03d", settings.assetTypes());
+
+        batchInsert("INSERT INTO offices (name) VALUES (?) ON CONFLICT (name) DO NOTHING",
+                officeNames.stream().map(name -> new Object[]{name}).toList());
+
+        batchInsert("INSERT INTO asset_types (asset_type_name, asset_type_description) VALUES (?, ?) ON CONFLICT (asset_type_name) DO NOTHING",
+                assetTypeNames.stream().map(name -> new Object[]{name, "load test type"}).toList());
+
+        // Step 2: Assets (FK resolved by name)
+        List<String> serialNumbers = names("lt-%08d", settings.assets());
+        List<Object[]> assetRows = new ArrayList<>(serialNumbers.size());
+
+        for (String serialNumber : serialNumbers) {
+            assetRows.add(new Object[]{
+                    serialNumber,
+                    LocalDate.of(2018, 1, 1).plusDays(random.nextInt(365 * 7)),
+                    assetTypeNames.get(random.nextInt(assetTypeNames.size())),
+                    officeNames.get(random.nextInt(officeNames.size()))
+            });
+        }
+
+        batchInsert("""
+                INSERT INTO assets (serial_number, purchase_date, id_asset_type, id_office)
+                SELECT ?, ?, (SELECT id_asset_type FROM asset_types WHERE asset_type_name = ?), (SELECT id_office FROM offices WHERE name = ?)
+                ON CONFLICT (serial_number) DO NOTHING
+                """, assetRows);
+
+        // Step 3: Software licenses, expiring over the next two years (a few already expiring soon)
+        List<String> softwareNames = names("lt-license-%05d", settings.licenses());
+        List<Object[]> licenseRows = new ArrayList<>(softwareNames.size());
+
+        for (String softwareName : softwareNames) {
+            licenseRows.add(new Object[]{
+                    softwareName,
+                    LocalDate.now().plusDays(random.nextInt(730)),
+                    random.nextInt(4) == 0 ? null : settings.installationsPerLicense() * 4
+            });
+        }
+
+        batchInsert("INSERT INTO software_licenses (software_name, expiration_date, max_installations) VALUES (?, ?, ?) ON CONFLICT (software_name) DO NOTHING",
+                licenseRows);
+
+        // Step 4: Installations
+        List<Object[]> linkRows = new ArrayList<>();
+
+        for (String softwareName : softwareNames) {
+            int installations = random.nextInt(settings.installationsPerLicense() * 2 + 1);
+            for (int i = 0; i < installations; i++) {
+                linkRows.add(new Object[]{softwareName, serialNumbers.get(random.nextInt(serialNumbers.size()))});
+            }
+        }
+
+        batchInsert("""
+                INSERT INTO assets_licenses (license_id, asset_id)
+                SELECT (SELECT id_software_license FROM software_licenses WHERE software_name = ?), (SELECT id_asset FROM assets WHERE serial_number = ?)
+                ON CONFLICT DO NOTHING
+                """, linkRows);
+
+        log.info("Dataset seeded in {} ms. Offices: {}, asset types: {}, assets: {}, licenses: {}, installations: {}",
+                (System.nanoTime() - start) / 1_000_000, officeNames.size(), assetTypeNames.size(),
+                serialNumbers.size(), softwareNames.size(), linkRows.size());
+
+        return new Dataset(officeNames, assetTypeNames, serialNumbers, softwareNames);
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+
+    private static List<String> names(String format, int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(format.formatted(i));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,37 @@
+package com.spx.inventory_service.loadtest;
+
+/**
+ * Endpoints driven by the load test, with their weight inside the read or write mix.
+ * The label is the URL template, so latencies are reported per endpoint and not per URL.
+ */
+enum Endpoint {
+
+    // READ
+    GET_ASSET("GET /assets/{serialNumber}", false, 30),
+    GET_ASSET_DETAILS("GET /assets/{serialNumber}/details", false, 10),
+    GET_ASSETS_BY_OFFICE("GET /assets/offices/{officeName}", false, 5),
+    GET_ALL_OFFICES("GET /offices/all", false, 15),
+    GET_OFFICE("GET /offices/{name}", false, 15),
+    GET_LICENSE("GET /software-licenses/{softwareName}", false, 10),
+    GET_LICENSES_BY_ASSET("GET /software-licenses/assets/{serialNumber}", false, 10),
+    GET_LICENSES_EXPIRING_SOON("GET /software-licenses/expiring-soon", false, 5),
+    GET_EXPIRY_REPORT("GET /software-licenses/expiry-report", false, 5),
+    GET_ASSET_COUNTS_BY_OFFICE("GET /assets/statistics/offices", false, 5),
+
+    // WRITE
+    CREATE_ASSET("POST /assets/insert", true, 25),
+    MOVE_ASSET("PUT /assets/{serialNumber}/move", true, 30),
+    INSTALL_LICENSE("POST /software-licenses/{softwareName}/install/{serialNumber}", true, 20),
+    UNINSTALL_LICENSE("DELETE /software-licenses/{softwareName}/uninstall/{serialNumber}", true, 15),
+    DELETE_ASSET("DELETE /assets/{serialNumber}", true, 10);
+
+    final String label;
+    final boolean write;
+    final int weight;
+
+    Endpoint(String label, boolean write, int weight) {
+        this.label = label;
+        this.write = write;
+        this.weight = weight;
+    }
+}
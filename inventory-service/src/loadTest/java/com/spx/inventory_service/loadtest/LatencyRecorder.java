@@ -0,0 +1,64 @@
+package com.spx.inventory_service.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latency samples of one endpoint, recorded by a single client thread.
+ * Recorders of different threads are merged once the run is over, so no synchronization is needed.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size;
+    private long errors;
+
+    void record(long nanos, boolean success) {
+
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+
+        samples[size++] = nanos;
+
+        if (!success) {
+            errors++;
+        }
+    }
+
+    void merge(LatencyRecorder other) {
+
+        if (size + other.size > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(samples.length * 2, size + other.size));
+        }
+
+        System.arraycopy(other.samples, 0, samples, size, other.size);
+        size += other.size;
+        errors += other.errors;
+    }
+
+    int count() {
+        return size;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    /* Percentiles in milliseconds (nearest-rank). Sorts the samples, call only once the run is over. */
+    double[] percentilesMillis(double... percentiles) {
+
+        Arrays.sort(samples, 0, size);
+
+        double[] result = new double[percentiles.length];
+
+        for (int i = 0; i < percentiles.length; i++) {
+            if (size == 0) {
+                continue;
+            }
+            int rank = (int) Math.ceil(percentiles[i] / 100.0 * size);
+            result[i] = samples[Math.min(Math.max(rank, 1), size) - 1] / 1_000_000.0;
+        }
+
+        return result;
+    }
+}
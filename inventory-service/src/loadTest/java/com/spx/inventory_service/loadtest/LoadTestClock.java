@@ -0,0 +1,25 @@
+package com.spx.inventory_service.loadtest;
+
+/**
+ * Shared timeline of a run: warmup first (requests are sent but not recorded), then measurement.
+ */
+final class LoadTestClock {
+
+    private final long measureStart;
+    private final long end;
+
+    LoadTestClock(int warmupSeconds, int durationSeconds) {
+        long now = System.nanoTime();
+        this.measureStart = now + warmupSeconds * 1_000_000_000L;
+        this.end = measureStart + durationSeconds * 1_000_000_000L;
+    }
+
+    boolean isMeasuring() {
+        long now = System.nanoTime();
+        return now >= measureStart && now < end;
+    }
+
+    boolean isOver() {
+        return System.nanoTime() >= end;
+    }
+}
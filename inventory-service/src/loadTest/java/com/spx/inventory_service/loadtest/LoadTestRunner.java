@@ -0,0 +1,184 @@
+package com.spx.inventory_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.spx.inventory_service.InventoryServiceApplication;
+import com.spx.inventory_service.services.AssetStatisticsService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end HTTP load test.
+ *
+ * 1. Starts InventoryServiceApplication in-process (dev profile, random port) against the local database
+ *    configured by the usual DB_HOST / DB_PORT / DB_NAME / DB_ADMIN_USERNAME / DB_ADMIN_PASSWORD variables.
+ * 2. Seeds a synthetic dataset (see DatasetSeeder).
+ * 3. Mints a JWT signed with the test secret and drives a mixed read/write workload with N concurrent clients.
+ * 4. Prints throughput and p50/p99/p999 latencies per endpoint and writes them as JSON.
+ *
+ * Run with: ./gradlew loadTest -Ploadtest.threads=64 -Ploadtest.durationSeconds=120
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+    // Base64 secret shared by the in-process service and the minted tokens (test only)
+    static final String TEST_JWT_SECRET = "Y2lhbXMtbG9hZC10ZXN0LXNlY3JldC1rZXktMzItYnl0ZXMtbG9uZyE=";
+
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        // Step 1: Start the service. Command line arguments win over application-dev.yaml
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InventoryServiceApplication.class)
+                .profiles("dev")
+                .run(
+                        "--server.port=0",
+                        "--spring.security.jwt.secret=" + TEST_JWT_SECRET,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate.SQL=warn",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=warn",
+                        "--logging.level.org.springframework.cache=warn",
+                        "--logging.level.com.spx.inventory_service=warn"
+                );
+
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            // Step 2: Seed the dataset
+            Dataset dataset = new DatasetSeeder(context.getBean(JdbcTemplate.class)).seed(settings);
+
+            // Seeded rows bypass AssetService: recount them
+            context.getBean(AssetStatisticsService.class).rebuildCounters();
+
+            // Step 3: Run the workload
+            Map<Endpoint, LatencyRecorder> results = runWorkload(settings, baseUrl, dataset);
+
+            // Step 4: Report
+            report(settings, results);
+
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Map<Endpoint, LatencyRecorder> runWorkload(LoadTestSettings settings, String baseUrl, Dataset dataset) throws InterruptedException {
+
+        String token = Jwts.builder()
+                .subject("load-test")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(6)))
+                .claim("roles", List.of("USER", "ADMIN"))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(TEST_JWT_SECRET)), Jwts.SIG.HS256)
+                .compact();
+
+        ExecutorService executor = Executors.newFixedThreadPool(settings.threads());
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        LoadTestClock clock = new LoadTestClock(settings.warmupSeconds(), settings.durationSeconds());
+        List<LoadWorker> workers = new ArrayList<>();
+
+        log.warn("Load test started. Threads: {}, warmup: {}s, duration: {}s, writes: {}%",
+                settings.threads(), settings.warmupSeconds(), settings.durationSeconds(), settings.writePercent());
+
+        for (int i = 0; i < settings.threads(); i++) {
+            LoadWorker worker = new LoadWorker(i, httpClient, baseUrl, token, dataset, settings, clock);
+            workers.add(worker);
+            executor.execute(worker);
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(settings.warmupSeconds() + settings.durationSeconds() + 60L, TimeUnit.SECONDS);
+
+        // Merge per-worker recorders
+        Map<Endpoint, LatencyRecorder> merged = new EnumMap<>(Endpoint.class);
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            workers.forEach(worker -> recorder.merge(worker.recorders().get(endpoint)));
+            merged.put(endpoint, recorder);
+        }
+
+        return merged;
+    }
+
+    private static void report(LoadTestSettings settings, Map<Endpoint, LatencyRecorder> results) throws Exception {
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        long totalRequests = 0;
+        long totalErrors = 0;
+
+        System.out.printf("%n%-66s %9s %8s %10s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms");
+
+        for (Map.Entry<Endpoint, LatencyRecorder> entry : results.entrySet()) {
+
+            LatencyRecorder recorder = entry.getValue();
+
+            if (recorder.count() == 0) {
+                continue;
+            }
+
+            double throughput = recorder.count() / (double) settings.durationSeconds();
+            double[] percentiles = recorder.percentilesMillis(PERCENTILES);
+
+            System.out.printf("%-66s %9d %8d %10.1f %9.2f %9.2f %9.2f%n", entry.getKey().label, recorder.count(), recorder.errors(),
+                    throughput, percentiles[0], percentiles[1], percentiles[2]);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", entry.getKey().label);
+            row.put("requests", recorder.count());
+            row.put("errors", recorder.errors());
+            row.put("throughputPerSecond", throughput);
+            row.put("p50Millis", percentiles[0]);
+            row.put("p99Millis", percentiles[1]);
+            row.put("p999Millis", percentiles[2]);
+            rows.add(row);
+
+            totalRequests += recorder.count();
+            totalErrors += recorder.errors();
+        }
+
+        System.out.printf("%nTotal: %d requests, %d errors, %.1f req/s%n", totalRequests, totalErrors, totalRequests / (double) settings.durationSeconds());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", LocalDateTime.now().toString());
+        report.put("settings", settings);
+        report.put("totalRequests", totalRequests);
+        report.put("totalErrors", totalErrors);
+        report.put("endpoints", rows);
+
+        File reportFile = new File(settings.reportFile());
+        reportFile.getParentFile().mkdirs();
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+
+        System.out.println("Report written to " + reportFile.getAbsolutePath());
+    }
+}
@@ -0,0 +1,45 @@
+package com.spx.inventory_service.loadtest;
+
+/**
+ * Load test knobs, read from system properties (forwarded by the Gradle task as -Ploadtest.xxx=value).
+ *
+ * Dataset:
+ * - loadtest.offices, loadtest.assetTypes, loadtest.assets, loadtest.licenses
+ * - loadtest.installationsPerLicense: average number of assets per license
+ * - loadtest.seed: random seed, same seed = same dataset and same request sequence
+ *
+ * Run:
+ * - loadtest.threads: concurrent clients
+ * - loadtest.warmupSeconds / loadtest.durationSeconds
+ * - loadtest.writePercent: share of write requests (0-100)
+ * - loadtest.reportFile: JSON report path
+ */
+record LoadTestSettings(
+        int offices,
+        int assetTypes,
+        int assets,
+        int licenses,
+        int installationsPerLicense,
+        long seed,
+        int threads,
+        int warmupSeconds,
+        int durationSeconds,
+        int writePercent,
+        String reportFile) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.offices", 50),
+                Integer.getInteger("loadtest.assetTypes", 20),
+                Integer.getInteger("loadtest.assets", 20_000),
+                Integer.getInteger("loadtest.licenses", 500),
+                Integer.getInteger("loadtest.installationsPerLicense", 40),
+                Long.getLong("loadtest.seed", 42L),
+                Integer.getInteger("loadtest.threads", 32),
+                Integer.getInteger("loadtest.warmupSeconds", 10),
+                Integer.getInteger("loadtest.durationSeconds", 60),
+                Integer.getInteger("loadtest.writePercent", 20),
+                System.getProperty("loadtest.reportFile", "build/reports/loadtest/report.json")
+        );
+    }
+}
@@ -0,0 +1,186 @@
+package com.spx.inventory_service.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One simulated client. Picks endpoints from the weighted read/write mix and
+ * records the latency of every request into its own recorders.
+ */
+final class LoadWorker implements Runnable {
+
+    private final int workerId;
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final String authorization;
+    private final Dataset dataset;
+    private final LoadTestSettings settings;
+    private final LoadTestClock clock;
+    private final Random random;
+
+    private final Map<Endpoint, LatencyRecorder> recorders = new EnumMap<>(Endpoint.class);
+
+    // Rows created by this worker: deletes only target them, uninstalls mostly hit existing data
+    private final List<String> createdSerialNumbers = new ArrayList<>();
+    private final List<String[]> installations = new ArrayList<>();
+    private int createdCount;
+
+    LoadWorker(int workerId, HttpClient httpClient, String baseUrl, String token, Dataset dataset, LoadTestSettings settings, LoadTestClock clock) {
+        this.workerId = workerId;
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.authorization = "Bearer " + token;
+        this.dataset = dataset;
+        this.settings = settings;
+        this.clock = clock;
+        this.random = new Random(settings.seed() + workerId);
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new LatencyRecorder());
+        }
+    }
+
+    Map<Endpoint, LatencyRecorder> recorders() {
+        return recorders;
+    }
+
+    @Override
+    public void run() {
+
+        while (!clock.isOver()) {
+
+            Endpoint endpoint = nextEndpoint();
+            HttpRequest request = buildRequest(endpoint);
+
+            long start = System.nanoTime();
+            int status;
+
+            try {
+                status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                status = -1;
+            }
+
+            long elapsed = System.nanoTime() - start;
+
+            if (clock.isMeasuring()) {
+                recorders.get(endpoint).record(elapsed, status >= 200 && status < 300);
+            }
+
+            afterResponse(endpoint, request, status);
+        }
+    }
+
+    // ==========================================================
+    // REQUEST MIX
+    // ==========================================================
+
+    private Endpoint nextEndpoint() {
+
+        boolean write = random.nextInt(100) < settings.writePercent();
+        int totalWeight = 0;
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            if (endpoint.write == write) {
+                totalWeight += endpoint.weight;
+            }
+        }
+
+        int roll = random.nextInt(totalWeight);
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            if (endpoint.write == write) {
+                roll -= endpoint.weight;
+                if (roll < 0) {
+                    // Nothing of ours to delete yet: create it first (a delete of a missing serial is a 404, not a delete)
+                    return endpoint == Endpoint.DELETE_ASSET && createdSerialNumbers.isEmpty() ? Endpoint.CREATE_ASSET : endpoint;
+                }
+            }
+        }
+
+        throw new IllegalStateException("Empty endpoint mix");
+    }
+
+    private HttpRequest buildRequest(Endpoint endpoint) {
+
+        return switch (endpoint) {
+            case GET_ASSET -> get("/assets/" + pick(dataset.serialNumbers()));
+            case GET_ASSET_DETAILS -> get("/assets/" + pick(dataset.serialNumbers()) + "/details");
+            case GET_ASSETS_BY_OFFICE -> get("/assets/offices/" + pick(dataset.officeNames()));
+            case GET_ALL_OFFICES -> get("/offices/all");
+            case GET_OFFICE -> get("/offices/" + pick(dataset.officeNames()));
+            case GET_LICENSE -> get("/software-licenses/" + pick(dataset.softwareNames()));
+            case GET_LICENSES_BY_ASSET -> get("/software-licenses/assets/" + pick(dataset.serialNumbers()));
+            case GET_LICENSES_EXPIRING_SOON -> get("/software-licenses/expiring-soon");
+            case GET_EXPIRY_REPORT -> get("/software-licenses/expiry-report?days=90");
+            case GET_ASSET_COUNTS_BY_OFFICE -> get("/assets/statistics/offices");
+
+            case CREATE_ASSET -> {
+                String serialNumber = "lt-w%02d-%08d".formatted(workerId, createdCount++);
+                String body = """
+                        {"serialNumber":"%s","purchaseDate":"%s","officeName":"%s","assetTypeName":"%s"}
+                        """.formatted(serialNumber, LocalDate.now(), pick(dataset.officeNames()), pick(dataset.assetTypeNames()));
+                yield request("/assets/insert").header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+            }
+            case MOVE_ASSET -> request("/assets/" + pick(dataset.serialNumbers()) + "/move?newOfficeName="
+                    + URLEncoder.encode(pick(dataset.officeNames()), StandardCharsets.UTF_8))
+                    .PUT(HttpRequest.BodyPublishers.noBody()).build();
+            case INSTALL_LICENSE -> request("/software-licenses/" + pick(dataset.softwareNames()) + "/install/" + pick(dataset.serialNumbers()))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+            case UNINSTALL_LICENSE -> {
+                String[] installation = installations.isEmpty()
+                        ? new String[]{pick(dataset.softwareNames()), pick(dataset.serialNumbers())}
+                        : installations.remove(installations.size() - 1);
+                yield request("/software-licenses/" + installation[0] + "/uninstall/" + installation[1]).DELETE().build();
+            }
+            case DELETE_ASSET -> request("/assets/" + createdSerialNumbers.remove(createdSerialNumbers.size() - 1)).DELETE().build();
+        };
+    }
+
+    /* Keeps track of the rows this worker created, to feed deletes and uninstalls */
+    private void afterResponse(Endpoint endpoint, HttpRequest request, int status) {
+
+        if (status < 200 || status >= 300) {
+            return;
+        }
+
+        String[] path = request.uri().getPath().split("/");
+
+        if (endpoint == Endpoint.CREATE_ASSET) {
+            createdSerialNumbers.add("lt-w%02d-%08d".formatted(workerId, createdCount - 1));
+        } else if (endpoint == Endpoint.INSTALL_LICENSE) {
+            // /software-licenses/{softwareName}/install/{serialNumber}
+            installations.add(new String[]{path[2], path[4]});
+        }
+    }
+
+    // ==========================================================
+    // HELPERS
+    // ==========================================================
+
+    private String pick(List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", authorization);
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+}
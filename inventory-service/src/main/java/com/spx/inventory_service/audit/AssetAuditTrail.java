@@ -0,0 +1,262 @@
+package com.spx.inventory_service.audit;
+
+import com.spx.inventory_service.datasource.WorkloadContext;
+import com.spx.inventory_service.datasource.WorkloadType;
+import com.spx.inventory_service.events.InventoryEvent;
+import com.spx.inventory_service.events.InventoryEventType;
+import com.spx.inventory_service.repositories.AssetAuditRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind audit trail of the inventory mutations (who moved which asset where, who installed what).
+ *
+ * - after commit, the event and the authenticated username are queued in a bounded lock-free ring buffer:
+ *   the request pays one CAS, never an insert
+ * - a background thread flushes the buffer to asset_audit every inventory.audit.flush-interval, in batched JDBC inserts,
+ *   on the reporting pool (the buffer absorbs a wait for a connection, a request would not)
+ * - a full buffer drops the record (counted in droppedRecords) instead of slowing the writers down
+ * - a failed flush keeps its batch and retries it on the next run, at most inventory.audit.max-attempts times: then the batch
+ *   is written to the log (dead letter) and dropped, so one bad record never blocks the trail
+ * - on shutdown the buffer is flushed before the datasource closes
+ */
+@Component
+@Slf4j
+public class AssetAuditTrail {
+
+    // Recorded when the change does not come from an HTTP request (startup jobs, data generator)
+    private static final String SYSTEM_USER = "system";
+
+    @Autowired
+    private AssetAuditRepository assetAuditRepository;
+
+    @Value("${inventory.audit.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${inventory.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${inventory.audit.flush-interval:PT1S}")
+    private Duration flushInterval;
+
+    @Value("${inventory.audit.max-attempts:3}")
+    private int maxAttempts;
+
+    private AuditRingBuffer<AuditRecord> buffer;
+
+    // Batch being written (kept across runs when the insert fails). Flusher thread only
+    private final List<AuditRecord> pending = new ArrayList<>();
+
+    // Failed inserts of the pending batch. Flusher thread only
+    private int pendingAttempts;
+
+    // Size of the pending batch, for the readers of the metrics
+    private final AtomicInteger pendingRecords = new AtomicInteger();
+
+    private final AtomicLong droppedRecords = new AtomicLong();
+
+    private final AtomicLong writtenRecords = new AtomicLong();
+
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    private final AtomicLong deadLetteredRecords = new AtomicLong();
+
+    // Age of the oldest record of the last flushed batch (queue time + insert time)
+    private final AtomicLong lastFlushLagMillis = new AtomicLong();
+
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    void start() {
+        buffer = new AuditRingBuffer<>(bufferSize);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+
+        // Step 1: Stop the periodic flush (waits for a running one)
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+
+        // Step 2: Write what is left (the flusher is stopped: this thread is now the only consumer)
+        flushSafely();
+
+        if (getBufferedRecords() > 0) {
+            log.error("Audit trail: {} records lost at shutdown", getBufferedRecords());
+        }
+    }
+
+    // ==========================================================
+    // CAPTURE
+    // ==========================================================
+
+    /**
+     * Queues a committed event (runs on the request thread, so the security context is still available).
+     *
+     * @param event the inventory event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryEvent(InventoryEvent event) {
+
+        String username = currentUsername();
+
+        // An office consolidation is one event, but the history of every moved asset shows its move
+        if (event.type() == InventoryEventType.OFFICE_CONSOLIDATED) {
+            for (String serialNumber : event.serialNumbers()) {
+                offer(new AuditRecord(InventoryEventType.ASSET_MOVED.name(), serialNumber, event.officeName(),
+                        null, null, event.previousValue(), username, event.occurredAt()));
+            }
+            return;
+        }
+
+        offer(new AuditRecord(event.type().name(), event.serialNumber(), event.officeName(),
+                event.assetTypeName(), event.softwareName(), event.previousValue(), username, event.occurredAt()));
+    }
+
+    private void offer(AuditRecord record) {
+
+        if (!buffer.offer(record)) {
+            if (droppedRecords.incrementAndGet() % 1000 == 1) {
+                log.warn("Audit buffer full ({} records): {} records dropped so far", buffer.capacity(), droppedRecords.get());
+            }
+        }
+    }
+
+    private static String currentUsername() {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return SYSTEM_USER;
+        }
+
+        return authentication.getName();
+    }
+
+    // ==========================================================
+    // FLUSH
+    // ==========================================================
+
+    /**
+     * Writes the buffered records in batches until the buffer is empty or an insert fails
+     * (a batch that failed inventory.audit.max-attempts times is dead-lettered instead).
+     *
+     * @return the number of records written
+     */
+    public synchronized int flush() {
+
+        int written = 0;
+
+        while (true) {
+
+            // Step 1: Retry the failed batch first, otherwise take the next one
+            if (pending.isEmpty() && buffer.drainTo(pending, batchSize) == 0) {
+                return written;
+            }
+            pendingRecords.set(pending.size());
+
+            // Step 2: One batched insert (throws: the batch stays pending, until its last attempt)
+            try {
+                assetAuditRepository.insertAll(pending);
+            } catch (RuntimeException e) {
+                if (++pendingAttempts < maxAttempts) {
+                    throw e;
+                }
+                deadLetter(e);
+                continue;
+            }
+
+            written += pending.size();
+            writtenRecords.addAndGet(pending.size());
+            lastFlushLagMillis.set(Duration.between(pending.get(0).occurredAt(), Instant.now()).toMillis());
+            clearPending();
+        }
+    }
+
+    // Gives up on the pending batch: every record goes to the log, the next batch can be written
+    private void deadLetter(RuntimeException e) {
+
+        log.error("Audit batch of {} records dropped after {} failed inserts: {}", pending.size(), pendingAttempts, e.toString());
+
+        for (AuditRecord record : pending) {
+            log.error("Audit record dropped: {}", record);
+        }
+
+        deadLetteredRecords.addAndGet(pending.size());
+        clearPending();
+    }
+
+    private void clearPending() {
+        pending.clear();
+        pendingAttempts = 0;
+        pendingRecords.set(0);
+    }
+
+    // Called by the flusher and at shutdown
+    private void flushSafely() {
+        try {
+            WorkloadContext.run(WorkloadType.REPORTING, this::flush);
+        } catch (RuntimeException e) {
+            failedFlushes.incrementAndGet();
+            log.warn("Audit flush failed, {} records kept for the next run: {}", pendingRecords.get(), e.toString());
+        }
+    }
+
+    // ==========================================================
+    // METRICS
+    // ==========================================================
+
+    public int getBufferedRecords() {
+        return buffer.size() + pendingRecords.get();
+    }
+
+    public int getBufferCapacity() {
+        return buffer.capacity();
+    }
+
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    public long getWrittenRecords() {
+        return writtenRecords.get();
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes.get();
+    }
+
+    public long getDeadLetteredRecords() {
+        return deadLetteredRecords.get();
+    }
+
+    public long getLastFlushLagMillis() {
+        return lastFlushLagMillis.get();
+    }
+}
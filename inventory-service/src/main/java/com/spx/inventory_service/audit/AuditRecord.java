@@ -0,0 +1,20 @@
+package com.spx.inventory_service.audit;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * One row of the asset_audit table: an inventory event plus the user who caused it.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuditRecord(String eventType,
+                          String serialNumber,
+                          String officeName,
+                          String assetTypeName,
+                          String softwareName,
+                          String previousValue,
+                          String username,
+                          Instant occurredAt) implements Serializable {
+}
@@ -0,0 +1,104 @@
+package com.spx.inventory_service.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer: many producers (request threads), one consumer (the audit flusher).
+ *
+ * Every slot has a sequence number telling whose turn it is:
+ * - sequence == position: free, a producer can claim it (CAS on tail)
+ * - sequence == position + 1: filled, the consumer can take it
+ * - after a take the slot sequence moves one lap ahead (position + capacity)
+ * offer never blocks or spins on a full buffer: it returns false and the caller drops the element.
+ */
+final class AuditRingBuffer<T> {
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final AtomicReferenceArray<T> slots;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    // Written by the consumer only, read by size()
+    private final AtomicLong head = new AtomicLong();
+
+    AuditRingBuffer(int requestedCapacity) {
+        capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1) << 1);   // next power of two
+        mask = capacity - 1;
+        slots = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false when the buffer is full
+     */
+    boolean offer(T element) {
+
+        long position = tail.get();
+
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1);   // publish to the consumer
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;   // the consumer has not freed this slot yet: full
+            } else {
+                position = tail.get();   // another producer took the slot
+            }
+        }
+    }
+
+    /**
+     * Moves up to max elements to the target list, oldest first. Single consumer only.
+     *
+     * @return the number of elements moved
+     */
+    int drainTo(List<T> target, int max) {
+
+        long position = head.get();
+        int count = 0;
+
+        while (count < max) {
+            int index = (int) (position & mask);
+
+            if (sequences.get(index) != position + 1) {
+                break;   // empty, or a producer claimed the slot but has not written it yet
+            }
+
+            target.add(slots.get(index));
+            slots.set(index, null);
+            sequences.set(index, position + capacity);   // free for the next lap
+            position++;
+            count++;
+        }
+
+        head.set(position);
+        return count;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,47 @@
+package com.spx.inventory_service.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Loaders of the refreshed caches, one per cache name (see CaffeineCacheConfig.REFRESHED_CACHES).
+ *
+ * Services register the uncached load of their @Cacheable methods at startup, so Caffeine can reload
+ * a popular entry in the background (refreshAfterWrite) with the same code that loaded it the first time.
+ */
+@Component
+public class CacheLoaders {
+
+    private final Map<String, Function<Object, Object>> loaders = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the loader of a cache.
+     *
+     * @param cacheName the cache name
+     * @param loader    loads the value of a key (the key built by the @Cacheable annotation), never null
+     */
+    public void register(String cacheName, Function<Object, Object> loader) {
+        loaders.put(cacheName, loader);
+    }
+
+    /**
+     * Loads the value of a key.
+     *
+     * @param cacheName the cache name
+     * @param key       the cache key
+     * @return the value
+     */
+    public Object load(String cacheName, Object key) {
+
+        Function<Object, Object> loader = loaders.get(cacheName);
+
+        if (loader == null) {
+            throw new IllegalStateException("No loader registered for cache " + cacheName);
+        }
+
+        return loader.apply(key);
+    }
+}
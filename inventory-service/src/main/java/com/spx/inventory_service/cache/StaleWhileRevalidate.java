@@ -0,0 +1,230 @@
+package com.spx.inventory_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Degraded mode of the cached reads: when the database is slow or saturated, serve the last known value.
+ *
+ * - cache hit: the cached value, nothing else
+ * - cache miss: the cached read runs on a small pool (inventory.cache.revalidate-threads) and the request waits for it
+ *   at most inventory.cache.load-budget. If the budget is exceeded, if the pool is busy or if no database connection
+ *   is available (Hikari pool exhausted, database down), the last value loaded for that key is served as stale
+ *   (Warning header). A load still running completes in the background and fills the cache again (revalidation)
+ * - no last known value (never loaded or older than inventory.cache.max-stale): the request waits or fails as before
+ *
+ * Not found and validation errors are never hidden: only slowness and connection failures switch to the stale value.
+ *
+ * The loads stay on the interactive pool (WorkloadContext default): they are the lookups of a request that is waiting
+ * for them, and at most inventory.cache.revalidate-threads of them hold a connection at the same time.
+ */
+@Component
+@Slf4j
+public class StaleWhileRevalidate {
+
+    // RFC 7234 warn-code 110: the response is stale
+    public static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${inventory.cache.load-budget:PT0.5S}")
+    private Duration loadBudget;
+
+    @Value("${inventory.cache.max-stale:PT1H}")
+    private Duration maxStale;
+
+    @Value("${inventory.cache.revalidate-threads:8}")
+    private int revalidateThreads;
+
+    private Cache<List<Object>, Snapshot> lastKnownValues;
+
+    private ThreadPoolExecutor loaders;
+
+    private final AtomicLong staleResponses = new AtomicLong();
+
+    /* A value read from a cache, stale = served from the last known values */
+    public record CachedRead<T>(T value, boolean stale) {
+
+        /* 200 response builder, with the Warning header when the value is stale */
+        public ResponseEntity.BodyBuilder ok() {
+            return stale ? ResponseEntity.ok().header(HttpHeaders.WARNING, STALE_WARNING) : ResponseEntity.ok();
+        }
+    }
+
+    private record Snapshot(Object value, Instant loadedAt) {
+    }
+
+    @PostConstruct
+    void start() {
+        lastKnownValues = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(maxStale)
+                .build();
+
+        // No queue: when every thread is busy the database is already the bottleneck, the caller gets the stale value
+        AtomicInteger threadNumber = new AtomicInteger();
+        loaders = new ThreadPoolExecutor(revalidateThreads, revalidateThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "cache-revalidate-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        loaders.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void stop() {
+        loaders.shutdownNow();
+    }
+
+    // ==========================================================
+    // READ
+    // ==========================================================
+
+    /**
+     * Reads a cached value, falling back to the last known value when the load is slow or the database unavailable.
+     *
+     * @param cacheName  the cache name
+     * @param key        the cache key (the CaffeineCacheConfig key of the @Cacheable method)
+     * @param cachedRead the @Cacheable service call
+     * @return the value and whether it is stale
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CachedRead<T> read(String cacheName, Object key, Supplier<T> cachedRead) {
+
+        List<Object> snapshotKey = List.of(cacheName, key);
+
+        // Step 1: Cache hit (no load, a due refresh-ahead starts in the background)
+        Object cached = cachedValue(cacheName, key);
+
+        if (cached != null) {
+            remember(snapshotKey, cached);
+            return new CachedRead<>((T) cached, false);
+        }
+
+        // Step 2: Cache miss: load on the pool, wait at most the budget
+        CompletableFuture<T> load;
+
+        try {
+            load = CompletableFuture.supplyAsync(cachedRead, loaders);
+        } catch (RejectedExecutionException ex) {
+            return staleOr(snapshotKey, cacheName, key, "every loader busy", cachedRead);
+        }
+
+        try {
+            T value = load.get(loadBudget.toMillis(), TimeUnit.MILLISECONDS);
+            remember(snapshotKey, value);
+            return new CachedRead<>(value, false);
+
+        } catch (TimeoutException ex) {
+            // The load goes on and fills the cache for the next requests
+            return staleOr(snapshotKey, cacheName, key, "load over budget", load::join);
+
+        } catch (ExecutionException ex) {
+            RuntimeException cause = ex.getCause() instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(ex.getCause());
+
+            if (!isConnectionFailure(cause)) {
+                throw cause;
+            }
+            return staleOr(snapshotKey, cacheName, key, "database unavailable", () -> { throw cause; });
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return staleOr(snapshotKey, cacheName, key, "interrupted", load::join);
+        }
+    }
+
+    public long getStaleResponses() {
+        return staleResponses.get();
+    }
+
+    // Last known value if any, otherwise the normal outcome (wait for the load, or its error)
+    @SuppressWarnings("unchecked")
+    private <T> CachedRead<T> staleOr(List<Object> snapshotKey, String cacheName, Object key, String reason, Supplier<T> otherwise) {
+
+        Snapshot snapshot = lastKnownValues.getIfPresent(snapshotKey);
+
+        if (snapshot == null) {
+            T value = unwrap(otherwise);
+            remember(snapshotKey, value);
+            return new CachedRead<>(value, false);
+        }
+
+        staleResponses.incrementAndGet();
+        log.warn("Serving stale value. Cache: {}, Key: {}, Reason: {}, Loaded at: {}", cacheName, key, reason, snapshot.loadedAt());
+
+        return new CachedRead<>((T) snapshot.value(), true);
+    }
+
+    // CompletableFuture.join wraps the load errors in CompletionException
+    private static <T> T unwrap(Supplier<T> supplier) {
+        try {
+            return supplier.get();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException runtimeException ? runtimeException : ex;
+        }
+    }
+
+    // Keeps the value as last known (a new snapshot only when the cached value changed)
+    private void remember(List<Object> snapshotKey, Object value) {
+
+        Snapshot snapshot = lastKnownValues.getIfPresent(snapshotKey);
+
+        if (snapshot == null || snapshot.value() != value) {
+            lastKnownValues.put(snapshotKey, new Snapshot(value, Instant.now()));
+        }
+    }
+
+    // Present value only: the native lookup never loads
+    private Object cachedValue(String cacheName, Object key) {
+
+        if (cacheManager.getCache(cacheName) instanceof CaffeineCache caffeineCache) {
+            return caffeineCache.getNativeCache().getIfPresent(key);
+        }
+
+        return null;
+    }
+
+    private static boolean isConnectionFailure(Throwable error) {
+
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof TransientDataAccessResourceException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -1,21 +1,74 @@
 package com.spx.inventory_service.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spx.inventory_service.cache.CacheLoaders;
+import com.spx.inventory_service.utils.TextNormalizer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Caffeine caches.
+ *
+ * Hot-key protection for the cached reads of OfficeService and AssetTypeService:
+ * - single flight: @Cacheable(sync = true) and the loading caches below run one load per key,
+ *   concurrent misses on the same key wait for it instead of all querying the database
+ * - refresh ahead: an entry read after inventory.cache.refresh-after-write is reloaded in the background
+ *   (the readers keep getting the current value), so popular keys never expire while they are used.
+ *   Entries nobody reads still expire after inventory.cache.expire-after-write
+ */
 @Configuration
 public class CaffeineCacheConfig {
 
+    public static final String OFFICES_ALL = "offices-all";
+    public static final String OFFICES_BY_NAME = "offices-by-name";
+    public static final String ASSET_TYPES_ALL = "assets-type";
+    public static final String ASSET_TYPES_BY_NAME = "assets-type-by-name";
+
+    // Keys of the cached reads: used by the @Cacheable methods and by the StaleWhileRevalidate reads of the same entries
+    public static final Object ALL_KEY = SimpleKey.EMPTY;
+
+    public static String nameKey(String name) {
+        return TextNormalizer.normalizeKey(name);
+    }
+
+    // Caches reloaded in the background, their loaders are registered in CacheLoaders by the services
+    static final List<String> REFRESHED_CACHES = List.of(OFFICES_ALL, OFFICES_BY_NAME, ASSET_TYPES_ALL, ASSET_TYPES_BY_NAME);
+
+    @Value("${inventory.cache.expire-after-write:PT1M}")
+    private Duration expireAfterWrite;
+
+    @Value("${inventory.cache.refresh-after-write:PT45S}")
+    private Duration refreshAfterWrite;
+
+    @Value("${inventory.cache.refresh-threads:2}")
+    private int refreshThreads;
+
     @Bean
-    public CacheManager cacheManager(){
+    public CacheManager cacheManager(CacheLoaders cacheLoaders){
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
         cacheManager.setCaffeine(caffeineCacheBuilder());
         cacheManager.setAllowNullValues(false);
+
+        // Background reloads run on their own small pool (they block on the database)
+        Executor refreshExecutor = refreshExecutor();
+
+        for (String cacheName : REFRESHED_CACHES) {
+            cacheManager.registerCustomCache(cacheName, caffeineCacheBuilder()
+                    .refreshAfterWrite(refreshAfterWrite)
+                    .executor(refreshExecutor)
+                    .build(key -> cacheLoaders.load(cacheName, key)));
+        }
+
         return cacheManager;
     }
 
@@ -23,10 +76,18 @@ public class CaffeineCacheConfig {
         return Caffeine.newBuilder()
                 .initialCapacity(100)
                 .maximumSize(500)
-                .expireAfterWrite(1, TimeUnit.MINUTES)
+                .expireAfterWrite(expireAfterWrite)
                 .recordStats();
 
     }
 
-}
+    private Executor refreshExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(refreshThreads, runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
+}
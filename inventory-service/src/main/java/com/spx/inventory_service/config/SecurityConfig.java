@@ -3,6 +3,7 @@ package com.spx.inventory_service.config;
 import com.spx.inventory_service.security.JwtAccessDeniedHandler;
 import com.spx.inventory_service.security.JwtAuthenticationEntryPoint;
 import com.spx.inventory_service.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -54,8 +55,18 @@ public class SecurityConfig {
                         // Public endpoints (if any)
                         .requestMatchers("/error").permitAll()
 
+                        // Async dispatch of a request already authorized (end of an SSE stream)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
+                        // Audit trail (who changed what): ADMIN only
+                        .requestMatchers("/audit/**").hasRole("ADMIN")
+
+                        // Connection pool status: ADMIN only
+                        .requestMatchers("/datasources/**").hasRole("ADMIN")
+
                         // READ operations: authenticated users
                         .requestMatchers(HttpMethod.GET, "/**").authenticated()
+                        .requestMatchers(HttpMethod.HEAD, "/**").authenticated()
 
                         // WRITE operations
                         .requestMatchers(HttpMethod.POST, "/**").authenticated()
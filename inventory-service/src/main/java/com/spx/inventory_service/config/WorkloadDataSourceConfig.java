@@ -0,0 +1,113 @@
+package com.spx.inventory_service.config;
+
+import com.spx.inventory_service.datasource.Workload;
+import com.spx.inventory_service.datasource.WorkloadInterceptor;
+import com.spx.inventory_service.datasource.WorkloadRoutingDataSource;
+import com.spx.inventory_service.datasource.WorkloadType;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Bulkheaded connection pools: one Hikari pool per workload behind a routing DataSource.
+ *
+ * - interactive pool: spring.datasource.hikari.* (unchanged configuration, the default for every connection)
+ * - reporting pool: inventory.datasource.reporting.hikari.*, used by the @Workload(REPORTING) service methods,
+ *   with its own size, connection timeout and PostgreSQL statement_timeout (inventory.datasource.reporting.statement-timeout)
+ *
+ * The @Workload advisor runs before the transaction and cache advisors, so the transaction opens its connection on the right pool.
+ */
+@Configuration
+public class WorkloadDataSourceConfig {
+
+    @Value("${inventory.datasource.reporting.statement-timeout:PT2M}")
+    private Duration reportingStatementTimeout;
+
+    @Bean(autowireCandidate = false, destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource interactiveDataSource(ObjectProvider<JdbcConnectionDetails> connectionDetails, DataSourceProperties properties) {
+        return pool("interactive", connectionDetails(connectionDetails, properties));
+    }
+
+    @Bean(autowireCandidate = false, destroyMethod = "close")
+    @ConfigurationProperties("inventory.datasource.reporting.hikari")
+    public HikariDataSource reportingDataSource(ObjectProvider<JdbcConnectionDetails> connectionDetails, DataSourceProperties properties) {
+
+        HikariDataSource pool = pool("reporting", connectionDetails(connectionDetails, properties));
+
+        // Defaults, overridden by inventory.datasource.reporting.hikari.*
+        pool.setMaximumPoolSize(5);
+        pool.setMinimumIdle(1);
+        pool.setConnectionTimeout(Duration.ofSeconds(10).toMillis());
+        pool.setConnectionInitSql("SET statement_timeout = " + reportingStatementTimeout.toMillis());
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public WorkloadRoutingDataSource dataSource(ObjectProvider<JdbcConnectionDetails> connectionDetails, DataSourceProperties properties) {
+        return new WorkloadRoutingDataSource(Map.of(
+                WorkloadType.INTERACTIVE, interactiveDataSource(connectionDetails, properties),
+                WorkloadType.REPORTING, reportingDataSource(connectionDetails, properties)));
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor workloadAdvisor() {
+
+        // @Workload on the method or on the class
+        ComposablePointcut pointcut = new ComposablePointcut(AnnotationMatchingPointcut.forMethodAnnotation(Workload.class))
+                .union(AnnotationMatchingPointcut.forClassAnnotation(Workload.class));
+
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new WorkloadInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private static HikariDataSource pool(String name, JdbcConnectionDetails connectionDetails) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(connectionDetails.getJdbcUrl());
+        pool.setUsername(connectionDetails.getUsername());
+        pool.setPassword(connectionDetails.getPassword());
+        pool.setDriverClassName(connectionDetails.getDriverClassName());
+        return pool;
+    }
+
+    // @ServiceConnection (Testcontainers) provides the connection details, otherwise spring.datasource.url/username/password
+    private static JdbcConnectionDetails connectionDetails(ObjectProvider<JdbcConnectionDetails> connectionDetails, DataSourceProperties properties) {
+        return connectionDetails.getIfAvailable(() -> new JdbcConnectionDetails() {
+
+            @Override
+            public String getUsername() {
+                return properties.determineUsername();
+            }
+
+            @Override
+            public String getPassword() {
+                return properties.determinePassword();
+            }
+
+            @Override
+            public String getJdbcUrl() {
+                return properties.determineUrl();
+            }
+        });
+    }
+}
@@ -1,16 +1,37 @@
 package com.spx.inventory_service.controllers;
 
+import com.spx.inventory_service.dto.AssetAgeHistogramDTO;
+import com.spx.inventory_service.dto.AssetCountDTO;
 import com.spx.inventory_service.dto.AssetDetailedResponseDTO;
+import com.spx.inventory_service.dto.AssetLookupRequestDTO;
+import com.spx.inventory_service.dto.AssetLookupResponseDTO;
 import com.spx.inventory_service.dto.AssetRequestDTO;
 import com.spx.inventory_service.dto.AssetResponseDTO;
+import com.spx.inventory_service.dto.AssetSearchRequestDTO;
+import com.spx.inventory_service.dto.AssetUpsertRequestDTO;
+import com.spx.inventory_service.dto.AssetUpsertResultDTO;
+import com.spx.inventory_service.dto.KeysetPageDTO;
+import com.spx.inventory_service.dto.SoftwareLicenseSummaryDTO;
+import com.spx.inventory_service.idempotency.IdempotencyStore;
 import com.spx.inventory_service.services.AssetService;
+import com.spx.inventory_service.services.AssetStatisticsService;
+import com.spx.inventory_service.utils.ETags;
+import com.spx.inventory_service.utils.normalizer.AssetRequestNormalizer;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import javax.naming.ServiceUnavailableException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,6 +41,12 @@ public class AssetController {
     @Autowired
     AssetService assetService;
 
+    @Autowired
+    AssetStatisticsService assetStatisticsService;
+
+    @Autowired
+    IdempotencyStore idempotencyStore;
+
 
     // ==========================================================
     // CRUD METHODS - From Service Layer
@@ -95,6 +122,96 @@ public class AssetController {
         return ResponseEntity.ok(assets);
     }
 
+    /**
+     * Searches assets by office, asset type, purchase date range and installed license (all optional, combined with AND).
+     *
+     * @param searchRequestDTO the filters
+     * @param pageable         page, size and sort (default: 50 assets sorted by serial number)
+     * @return the page of matching assets
+     *
+     * URL: GET /assets/search?officeName=Milan&assetTypeName=Laptop&purchasedFrom=2024-01-01&softwareName=JetBrains-DataGrip
+     */
+    @GetMapping("/search")
+    public ResponseEntity<PagedModel<AssetResponseDTO>> searchAssets(AssetSearchRequestDTO searchRequestDTO,
+                                                                     @PageableDefault(size = 50, sort = "serialNumber") Pageable pageable) {
+
+        // Step 1: Service runs the search.
+        Page<AssetResponseDTO> assets = assetService.searchAssets(searchRequestDTO, pageable);
+
+        // If the page is empty add a header with message
+        if (assets.isEmpty()) {
+            return ResponseEntity.ok().header("X-Info-Message", "No assets match the search filters").body(new PagedModel<>(assets));
+        }
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(new PagedModel<>(assets));
+    }
+
+    /**
+     * Looks up many assets by serial number in one request (max 1000).
+     *
+     * @param lookupRequestDTO the serial numbers
+     * @return the assets found and the missing serial numbers
+     *
+     * URL: POST /assets/lookup  body: { "serialNumbers": ["LAP-DEV-001", "MON-OPS-001"] }
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<AssetLookupResponseDTO<AssetResponseDTO>> lookupAssets(@Valid @RequestBody AssetLookupRequestDTO lookupRequestDTO) {
+
+        // Step 1: Service resolves every serial number with one query.
+        AssetLookupResponseDTO<AssetResponseDTO> lookup = assetService.lookupAssets(lookupRequestDTO);
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(lookup);
+    }
+
+    /**
+     * Looks up many assets by serial number in one request (max 1000), detailed view with installed licenses.
+     *
+     * @param lookupRequestDTO the serial numbers
+     * @return the detailed assets found and the missing serial numbers
+     *
+     * URL: POST /assets/lookup/details  body: { "serialNumbers": ["LAP-DEV-001", "MON-OPS-001"] }
+     */
+    @PostMapping("/lookup/details")
+    public ResponseEntity<AssetLookupResponseDTO<AssetDetailedResponseDTO>> lookupAssetDetails(@Valid @RequestBody AssetLookupRequestDTO lookupRequestDTO) {
+
+        // Step 1: Service resolves every serial number and their licenses with two queries.
+        AssetLookupResponseDTO<AssetDetailedResponseDTO> lookup = assetService.lookupAssetDetails(lookupRequestDTO);
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(lookup);
+    }
+
+    /**
+     * Gets the assets purchased in a date range (both bounds included) or in a calendar quarter.
+     *
+     * @param from     the first purchase date
+     * @param to       the last purchase date
+     * @param quarter  the calendar quarter (replaces from and to)
+     * @param pageable page, size and sort (default: 50 assets sorted by purchase date)
+     * @return the page of assets
+     *
+     * URL: GET /assets/purchased?from=2022-07-01&to=2022-09-30 or GET /assets/purchased?quarter=2022-Q3
+     */
+    @GetMapping("/purchased")
+    public ResponseEntity<PagedModel<AssetResponseDTO>> getAssetsByPurchaseDate(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                                @RequestParam(required = false) String quarter,
+                                                                                @PageableDefault(size = 50, sort = "purchaseDate") Pageable pageable) {
+
+        // Step 1: Service runs the range query.
+        Page<AssetResponseDTO> assets = assetService.getAssetsByPurchaseDate(from, to, quarter, pageable);
+
+        // If the page is empty add a header with message
+        if (assets.isEmpty()) {
+            return ResponseEntity.ok().header("X-Info-Message", "No assets purchased in this period").body(new PagedModel<>(assets));
+        }
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(new PagedModel<>(assets));
+    }
+
     /**
      * Gets asset by serial number.
      *
@@ -109,8 +226,8 @@ public class AssetController {
         // Step 1: Service try to retrieve an Office entity by its unique serial number.
         AssetResponseDTO asset = assetService.getAssetBySerialNumber(serialNumber);
 
-        // Step 2: return a 200 HTTP Status code
-        return ResponseEntity.ok(asset);
+        // Step 2: return a 200 HTTP Status code (or 304 Not Modified when If-None-Match has the current ETag)
+        return ResponseEntity.ok().eTag(ETags.of(asset.getVersion(), asset)).body(asset);
     }
 
 
@@ -133,6 +250,133 @@ public class AssetController {
         return ResponseEntity.ok(assetDetails);
     }
 
+    /**
+     * Gets the software licenses installed on an asset (keyset pagination).
+     *
+     * @param serialNumber the serial number
+     * @param after        the nextAfter value of the previous page (0 = first page)
+     * @param limit        the page size (max 500)
+     * @return the page of installed licenses
+     *
+     * URL: GET /assets/MONXXX/licenses?after=0&limit=50
+     */
+    @GetMapping("/{serialNumber}/licenses")
+    public ResponseEntity<KeysetPageDTO<SoftwareLicenseSummaryDTO>> getLicenses(@PathVariable String serialNumber,
+                                                                                @RequestParam(defaultValue = "0") long after,
+                                                                                @RequestParam(defaultValue = "50") int limit) {
+
+        // Step 1: Service try to retrieve the requested page of installed licenses.
+        KeysetPageDTO<SoftwareLicenseSummaryDTO> licenses = assetService.getLicensesBySerialNumber(serialNumber, after, limit);
+
+        // If the page is empty add a header with message
+        if (licenses.getContent().isEmpty()) {
+            return ResponseEntity.ok().header("X-Info-Message", "No software licenses found for this page").body(licenses);
+        }
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(licenses);
+    }
+
+    /**
+     * Counts the software licenses installed on an asset.
+     *
+     * @param serialNumber the serial number
+     * @return an empty response with the X-Total-Count header
+     *
+     * URL: HEAD /assets/MONXXX/licenses
+     */
+    @RequestMapping(value = "/{serialNumber}/licenses", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> countLicenses(@PathVariable String serialNumber) {
+
+        // Step 1: Service counts the installed licenses on the join table.
+        long count = assetService.countLicensesBySerialNumber(serialNumber);
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok().header("X-Total-Count", String.valueOf(count)).build();
+    }
+
+
+
+    // ==========================================================
+    // STATISTICS (counter table, no asset is loaded)
+    // ==========================================================
+
+    /**
+     * Gets the number of assets and their average age (days) by office.
+     *
+     * @return the asset counts by office
+     *
+     * URL: GET /assets/statistics/offices
+     */
+    @GetMapping("/statistics/offices")
+    public ResponseEntity<List<AssetCountDTO>> getAssetCountsByOffice() {
+
+        // Step 1: Service reads the counters.
+        List<AssetCountDTO> counts = assetStatisticsService.getAssetCountsByOffice();
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(counts);
+    }
+
+    /**
+     * Gets the number of assets and their average age (days) by asset type.
+     *
+     * @return the asset counts by asset type
+     *
+     * URL: GET /assets/statistics/asset-types
+     */
+    @GetMapping("/statistics/asset-types")
+    public ResponseEntity<List<AssetCountDTO>> getAssetCountsByAssetType() {
+
+        // Step 1: Service reads the counters.
+        List<AssetCountDTO> counts = assetStatisticsService.getAssetCountsByAssetType();
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(counts);
+    }
+
+    /**
+     * Gets the number of assets and their average age (days) by office and asset type.
+     *
+     * @return the asset counts by office and asset type
+     *
+     * URL: GET /assets/statistics/offices-asset-types
+     */
+    @GetMapping("/statistics/offices-asset-types")
+    public ResponseEntity<List<AssetCountDTO>> getAssetCountsByOfficeAndAssetType() {
+
+        // Step 1: Service reads the counters.
+        List<AssetCountDTO> counts = assetStatisticsService.getAssetCountsByOfficeAndAssetType();
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(counts);
+    }
+
+    /**
+     * Gets the asset age histogram, computed by the database.
+     *
+     * @param asOf         the date the ages are computed at (default today)
+     * @param bucketMonths the width of a bucket in months (default 12, max 120)
+     * @param buckets      the number of buckets, the last one is open-ended (default 6, max 50)
+     * @param office       optional office name filter
+     * @param assetType    optional asset type name filter
+     * @return the histogram
+     *
+     * URL: GET /assets/statistics/age-histogram?bucketMonths=12&buckets=6&office=Milan
+     */
+    @GetMapping("/statistics/age-histogram")
+    public ResponseEntity<AssetAgeHistogramDTO> getAgeHistogram(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+                                                                @RequestParam(defaultValue = "12") int bucketMonths,
+                                                                @RequestParam(defaultValue = "6") int buckets,
+                                                                @RequestParam(required = false) String office,
+                                                                @RequestParam(required = false) String assetType) {
+
+        // Step 1: Service runs the grouped query.
+        AssetAgeHistogramDTO histogram = assetStatisticsService.getAgeHistogram(asOf, bucketMonths, buckets, office, assetType);
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(histogram);
+    }
 
 
     // ==========================================================
@@ -143,16 +387,47 @@ public class AssetController {
      * Create asset response entity.
      *
      * @param assetRequestDTO the asset request dto
+     * @param idempotencyKey  the Idempotency-Key header (optional: a retry with the same key gets the first response)
      * @return the response entity
+     * @throws ServiceUnavailableException when the first request with the same key is still running (503)
      */
     @PostMapping("/insert")
-    public ResponseEntity<AssetResponseDTO> createAsset(@Valid @RequestBody AssetRequestDTO assetRequestDTO) {
+    public ResponseEntity<AssetResponseDTO> createAsset(@Valid @RequestBody AssetRequestDTO assetRequestDTO,
+                                                        @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) throws ServiceUnavailableException {
+
+        // Fingerprint of the normalized request, as the service stores it: a retry spelled " LAP-001 " is the same asset as "lap-001"
+        return idempotencyStore.execute(idempotencyKey, "POST /assets/insert", AssetRequestNormalizer.normalize(assetRequestDTO), () -> {
 
-        // Step 1: Persist the entity via service layer.
-        AssetResponseDTO createdAsset = assetService.createAsset(assetRequestDTO);
+            // Step 1: Persist the entity via service layer (once per Idempotency-Key).
+            AssetResponseDTO createdAsset = assetService.createAsset(assetRequestDTO);
 
-        // Step 2: return a 201 HTTP Status code
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdAsset);
+            // Step 2: return a 201 HTTP Status code
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdAsset);
+        });
+    }
+
+
+    // ==========================================================
+    // UPSERT OPERATION (synchronization feeds)
+    // ==========================================================
+
+    /**
+     * Creates or updates many assets by serial number in one request (max 10000), e.g. a procurement feed.
+     * Sending the same feed again changes nothing: the unchanged assets are counted, not written.
+     *
+     * @param upsertRequestDTO the assets
+     * @return the number of created, updated and unchanged assets
+     *
+     * URL: POST /assets/upsert  body: { "assets": [ { "serialNumber": "LAP-DEV-001", "purchaseDate": "2025-02-10", "assetTypeName": "laptop", "officeName": "milan" } ] }
+     */
+    @PostMapping("/upsert")
+    public ResponseEntity<AssetUpsertResultDTO> upsertAssets(@Valid @RequestBody AssetUpsertRequestDTO upsertRequestDTO) {
+
+        // Step 1: Service resolves names once and upserts the assets chunk by chunk.
+        AssetUpsertResultDTO result = assetService.upsertAssets(upsertRequestDTO);
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(result);
     }
 
 
@@ -165,16 +440,18 @@ public class AssetController {
      *
      * @param serialNumber    the serial number
      * @param updatedAssetDTO the updated asset dto
+     * @param ifMatch         the ETag read by the client (optional, 412 if the asset changed since)
      * @return the response entity
      */
     @PutMapping("/update/{serialNumber}")
-    public ResponseEntity<AssetResponseDTO> updateAsset(@PathVariable String serialNumber, @Valid @RequestBody AssetRequestDTO updatedAssetDTO) {
+    public ResponseEntity<AssetResponseDTO> updateAsset(@PathVariable String serialNumber, @Valid @RequestBody AssetRequestDTO updatedAssetDTO,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         // Step 1: Delegate to service layer validation, update fields, and persist changes.
-        AssetResponseDTO updatedAsset = assetService.updateAssetBySerialNumber(serialNumber, updatedAssetDTO);
+        AssetResponseDTO updatedAsset = assetService.updateAssetBySerialNumber(serialNumber, updatedAssetDTO, ETags.parseIfMatch(ifMatch));
 
-        // Step 2: return a 200 HTTP Status code
-        return ResponseEntity.ok(updatedAsset);
+        // Step 2: return a 200 HTTP Status code with the new ETag
+        return ResponseEntity.ok().eTag(ETags.of(updatedAsset.getVersion(), updatedAsset)).body(updatedAsset);
     }
 
 
@@ -187,18 +464,20 @@ public class AssetController {
      *
      * @param serialNumber  the serial number
      * @param newOfficeName the new office name
+     * @param ifMatch       the ETag read by the client (optional, 412 if the asset changed since)
      * @return the response entity
      *
      * URL: PUT /assets/SN-001/move?newOfficeName=Rome HQ
      */
     @PutMapping("/{serialNumber}/move")
-    public ResponseEntity<AssetResponseDTO> moveAssetToOffice(@PathVariable String serialNumber, @RequestParam String newOfficeName) {
+    public ResponseEntity<AssetResponseDTO> moveAssetToOffice(@PathVariable String serialNumber, @RequestParam String newOfficeName,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         // Step 1: Service takes a serialNumber of an asset and a new office name
-        AssetResponseDTO movedAsset = assetService.moveAssetToOfficeByName(serialNumber, newOfficeName);
+        AssetResponseDTO movedAsset = assetService.moveAssetToOfficeByName(serialNumber, newOfficeName, ETags.parseIfMatch(ifMatch));
 
-        // Step 2: return a 200 HTTP Status code
-        return ResponseEntity.ok(movedAsset);
+        // Step 2: return a 200 HTTP Status code with the new ETag
+        return ResponseEntity.ok().eTag(ETags.of(movedAsset.getVersion(), movedAsset)).body(movedAsset);
     }
 
     // ==========================================================
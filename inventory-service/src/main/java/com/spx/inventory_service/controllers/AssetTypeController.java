@@ -1,11 +1,16 @@
 package com.spx.inventory_service.controllers;
 
+import com.spx.inventory_service.cache.StaleWhileRevalidate;
+import com.spx.inventory_service.cache.StaleWhileRevalidate.CachedRead;
+import com.spx.inventory_service.config.CaffeineCacheConfig;
 import com.spx.inventory_service.dto.AssetTypeRequestDTO;
 import com.spx.inventory_service.dto.AssetTypeResponseDTO;
 import com.spx.inventory_service.services.AssetTypeService;
+import com.spx.inventory_service.utils.ETags;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +26,9 @@ public class AssetTypeController {
     @Autowired
     public AssetTypeService assetTypeService;
 
+    @Autowired
+    public StaleWhileRevalidate staleWhileRevalidate;
+
 
 
     // ==========================================================
@@ -32,7 +40,7 @@ public class AssetTypeController {
     // ==========================================================
 
     /**
-     * Gets all asset types.
+     * Gets all asset types (last known list with a Warning header if the database is slow or unavailable).
      *
      * @return the all asset types
      */
@@ -40,24 +48,25 @@ public class AssetTypeController {
     public ResponseEntity<List<AssetTypeResponseDTO>> getAllAssetTypes() {
 
         // Step 1: Service try to retrieve an Asset Type list.
-        List<AssetTypeResponseDTO> assetTypes = assetTypeService.getAllAssetTypes();
+        CachedRead<List<AssetTypeResponseDTO>> assetTypesRead = staleWhileRevalidate.read(CaffeineCacheConfig.ASSET_TYPES_ALL, CaffeineCacheConfig.ALL_KEY, assetTypeService::getAllAssetTypes);
+        List<AssetTypeResponseDTO> assetTypes = assetTypesRead.value();
 
         // If the list is empty add a header with message
         if (assetTypes.isEmpty()) {
-            return ResponseEntity.ok().header("X-Info-Message", "No asset types found in the database").body(assetTypes);
+            return assetTypesRead.ok().header("X-Info-Message", "No asset types found in the database").body(assetTypes);
         }
 
         log.info("Controller getAllAssetType");
 
         // Step 2: return a 200 HTTP Status code
-        return ResponseEntity.ok(assetTypes);
+        return assetTypesRead.ok().body(assetTypes);
     }
 
     /**
      * Gets asset type by name.
      *
      * @param name the name
-     * @return the asset type by name
+     * @return the asset type by name (ETag = version + body digest, 304 if it matches If-None-Match)
      */
     @GetMapping("/{name}")
     public ResponseEntity<AssetTypeResponseDTO> getAssetTypeByName(@PathVariable String name) {
@@ -67,8 +76,8 @@ public class AssetTypeController {
 
         log.info("Controller getAssetTypeByName");
 
-        // Step 2: return a 200 HTTP Status code
-        return ResponseEntity.ok(assetType);
+        // Step 2: return a 200 HTTP Status code (or 304 Not Modified)
+        return ResponseEntity.ok().eTag(ETags.of(assetType.getVersion(), assetType)).body(assetType);
     }
 
     // ==========================================================
@@ -100,16 +109,18 @@ public class AssetTypeController {
      *
      * @param name                the name
      * @param assetTypeRequestDTO the asset type request dto
+     * @param ifMatch             the ETag read by the client (optional, 412 if the asset type changed since)
      * @return the response entity
      */
     @PutMapping("/update/{name}")
-    public ResponseEntity<AssetTypeResponseDTO> updateAssetTypeByName(@PathVariable String name, @Valid @RequestBody AssetTypeRequestDTO assetTypeRequestDTO) {
+    public ResponseEntity<AssetTypeResponseDTO> updateAssetTypeByName(@PathVariable String name, @Valid @RequestBody AssetTypeRequestDTO assetTypeRequestDTO,
+                                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         // Step 1: Delegate to service layer validation, update fields, and persist changes.
-        AssetTypeResponseDTO updated = assetTypeService.updateAssetTypeByName(name, assetTypeRequestDTO);
+        AssetTypeResponseDTO updated = assetTypeService.updateAssetTypeByName(name, assetTypeRequestDTO, ETags.parseIfMatch(ifMatch));
 
-        // Step 2: return a 200 HTTP Status code
-        return ResponseEntity.ok(updated);
+        // Step 2: return a 200 HTTP Status code with the new ETag
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion(), updated)).body(updated);
     }
 
     // ==========================================================
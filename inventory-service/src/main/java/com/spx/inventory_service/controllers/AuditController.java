@@ -0,0 +1,61 @@
+package com.spx.inventory_service.controllers;
+
+import com.spx.inventory_service.audit.AuditRecord;
+import com.spx.inventory_service.dto.AuditStatusDTO;
+import com.spx.inventory_service.services.AuditService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/audit")
+public class AuditController {
+
+    @Autowired
+    AuditService auditService;
+
+    /**
+     * Gets who created, updated, moved or deleted an asset and who installed or uninstalled licenses on it.
+     *
+     * @param serialNumber the serial number
+     * @param limit        the max number of records, newest first (max 500)
+     * @return the audit records
+     *
+     * URL: GET /audit/assets/LAP-DEV-001?limit=50
+     */
+    @GetMapping("/assets/{serialNumber}")
+    public ResponseEntity<List<AuditRecord>> getAssetHistory(@PathVariable String serialNumber,
+                                                             @RequestParam(defaultValue = "50") int limit) {
+
+        // Step 1: Service reads the audit table.
+        List<AuditRecord> history = auditService.getAssetHistory(serialNumber, limit);
+
+        // If the list is empty add a header with message
+        if (history.isEmpty()) {
+            return ResponseEntity.ok().header("X-Info-Message", "No audit records for this serial number").body(history);
+        }
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(history);
+    }
+
+    /**
+     * Gets the audit trail metrics: buffered, dropped and written records, flush lag.
+     *
+     * @return the audit status
+     *
+     * URL: GET /audit/status
+     */
+    @GetMapping("/status")
+    public ResponseEntity<AuditStatusDTO> getStatus() {
+
+        // Step 1: return a 200 HTTP Status code
+        return ResponseEntity.ok(auditService.getStatus());
+    }
+}
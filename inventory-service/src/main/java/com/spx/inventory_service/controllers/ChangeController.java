@@ -0,0 +1,43 @@
+package com.spx.inventory_service.controllers;
+
+import com.spx.inventory_service.dto.ChangeFeedPageDTO;
+import com.spx.inventory_service.services.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/changes")
+public class ChangeController {
+
+    @Autowired
+    ChangeFeedService changeFeedService;
+
+    /**
+     * Gets the offices, asset types, assets and software licenses changed (or deleted) after a position.
+     *
+     * @param since the nextSince value of the previous page (0 = full sync)
+     * @param limit the page size (max 500)
+     * @return the page of changes
+     *
+     * URL: GET /changes?since=0&limit=500
+     */
+    @GetMapping
+    public ResponseEntity<ChangeFeedPageDTO> getChanges(@RequestParam(defaultValue = "0") String since,
+                                                        @RequestParam(defaultValue = "500") int limit) {
+
+        // Step 1: Service reads the change log.
+        ChangeFeedPageDTO changes = changeFeedService.getChanges(since, limit);
+
+        // If there are no changes add a header with message
+        if (changes.getChanges().isEmpty()) {
+            return ResponseEntity.ok().header("X-Info-Message", "No changes since " + since).body(changes);
+        }
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(changes);
+    }
+}
@@ -0,0 +1,34 @@
+package com.spx.inventory_service.controllers;
+
+import com.spx.inventory_service.datasource.WorkloadRoutingDataSource;
+import com.spx.inventory_service.dto.DataSourcePoolStatusDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/datasources")
+public class DataSourceController {
+
+    @Autowired
+    WorkloadRoutingDataSource dataSource;
+
+    /**
+     * Gets the status of the connection pools (interactive and reporting): size, timeout, active, idle and waiting
+     * threads, connections acquired and failed acquisitions.
+     *
+     * @return one status per pool
+     *
+     * URL: GET /datasources/status
+     */
+    @GetMapping("/status")
+    public ResponseEntity<List<DataSourcePoolStatusDTO>> getStatus() {
+
+        // Step 1: Read the pools status and return a 200 HTTP Status code
+        return ResponseEntity.ok(dataSource.getStatus());
+    }
+}
@@ -0,0 +1,36 @@
+package com.spx.inventory_service.controllers;
+
+import com.spx.inventory_service.events.InventoryEventBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.naming.ServiceUnavailableException;
+
+@RestController
+@RequestMapping("/events")
+public class EventStreamController {
+
+    @Autowired
+    InventoryEventBroadcaster inventoryEventBroadcaster;
+
+    /**
+     * Opens a Server-Sent Events stream of the committed inventory mutations
+     * (asset created / updated / moved / deleted, license installed / uninstalled).
+     *
+     * A client that falls too far behind is disconnected: after reconnecting it catches up with GET /changes.
+     *
+     * @return the event stream
+     * @throws ServiceUnavailableException when the subscriber limit is reached (503)
+     *
+     * URL: GET /events/stream
+     */
+    @GetMapping("/stream")
+    public SseEmitter streamEvents() throws ServiceUnavailableException {
+
+        // Step 1: Register the subscriber, events are pushed by the broadcaster
+        return inventoryEventBroadcaster.subscribe();
+    }
+}
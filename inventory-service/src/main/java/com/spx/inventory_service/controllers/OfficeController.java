@@ -1,11 +1,18 @@
 package com.spx.inventory_service.controllers;
 
+import com.spx.inventory_service.cache.StaleWhileRevalidate;
+import com.spx.inventory_service.cache.StaleWhileRevalidate.CachedRead;
+import com.spx.inventory_service.config.CaffeineCacheConfig;
+import com.spx.inventory_service.dto.OfficeConsolidationDTO;
 import com.spx.inventory_service.dto.OfficeRequestDTO;
 import com.spx.inventory_service.dto.OfficeResponseDTO;
+import com.spx.inventory_service.services.AssetService;
 import com.spx.inventory_service.services.OfficeService;
+import com.spx.inventory_service.utils.ETags;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +28,12 @@ public class OfficeController {
     @Autowired
     public OfficeService officeService;
 
+    @Autowired
+    public AssetService assetService;
+
+    @Autowired
+    public StaleWhileRevalidate staleWhileRevalidate;
+
     // ==========================================================
     // CRUD METHODS - From Service Layer
     // ==========================================================
@@ -30,7 +43,7 @@ public class OfficeController {
     // ==========================================================
 
     /**
-     * Gets all offices.
+     * Gets all offices (last known list with a Warning header if the database is slow or unavailable).
      *
      * @return the all offices
      */
@@ -39,17 +52,18 @@ public class OfficeController {
 
 
         // Step 1: Service try to retrieve an Office list.
-        List<OfficeResponseDTO> officesRetrieved = officeService.getAllOffices();
+        CachedRead<List<OfficeResponseDTO>> officesRead = staleWhileRevalidate.read(CaffeineCacheConfig.OFFICES_ALL, CaffeineCacheConfig.ALL_KEY, officeService::getAllOffices);
+        List<OfficeResponseDTO> officesRetrieved = officesRead.value();
 
         // If the list is empty add a header with message
         if (officesRetrieved.isEmpty()) {
-            return ResponseEntity.ok().header("X-Info-Message", "No offices found in the database").body(officesRetrieved);
+            return officesRead.ok().header("X-Info-Message", "No offices found in the database").body(officesRetrieved);
         }
 
         log.info("Controller getAllOffices");
 
         // Step 2: return a 200 HTTP Status code
-        return ResponseEntity.ok(officesRetrieved);
+        return officesRead.ok().body(officesRetrieved);
     }
 
 
@@ -57,18 +71,20 @@ public class OfficeController {
      * Gets office by name.
      *
      * @param name the name
-     * @return the office by name
+     * @return the office by name (ETag = version + body digest, 304 if it matches If-None-Match, Warning header if stale)
      */
     @GetMapping("/{name}")
     public ResponseEntity<OfficeResponseDTO> getOfficeByName(@PathVariable String name) {
 
-        // Step 1: Service try to retrieve an Office entity by its unique name.
-        OfficeResponseDTO retrievedOffice = officeService.getOfficeByName(name);
+        // Step 1: Service try to retrieve an Office entity by its unique name (same key as the @Cacheable method).
+        CachedRead<OfficeResponseDTO> officeRead = staleWhileRevalidate.read(CaffeineCacheConfig.OFFICES_BY_NAME, CaffeineCacheConfig.nameKey(name),
+                () -> officeService.getOfficeByName(name));
+        OfficeResponseDTO retrievedOffice = officeRead.value();
 
         log.info("Controller getOfficeByName");
 
-        // Step 2: return a 200 HTTP Status code
-        return ResponseEntity.ok(retrievedOffice);
+        // Step 2: return a 200 HTTP Status code (or 304 Not Modified)
+        return officeRead.ok().eTag(ETags.of(retrievedOffice.getVersion(), retrievedOffice)).body(retrievedOffice);
     }
 
 
@@ -92,6 +108,34 @@ public class OfficeController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedOffice);
     }
 
+    // ==========================================================
+    // CONSOLIDATION (office closure)
+    // ==========================================================
+
+    /**
+     * Moves every asset of an office into another office (office closure), with one set-based update.
+     *
+     * @param name the office being closed
+     * @param into the office receiving the assets
+     * @return the number of assets moved
+     *
+     * URL: POST /offices/naples/consolidate?into=rome
+     */
+    @PostMapping("/{name}/consolidate")
+    public ResponseEntity<OfficeConsolidationDTO> consolidateOffice(@PathVariable String name, @RequestParam String into) {
+
+        // Step 1: Service moves the assets and their counters.
+        OfficeConsolidationDTO consolidation = assetService.consolidateOffice(name, into);
+
+        // If there was nothing to move add a header with message
+        if (consolidation.getMovedAssets() == 0) {
+            return ResponseEntity.ok().header("X-Info-Message", "No assets to move in this office").body(consolidation);
+        }
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(consolidation);
+    }
+
     // ==========================================================
     // UPDATE OPERATION
     // ==========================================================
@@ -101,16 +145,18 @@ public class OfficeController {
      *
      * @param name             the name
      * @param updatedOfficeDTO the updated office dto
+     * @param ifMatch          the ETag read by the client (optional, 412 if the office changed since)
      * @return the response entity
      */
     @PutMapping("/update/{name}")
-    public ResponseEntity<OfficeResponseDTO> updateOfficeByName(@PathVariable String name, @Valid @RequestBody OfficeRequestDTO updatedOfficeDTO ) {
+    public ResponseEntity<OfficeResponseDTO> updateOfficeByName(@PathVariable String name, @Valid @RequestBody OfficeRequestDTO updatedOfficeDTO,
+                                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         // Step 1: Delegate to service layer validation, update fields, and persist changes.
-        OfficeResponseDTO updatedOffice =  officeService.updateExistingOfficeByName(name, updatedOfficeDTO);
+        OfficeResponseDTO updatedOffice =  officeService.updateExistingOfficeByName(name, updatedOfficeDTO, ETags.parseIfMatch(ifMatch));
 
-        // Step 2: return a 200 HTTP Status code
-        return ResponseEntity.ok(updatedOffice);
+        // Step 2: return a 200 HTTP Status code with the new ETag
+        return ResponseEntity.ok().eTag(ETags.of(updatedOffice.getVersion(), updatedOffice)).body(updatedOffice);
     }
 
 
@@ -0,0 +1,43 @@
+package com.spx.inventory_service.controllers;
+
+import com.spx.inventory_service.dto.SearchSuggestionsDTO;
+import com.spx.inventory_service.services.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/search")
+public class SearchController {
+
+    @Autowired
+    SearchService searchService;
+
+    /**
+     * Autocomplete and fuzzy search over serial numbers, software names and office names.
+     *
+     * @param q     the partial key (at least 2 characters)
+     * @param limit the max number of matches per key (default 10, max 50)
+     * @return the matches
+     *
+     * URL: GET /search/suggestions?q=lap-d&limit=10
+     */
+    @GetMapping("/suggestions")
+    public ResponseEntity<SearchSuggestionsDTO> getSuggestions(@RequestParam String q,
+                                                               @RequestParam(defaultValue = "10") int limit) {
+
+        // Step 1: Service runs the prefix and fuzzy queries.
+        SearchSuggestionsDTO suggestions = searchService.getSuggestions(q, limit);
+
+        // If nothing matches add a header with message
+        if (suggestions.getSerialNumbers().isEmpty() && suggestions.getSoftwareNames().isEmpty() && suggestions.getOfficeNames().isEmpty()) {
+            return ResponseEntity.ok().header("X-Info-Message", "No matches found").body(suggestions);
+        }
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(suggestions);
+    }
+}
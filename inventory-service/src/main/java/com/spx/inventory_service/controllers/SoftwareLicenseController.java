@@ -1,15 +1,26 @@
 package com.spx.inventory_service.controllers;
 
+import com.spx.inventory_service.dto.AssetResponseDTO;
+import com.spx.inventory_service.dto.KeysetPageDTO;
+import com.spx.inventory_service.dto.LicenseComplianceReportDTO;
+import com.spx.inventory_service.dto.LicenseExpiryReportDTO;
 import com.spx.inventory_service.dto.SoftwareLicenseRequestDTO;
 import com.spx.inventory_service.dto.SoftwareLicenseResponseDTO;
+import com.spx.inventory_service.dto.SoftwareLicenseSummaryDTO;
 
+import com.spx.inventory_service.idempotency.IdempotencyStore;
+import com.spx.inventory_service.services.LicenseExpiryService;
 import com.spx.inventory_service.services.SoftwareLicenseService;
+import com.spx.inventory_service.utils.ETags;
+import com.spx.inventory_service.utils.TextNormalizer;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.naming.ServiceUnavailableException;
 import java.util.List;
 
 @RestController
@@ -20,6 +31,12 @@ public class SoftwareLicenseController {
     @Autowired
     SoftwareLicenseService softwareLicenseService;
 
+    @Autowired
+    LicenseExpiryService licenseExpiryService;
+
+    @Autowired
+    IdempotencyStore idempotencyStore;
+
 
     // ==========================================================
     // CRUD METHODS - From Service Layer
@@ -35,10 +52,10 @@ public class SoftwareLicenseController {
      * @return the response entity
      */
     @GetMapping("/all")
-    public ResponseEntity<List<SoftwareLicenseResponseDTO>>getAllSoftwareLicenses() {
+    public ResponseEntity<List<SoftwareLicenseSummaryDTO>>getAllSoftwareLicenses() {
 
         // Step 1: Service try to retrieve an Asset list.
-        List<SoftwareLicenseResponseDTO> licenses = softwareLicenseService.getAllSoftwareLicenses();
+        List<SoftwareLicenseSummaryDTO> licenses = softwareLicenseService.getAllSoftwareLicenses();
 
         // If the list is empty add a header with message
         if (licenses.isEmpty()) {
@@ -54,7 +71,7 @@ public class SoftwareLicenseController {
      * Gets software license by name.
      *
      * @param softwareLicenseName the software license name
-     * @return the software license by name
+     * @return the software license by name (ETag = version + body digest, 304 if it matches If-None-Match)
      */
     @GetMapping("/{softwareLicenseName}")
     public ResponseEntity<SoftwareLicenseResponseDTO> getSoftwareLicenseByName(@PathVariable String softwareLicenseName) {
@@ -62,8 +79,53 @@ public class SoftwareLicenseController {
         // Step 1: Service try to retrieve a Software license entity by its unique name.
         SoftwareLicenseResponseDTO license = softwareLicenseService.getSoftwareLicenseByName(softwareLicenseName);
 
+        // Step 2: return a 200 HTTP Status code (or 304 Not Modified)
+        return ResponseEntity.ok().eTag(ETags.of(license.getVersion(), license)).body(license);
+    }
+
+    /**
+     * Gets the assets where a software license is installed (keyset pagination).
+     *
+     * @param softwareLicenseName the software license name
+     * @param after               the nextAfter value of the previous page (0 = first page)
+     * @param limit               the page size (max 500)
+     * @return the page of installed assets
+     *
+     * URL: GET /software-licenses/Microsoft Office 365/installations?after=0&limit=50
+     */
+    @GetMapping("/{softwareLicenseName}/installations")
+    public ResponseEntity<KeysetPageDTO<AssetResponseDTO>> getInstallations(@PathVariable String softwareLicenseName,
+                                                                            @RequestParam(defaultValue = "0") long after,
+                                                                            @RequestParam(defaultValue = "50") int limit) {
+
+        // Step 1: Service try to retrieve the requested page of installed assets.
+        KeysetPageDTO<AssetResponseDTO> installations = softwareLicenseService.getInstallationsBySoftwareName(softwareLicenseName, after, limit);
+
+        // If the page is empty add a header with message
+        if (installations.getContent().isEmpty()) {
+            return ResponseEntity.ok().header("X-Info-Message", "No installations found for this page").body(installations);
+        }
+
         // Step 2: return a 200 HTTP Status code
-        return ResponseEntity.ok(license);
+        return ResponseEntity.ok(installations);
+    }
+
+    /**
+     * Counts the assets where a software license is installed.
+     *
+     * @param softwareLicenseName the software license name
+     * @return an empty response with the X-Total-Count header
+     *
+     * URL: HEAD /software-licenses/Microsoft Office 365/installations
+     */
+    @RequestMapping(value = "/{softwareLicenseName}/installations", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> countInstallations(@PathVariable String softwareLicenseName) {
+
+        // Step 1: Service counts the installations on the join table.
+        long count = softwareLicenseService.countInstallationsBySoftwareName(softwareLicenseName);
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok().header("X-Total-Count", String.valueOf(count)).build();
     }
 
 
@@ -97,16 +159,18 @@ public class SoftwareLicenseController {
      *
      * @param softwareName       the software name
      * @param newSoftwareLicense the new software license
+     * @param ifMatch            the ETag read by the client (optional, 412 if the license changed since)
      * @return the response entity
      */
     @PutMapping("/update/{softwareName}")
-    public ResponseEntity<SoftwareLicenseResponseDTO> updateSoftwareLicense(@PathVariable String softwareName, @Valid @RequestBody SoftwareLicenseRequestDTO newSoftwareLicense) {
+    public ResponseEntity<SoftwareLicenseResponseDTO> updateSoftwareLicense(@PathVariable String softwareName, @Valid @RequestBody SoftwareLicenseRequestDTO newSoftwareLicense,
+                                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         // Step 1: Delegate to service layer validation, update fields, and persist changes.
-        SoftwareLicenseResponseDTO updated = softwareLicenseService.updateSoftwareLicense(softwareName, newSoftwareLicense);
+        SoftwareLicenseResponseDTO updated = softwareLicenseService.updateSoftwareLicense(softwareName, newSoftwareLicense, ETags.parseIfMatch(ifMatch));
 
-        // Step 2: return a 200 HTTP Status code
-        return ResponseEntity.ok(updated);
+        // Step 2: return a 200 HTTP Status code with the new ETag
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion(), updated)).body(updated);
     }
 
     // ==========================================================
@@ -141,18 +205,27 @@ public class SoftwareLicenseController {
     /**
      * Install software license on asset response entity.
      *
-     * @param softwareName the software name
-     * @param serialNumber the serial number
+     * @param softwareName   the software name
+     * @param serialNumber   the serial number
+     * @param idempotencyKey the Idempotency-Key header (optional: a retry with the same key gets the first response)
      * @return the response entity
+     * @throws ServiceUnavailableException when the first request with the same key is still running (503)
      */
     @PostMapping("/{softwareName}/install/{serialNumber}")
-    public ResponseEntity<SoftwareLicenseResponseDTO> installSoftwareLicenseOnAsset(@PathVariable String softwareName, @PathVariable String serialNumber) {
+    public ResponseEntity<SoftwareLicenseResponseDTO> installSoftwareLicenseOnAsset(@PathVariable String softwareName, @PathVariable String serialNumber,
+                                                                                    @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) throws ServiceUnavailableException {
 
-        // Step 1: Delegate installation logic to the service layer.
-        SoftwareLicenseResponseDTO installedSoftwareLicense = softwareLicenseService.installSoftwareLicenseOnAsset(softwareName, serialNumber);
+        // Same normalized keys as the service: a retry spelled " DataGrip " is the same installation as "datagrip"
+        String operation = "POST /software-licenses/" + TextNormalizer.normalizeKey(softwareName) + "/install/" + TextNormalizer.normalizeKey(serialNumber);
 
-        // Step 2: return a 200 HTTP Status code
-        return ResponseEntity.ok(installedSoftwareLicense);
+        return idempotencyStore.execute(idempotencyKey, operation, null, () -> {
+
+            // Step 1: Delegate installation logic to the service layer (once per Idempotency-Key).
+            SoftwareLicenseResponseDTO installedSoftwareLicense = softwareLicenseService.installSoftwareLicenseOnAsset(softwareName, serialNumber);
+
+            // Step 2: return a 200 HTTP Status code
+            return ResponseEntity.ok(installedSoftwareLicense);
+        });
     }
 
     /**
@@ -183,10 +256,10 @@ public class SoftwareLicenseController {
     // AUDIT & QUERY
     // ==========================================================
     @GetMapping("/assets/{serialNumber}")
-    public ResponseEntity<List<SoftwareLicenseResponseDTO>> getInstalledSoftwareLicenseBySerialNumber(@PathVariable String serialNumber) {
+    public ResponseEntity<List<SoftwareLicenseSummaryDTO>> getInstalledSoftwareLicenseBySerialNumber(@PathVariable String serialNumber) {
 
         // Step 1: Service try to retrieve all the software licence owned by a specific asset (through its serial number)
-        List<SoftwareLicenseResponseDTO>  installedLicensesOnAsset = softwareLicenseService.getInstalledSoftwareLicenseBySerialNumber(serialNumber);
+        List<SoftwareLicenseSummaryDTO>  installedLicensesOnAsset = softwareLicenseService.getInstalledSoftwareLicenseBySerialNumber(serialNumber);
 
         // If the list is empty add a header with message
         if (installedLicensesOnAsset.isEmpty()) {
@@ -198,15 +271,46 @@ public class SoftwareLicenseController {
     }
 
     /**
-     * Gets software licenses expiring soon.
+     * Gets the license compliance report: installed seats against maxInstallations,
+     * over-allocation and expired-but-still-installed counts, one row per license.
+     *
+     * @param office         optional office name filter
+     * @param assetType      optional asset type name filter
+     * @param onlyViolations keep only non compliant licenses (default false)
+     * @return the compliance report
+     *
+     * URL: GET /software-licenses/compliance?office=Milan&onlyViolations=true
+     */
+    @GetMapping("/compliance")
+    public ResponseEntity<LicenseComplianceReportDTO> getComplianceReport(@RequestParam(required = false) String office,
+                                                                          @RequestParam(required = false) String assetType,
+                                                                          @RequestParam(defaultValue = "false") boolean onlyViolations) {
+
+        // Step 1: Service computes the report with grouped queries.
+        LicenseComplianceReportDTO report = softwareLicenseService.getComplianceReport(office, assetType, onlyViolations);
+
+        // If there are no rows add a header with message
+        if (report.getRows().isEmpty()) {
+            return ResponseEntity.ok().header("X-Info-Message", "No software licenses match the compliance filters").body(report);
+        }
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Gets software licenses expiring within a number of days (drill-down, read from the database).
      *
+     * @param days the horizon in days from today (default 30)
      * @return the software licenses expiring soon
+     *
+     * URL: GET /software-licenses/expiring-soon?days=90
      */
     @GetMapping("/expiring-soon")
-    public ResponseEntity<List<SoftwareLicenseResponseDTO>> getSoftwareLicensesExpiringSoon() {
+    public ResponseEntity<List<SoftwareLicenseSummaryDTO>> getSoftwareLicensesExpiringSoon(@RequestParam(defaultValue = "30") int days) {
 
         // Step 1: Service try to retrieve a software licence list based on their expired dates.
-        List<SoftwareLicenseResponseDTO> licenses = softwareLicenseService.getSoftwareLicensesExpiringSoon();
+        List<SoftwareLicenseSummaryDTO> licenses = licenseExpiryService.getSoftwareLicensesExpiringWithin(days);
 
         // If the list is empty add a header with message
         if (licenses.isEmpty()) {
@@ -216,4 +320,23 @@ public class SoftwareLicenseController {
         // Step 2: return a 200 HTTP Status code
         return ResponseEntity.ok(licenses);
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the number of licenses and seats expiring within a number of days, bucketed by days to expiry.
+     * Served from the in-memory snapshot refreshed by a scheduled job.
+     *
+     * @param days the horizon in days from today (default 30)
+     * @return the expiry report
+     *
+     * URL: GET /software-licenses/expiry-report?days=180
+     */
+    @GetMapping("/expiry-report")
+    public ResponseEntity<LicenseExpiryReportDTO> getExpiryReport(@RequestParam(defaultValue = "30") int days) {
+
+        // Step 1: Service reads the expiry snapshot.
+        LicenseExpiryReportDTO report = licenseExpiryService.getExpiryReport(days);
+
+        // Step 2: return a 200 HTTP Status code
+        return ResponseEntity.ok(report);
+    }
+}
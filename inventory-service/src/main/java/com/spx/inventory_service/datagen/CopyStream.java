@@ -0,0 +1,51 @@
+package com.spx.inventory_service.datagen;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Streams rows into a PostgreSQL COPY ... FROM STDIN (text format), buffering about 64 KB at a time.
+ * Values must not contain tabs, newlines or backslashes (generated keys never do).
+ */
+final class CopyStream {
+
+    private static final int FLUSH_THRESHOLD = 1 << 16;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 256);
+
+    CopyStream(CopyManager copyManager, String copySql) throws SQLException {
+        this.copyIn = copyManager.copyIn(copySql);
+    }
+
+    void row(Object... values) throws SQLException {
+
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append('\t');
+            }
+            // \N is the COPY text format NULL
+            buffer.append(values[i] == null ? "\\N" : values[i].toString());
+        }
+        buffer.append('\n');
+
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    /* Sends the remaining rows and returns the number of rows copied */
+    long finish() throws SQLException {
+        flush();
+        return copyIn.endCopy();
+    }
+
+    private void flush() throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,49 @@
+package com.spx.inventory_service.datagen;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the synthetic dataset generator (prefix: inventory.datagen).
+ *
+ * Skew values are Zipf exponents: 0 = uniform, 1 = classic power law, higher = more concentrated
+ * (e.g. officeSkew 1.1 puts most assets in a few large offices).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "inventory.datagen")
+public class DatasetGeneratorProperties {
+
+    // Run the generator at startup (dev profile only)
+    private boolean enabled = false;
+
+    // Close the application once the dataset is loaded (CLI usage)
+    private boolean exitWhenDone = false;
+
+    // Lowercase prefix of every generated key, e.g. "gen-office-00001", "gen-000000001"
+    private String prefix = "gen";
+
+    // Same seed + same settings = same dataset
+    private long seed = 42L;
+
+    private int offices = 200;
+    private int assetTypes = 40;
+    private int assets = 2_000_000;
+    private int licenses = 5_000;
+
+    private double officeSkew = 1.1;
+    private double assetTypeSkew = 1.3;
+
+    // Installations of the license ranked r = assets * topLicenseCoverage / r^installationSkew
+    private double installationSkew = 1.2;
+    private double topLicenseCoverage = 0.8;
+
+    // Share of licenses whose maxInstallations is below their installed seats (compliance scenarios)
+    private double overAllocatedLicenses = 0.05;
+
+    // Purchase dates are spread over the last N years
+    private int purchaseYears = 8;
+}
@@ -0,0 +1,240 @@
+package com.spx.inventory_service.datagen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Bulk-loads a production-sized synthetic dataset through PostgreSQL COPY.
+ *
+ * - offices and asset types, assets spread over them with a configurable Zipf skew
+ * - software licenses with power-law installations (a few licenses on most assets, a long tail on few)
+ * - some expired and some over-allocated licenses, for compliance and expiry scenarios
+ *
+ * Everything runs in one transaction: the dataset is either fully loaded or not at all.
+ * If rows with the configured prefix already exist the generator does nothing.
+ *
+ * Run with: ./gradlew generateDataset -Pdatagen.assets=5000000 -Pdatagen.seed=7
+ */
+@Slf4j
+@Profile("dev")
+@Component
+@ConditionalOnProperty(prefix = "inventory.datagen", name = "enabled", havingValue = "true")
+public class SyntheticDatasetGenerator implements ApplicationRunner {
+
+    private static final int FETCH_SIZE = 50_000;
+
+    private final DataSource dataSource;
+    private final DatasetGeneratorProperties properties;
+    private final ConfigurableApplicationContext applicationContext;
+
+    public SyntheticDatasetGenerator(DataSource dataSource, DatasetGeneratorProperties properties, ConfigurableApplicationContext applicationContext) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+
+        try (Connection connection = dataSource.getConnection()) {
+
+            connection.setAutoCommit(false);
+
+            try {
+                generate(connection);
+                connection.commit();
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+
+        if (properties.isExitWhenDone()) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private void generate(Connection connection) throws SQLException {
+
+        String prefix = properties.getPrefix();
+
+        // Step 1: Skip if this prefix has already been generated
+        if (countByPrefix(connection, "SELECT count(*) FROM offices WHERE name LIKE ?", prefix + "-office-%") > 0) {
+            log.warn("Synthetic dataset with prefix '{}' already exists, nothing to do", prefix);
+            return;
+        }
+
+        long start = System.nanoTime();
+        Random random = new Random(properties.getSeed());
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+        // Step 2: Offices and asset types
+        CopyStream offices = new CopyStream(copyManager, "COPY offices (name) FROM STDIN");
+        for (int i = 0; i < properties.getOffices(); i++) {
+            offices.row(officeName(i));
+        }
+        offices.finish();
+
+        CopyStream assetTypes = new CopyStream(copyManager, "COPY asset_types (asset_type_name, asset_type_description) FROM STDIN");
+        for (int i = 0; i < properties.getAssetTypes(); i++) {
+            assetTypes.row("%s-type-%03d".formatted(prefix, i), i % 3 == 0 ? null : "synthetic type " + i);
+        }
+        assetTypes.finish();
+
+        // Zero-padded keys: ordering by name gives back the generation order
+        long[] officeIds = readIds(connection, "SELECT id_office FROM offices WHERE name LIKE ? ORDER BY name", prefix + "-office-%", properties.getOffices());
+        long[] assetTypeIds = readIds(connection, "SELECT id_asset_type FROM asset_types WHERE asset_type_name LIKE ? ORDER BY asset_type_name", prefix + "-type-%", properties.getAssetTypes());
+
+        // Step 3: Assets
+        ZipfSampler officeSampler = new ZipfSampler(officeIds.length, properties.getOfficeSkew());
+        ZipfSampler assetTypeSampler = new ZipfSampler(assetTypeIds.length, properties.getAssetTypeSkew());
+        LocalDate oldestPurchase = LocalDate.now().minusYears(properties.getPurchaseYears());
+        int purchaseDays = properties.getPurchaseYears() * 365;
+
+        CopyStream assets = new CopyStream(copyManager, "COPY assets (serial_number, purchase_date, id_asset_type, id_office) FROM STDIN");
+        for (int i = 0; i < properties.getAssets(); i++) {
+            assets.row(
+                    serialNumber(i),
+                    // ~5% of assets have no purchase date, like data.sql
+                    random.nextInt(20) == 0 ? null : oldestPurchase.plusDays(random.nextInt(purchaseDays)),
+                    assetTypeIds[assetTypeSampler.next(random)],
+                    officeIds[officeSampler.next(random)]
+            );
+        }
+        long assetCount = assets.finish();
+
+        long[] assetIds = readIds(connection, "SELECT id_asset FROM assets WHERE serial_number LIKE ? ORDER BY serial_number", prefix + "-0%", properties.getAssets());
+
+        // Step 4: Software licenses. Installed seats follow a power law on the license rank
+        int[] installations = new int[properties.getLicenses()];
+        for (int rank = 0; rank < installations.length; rank++) {
+            double seats = assetIds.length * properties.getTopLicenseCoverage() / Math.pow(rank + 1, properties.getInstallationSkew());
+            installations[rank] = (int) Math.min(assetIds.length, Math.round(seats));
+        }
+
+        CopyStream licenses = new CopyStream(copyManager, "COPY software_licenses (software_name, expiration_date, max_installations) FROM STDIN");
+        for (int rank = 0; rank < installations.length; rank++) {
+
+            Integer maxInstallations;
+
+            if (random.nextDouble() < properties.getOverAllocatedLicenses()) {
+                maxInstallations = Math.max(1, (int) (installations[rank] * 0.9));
+            } else {
+                // 25% unlimited (null), the others with some free seats
+                maxInstallations = random.nextInt(4) == 0 ? null : Math.max(1, (int) Math.ceil(installations[rank] * 1.25));
+            }
+
+            // From 90 days ago to 3 years ahead: a few expired, some expiring soon
+            licenses.row(licenseName(rank), LocalDate.now().plusDays(random.nextInt(365 * 3 + 90) - 90L), maxInstallations);
+        }
+        licenses.finish();
+
+        long[] licenseIds = readIds(connection, "SELECT id_software_license FROM software_licenses WHERE software_name LIKE ? ORDER BY software_name", prefix + "-license-%", properties.getLicenses());
+
+        // Step 5: Installations. Distinct assets per license: (offset + k * step) mod n with gcd(step, n) = 1
+        CopyStream links = new CopyStream(copyManager, "COPY assets_licenses (license_id, asset_id) FROM STDIN");
+
+        for (int rank = 0; rank < licenseIds.length; rank++) {
+
+            int n = assetIds.length;
+            long offset = random.nextInt(n);
+            long step = coprimeStep(random, n);
+
+            for (int k = 0; k < installations[rank]; k++) {
+                links.row(licenseIds[rank], assetIds[(int) ((offset + k * step) % n)]);
+            }
+        }
+        long installationCount = links.finish();
+
+        // Step 6: Fresh statistics, so query plans reflect the new size right away
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE offices, asset_types, assets, software_licenses, assets_licenses");
+        }
+
+        log.info("Synthetic dataset '{}' generated in {} s. Offices: {}, asset types: {}, assets: {}, licenses: {}, installations: {}",
+                prefix, (System.nanoTime() - start) / 1_000_000_000, officeIds.length, assetTypeIds.length,
+                assetCount, licenseIds.length, installationCount);
+    }
+
+    // ==========================================================
+    // HELPERS
+    // ==========================================================
+
+    private String officeName(int index) {
+        return "%s-office-%05d".formatted(properties.getPrefix(), index);
+    }
+
+    private String serialNumber(int index) {
+        return "%s-%09d".formatted(properties.getPrefix(), index);
+    }
+
+    private String licenseName(int index) {
+        return "%s-license-%06d".formatted(properties.getPrefix(), index);
+    }
+
+    private static long coprimeStep(Random random, int n) {
+
+        if (n <= 2) {
+            return 1;
+        }
+
+        long step;
+        do {
+            step = 1 + random.nextInt(n - 1);
+        } while (BigInteger.valueOf(step).gcd(BigInteger.valueOf(n)).intValue() != 1);
+
+        return step;
+    }
+
+    private static long countByPrefix(Connection connection, String sql, String pattern) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, pattern);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    /* Reads generated ids in key order. Streams with a cursor (autocommit is off) instead of loading all rows */
+    private static long[] readIds(Connection connection, String sql, String pattern, int expected) throws SQLException {
+
+        long[] ids = new long[expected];
+        int size = 0;
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setString(1, pattern);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next() && size < expected) {
+                    ids[size++] = resultSet.getLong(1);
+                }
+            }
+        }
+
+        if (size != expected) {
+            throw new IllegalStateException("Generated rows not found. Expected: " + expected + ", found: " + size);
+        }
+
+        return ids;
+    }
+}
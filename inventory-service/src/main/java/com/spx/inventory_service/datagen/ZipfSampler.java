@@ -0,0 +1,36 @@
+package com.spx.inventory_service.datagen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Samples an index in [0, size) following a Zipf (power-law) distribution:
+ * index 0 is the most likely, P(i) proportional to 1 / (i + 1)^exponent.
+ */
+final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    ZipfSampler(int size, double exponent) {
+
+        cumulative = new double[size];
+        double total = 0;
+
+        for (int i = 0; i < size; i++) {
+            total += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = total;
+        }
+
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    int next(Random random) {
+
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+
+        // binarySearch returns (-(insertion point) - 1) when the value is not found
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
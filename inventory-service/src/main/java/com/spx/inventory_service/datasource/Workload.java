@@ -0,0 +1,21 @@
+package com.spx.inventory_service.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Routes the connections of a service method (or of every method of a class) to a pool partition.
+ *
+ * Applied before @Transactional, so the transaction opens its connection on the right pool. A method called inside
+ * a transaction that is already running keeps the connection of that transaction.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Workload {
+
+    WorkloadType value();
+}
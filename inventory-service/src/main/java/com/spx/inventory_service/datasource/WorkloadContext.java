@@ -0,0 +1,48 @@
+package com.spx.inventory_service.datasource;
+
+/**
+ * Workload of the current thread (INTERACTIVE when nothing is set), read by WorkloadRoutingDataSource.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<WorkloadType> CURRENT = new ThreadLocal<>();
+
+    // Constructor
+    private WorkloadContext() {
+    }
+
+    public static WorkloadType current() {
+        WorkloadType workload = CURRENT.get();
+        return workload == null ? WorkloadType.INTERACTIVE : workload;
+    }
+
+    /* Sets the workload and returns the previous one (null = none), to be passed to restore */
+    static WorkloadType set(WorkloadType workload) {
+        WorkloadType previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    /**
+     * Runs a task with the workload, for the background threads of the service (not called through a @Workload proxy).
+     *
+     * @param workload the workload of the connections opened by the task
+     * @param task     the task
+     */
+    public static void run(WorkloadType workload, Runnable task) {
+        WorkloadType previous = set(workload);
+        try {
+            task.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static void restore(WorkloadType previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
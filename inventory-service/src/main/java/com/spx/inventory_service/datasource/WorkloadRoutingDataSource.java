@@ -0,0 +1,104 @@
+package com.spx.inventory_service.datasource;
+
+import com.spx.inventory_service.dto.DataSourcePoolStatusDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The application DataSource: hands out connections of the pool of the current workload (WorkloadContext).
+ *
+ * Counts, per pool, the connections acquired and the acquisitions that failed (e.g. Hikari connection timeout).
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Map<WorkloadType, HikariDataSource> pools;
+
+    private final Map<WorkloadType, AtomicLong> acquired = new EnumMap<>(WorkloadType.class);
+
+    private final Map<WorkloadType, AtomicLong> failed = new EnumMap<>(WorkloadType.class);
+
+    public WorkloadRoutingDataSource(Map<WorkloadType, HikariDataSource> pools) {
+
+        this.pools = new EnumMap<>(pools);
+
+        for (WorkloadType workload : WorkloadType.values()) {
+            acquired.put(workload, new AtomicLong());
+            failed.put(workload, new AtomicLong());
+        }
+
+        setTargetDataSources(new HashMap<>(this.pools));
+        setDefaultTargetDataSource(this.pools.get(WorkloadType.INTERACTIVE));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        WorkloadType workload = WorkloadContext.current();
+
+        try {
+            Connection connection = super.getConnection();
+            acquired.get(workload).incrementAndGet();
+            return connection;
+        } catch (SQLException | RuntimeException ex) {
+            failed.get(workload).incrementAndGet();
+            throw ex;
+        }
+    }
+
+    // ==========================================================
+    // METRICS
+    // ==========================================================
+
+    public long getAcquiredConnections(WorkloadType workload) {
+        return acquired.get(workload).get();
+    }
+
+    public long getFailedAcquisitions(WorkloadType workload) {
+        return failed.get(workload).get();
+    }
+
+    public List<DataSourcePoolStatusDTO> getStatus() {
+
+        List<DataSourcePoolStatusDTO> status = new ArrayList<>();
+
+        for (Map.Entry<WorkloadType, HikariDataSource> entry : pools.entrySet()) {
+            HikariDataSource pool = entry.getValue();
+
+            DataSourcePoolStatusDTO poolStatus = new DataSourcePoolStatusDTO();
+            poolStatus.setWorkload(entry.getKey().name());
+            poolStatus.setPoolName(pool.getPoolName());
+            poolStatus.setMaximumPoolSize(pool.getMaximumPoolSize());
+            poolStatus.setConnectionTimeoutMillis(pool.getConnectionTimeout());
+            poolStatus.setAcquiredConnections(getAcquiredConnections(entry.getKey()));
+            poolStatus.setFailedAcquisitions(getFailedAcquisitions(entry.getKey()));
+
+            // Null until the pool has started (lazy start on the first connection)
+            HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+            if (poolBean != null) {
+                poolStatus.setActiveConnections(poolBean.getActiveConnections());
+                poolStatus.setIdleConnections(poolBean.getIdleConnections());
+                poolStatus.setThreadsAwaitingConnection(poolBean.getThreadsAwaitingConnection());
+            }
+
+            status.add(poolStatus);
+        }
+
+        return status;
+    }
+}
@@ -0,0 +1,14 @@
+package com.spx.inventory_service.datasource;
+
+/**
+ * Connection pool partitions.
+ *
+ * - INTERACTIVE: CRUD, lookups, single-entity reads (spring.datasource.hikari.*), the default
+ * - REPORTING: full-table reads and reports (inventory.datasource.reporting.hikari.*), so a slow report
+ *   can only use the reporting connections and never stalls the writes. Also the background writers (outbox relay,
+ *   audit flush): they can wait, the requests cannot
+ */
+public enum WorkloadType {
+    INTERACTIVE,
+    REPORTING
+}
@@ -0,0 +1,23 @@
+package com.spx.inventory_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Assets aged between fromMonths (included) and toMonths (excluded) at the histogram date.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AssetAgeBucketDTO implements Serializable {
+
+    private int fromMonths;
+
+    // Null for the last bucket (fromMonths and older)
+    private Integer toMonths;
+
+    private long assets;
+}
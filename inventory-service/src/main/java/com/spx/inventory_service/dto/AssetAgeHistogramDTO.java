@@ -0,0 +1,24 @@
+package com.spx.inventory_service.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Asset age histogram at a given date. officeName and assetTypeName are the applied filters (null = all).
+ */
+@Data
+public class AssetAgeHistogramDTO implements Serializable {
+
+    private LocalDate asOf;
+    private String officeName;
+    private String assetTypeName;
+    private int bucketMonths;
+
+    private long assets;
+    private long undatedAssets;
+
+    private List<AssetAgeBucketDTO> buckets;
+}
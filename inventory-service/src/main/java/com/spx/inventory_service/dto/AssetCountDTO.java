@@ -0,0 +1,21 @@
+package com.spx.inventory_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Number of assets of an office, an asset type or an (office, asset type) couple.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AssetCountDTO implements Serializable {
+
+    private String officeName;
+    private String assetTypeName;
+    private long assets;
+
+    // Null when no asset of the group has a purchase date
+    private Double averageAgeDays;
+}
@@ -1,10 +1,9 @@
 package com.spx.inventory_service.dto;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 import java.io.Serializable;
 import java.time.LocalDate;
-import java.util.Set;
+import java.util.List;
 
 @Data
 public class AssetDetailedResponseDTO implements Serializable {
@@ -15,6 +14,6 @@ public class AssetDetailedResponseDTO implements Serializable {
     private OfficeResponseDTO office;
     private AssetTypeResponseDTO assetType;
 
-    @JsonIgnoreProperties({"installedAssets"})
-    private Set<SoftwareLicenseResponseDTO> softwareLicenses;
+    // Summary view (with installation count) of the licenses installed on this asset
+    private List<SoftwareLicenseSummaryDTO> softwareLicenses;
 }
@@ -0,0 +1,21 @@
+package com.spx.inventory_service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class AssetLookupRequestDTO implements Serializable {
+
+    public static final int MAX_SERIAL_NUMBERS = 1000;
+
+    @NotEmpty(message = "At least one serial number is required")
+    @Size(max = MAX_SERIAL_NUMBERS, message = "At most " + MAX_SERIAL_NUMBERS + " serial numbers per lookup")
+    private List<@NotBlank(message = "Serial number cannot be blank") String> serialNumbers;
+}
@@ -0,0 +1,17 @@
+package com.spx.inventory_service.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Result of a batch lookup: the assets found and the (normalized) serial numbers that do not exist,
+ * both in request order, duplicates removed.
+ */
+@Data
+public class AssetLookupResponseDTO<T> implements Serializable {
+
+    private List<T> found;
+    private List<String> missing;
+}
@@ -1,5 +1,6 @@
 package com.spx.inventory_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.io.Serializable;
@@ -14,4 +15,8 @@ public class AssetResponseDTO implements Serializable {
 
     private String officeName;
     private String assetTypeName;
-}
\ No newline at end of file
+
+    // Entity version, sent as the ETag header (not in the body)
+    @JsonIgnore
+    private Long version;
+}
@@ -0,0 +1,26 @@
+package com.spx.inventory_service.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filters of GET /assets/search. Every field is optional, null = no filter.
+ */
+@Data
+public class AssetSearchRequestDTO {
+
+    private String officeName;
+    private String assetTypeName;
+
+    // Purchase date range (both included)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate purchasedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate purchasedTo;
+
+    // Only assets where this software license is installed
+    private String softwareName;
+}
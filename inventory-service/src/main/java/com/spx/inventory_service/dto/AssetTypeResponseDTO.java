@@ -1,5 +1,6 @@
 package com.spx.inventory_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 import java.io.Serializable;
@@ -10,4 +11,8 @@ public class AssetTypeResponseDTO implements Serializable {
     private Long id;
     private String assetTypeName;
     private String assetTypeDescription;
+
+    // Entity version, sent as the ETag header (not in the body)
+    @JsonIgnore
+    private Long version;
 }
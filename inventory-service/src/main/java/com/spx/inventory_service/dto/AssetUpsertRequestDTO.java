@@ -0,0 +1,22 @@
+package com.spx.inventory_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class AssetUpsertRequestDTO implements Serializable {
+
+    public static final int MAX_ASSETS = 10000;
+
+    @NotEmpty(message = "At least one asset is required")
+    @Size(max = MAX_ASSETS, message = "At most " + MAX_ASSETS + " assets per upsert")
+    private List<@NotNull(message = "Asset cannot be null") @Valid AssetRequestDTO> assets;
+}
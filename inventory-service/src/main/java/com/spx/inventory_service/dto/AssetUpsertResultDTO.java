@@ -0,0 +1,18 @@
+package com.spx.inventory_service.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Result of POST /assets/upsert.
+ * Assets sent more than once in the same request (same serial number) are counted once: the last occurrence wins.
+ */
+@Data
+public class AssetUpsertResultDTO implements Serializable {
+
+    private int received;
+    private int created;
+    private int updated;
+    private int unchanged;
+}
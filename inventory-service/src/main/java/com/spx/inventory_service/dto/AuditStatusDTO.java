@@ -0,0 +1,20 @@
+package com.spx.inventory_service.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * State of the write-behind audit trail: buffered records, drops, dead letters and flush lag.
+ */
+@Data
+public class AuditStatusDTO implements Serializable {
+
+    private int bufferedRecords;
+    private int bufferCapacity;
+    private long droppedRecords;
+    private long writtenRecords;
+    private long failedFlushes;
+    private long deadLetteredRecords;
+    private long lastFlushLagMillis;
+}
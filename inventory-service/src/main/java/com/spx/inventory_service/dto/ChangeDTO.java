@@ -0,0 +1,23 @@
+package com.spx.inventory_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * One change of the change feed. data is the current state of the row
+ * (AssetResponseDTO, OfficeResponseDTO, AssetTypeResponseDTO or SoftwareLicenseSummaryDTO), null for deletions.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeDTO implements Serializable {
+
+    private long version;
+    private String entityType;
+    private String key;
+    private Instant changedAt;
+    private boolean deleted;
+    private Object data;
+}
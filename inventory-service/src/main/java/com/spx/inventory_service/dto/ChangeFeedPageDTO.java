@@ -0,0 +1,21 @@
+package com.spx.inventory_service.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * One page of the change feed, in change log order (writing transaction, then version).
+ * The client stores nextSince (an opaque position) and sends it back as ?since= on the next poll (also when the page is empty).
+ */
+@Data
+public class ChangeFeedPageDTO implements Serializable {
+
+    private List<ChangeDTO> changes;
+    private int limit;
+    private String nextSince;
+
+    // true when more changes are already available: poll again right away
+    private boolean hasMore;
+}
@@ -0,0 +1,26 @@
+package com.spx.inventory_service.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Result of GET /datasources/status: one connection pool partition.
+ */
+@Data
+public class DataSourcePoolStatusDTO implements Serializable {
+
+    private String workload;
+    private String poolName;
+    private int maximumPoolSize;
+    private long connectionTimeoutMillis;
+
+    // Current pool state (0 until the pool opens its first connection)
+    private int activeConnections;
+    private int idleConnections;
+    private int threadsAwaitingConnection;
+
+    // Since startup
+    private long acquiredConnections;
+    private long failedAcquisitions;
+}
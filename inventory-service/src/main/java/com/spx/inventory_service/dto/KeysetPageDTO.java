@@ -0,0 +1,35 @@
+package com.spx.inventory_service.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (seek) pagination.
+ * The next page is requested with ?after={nextAfter}; nextAfter is null on the last page.
+ */
+@Data
+public class KeysetPageDTO<T> implements Serializable {
+
+    private List<T> content;
+    private int limit;
+    private Long nextAfter;
+
+    /* Rows must be fetched with limit + 1: the extra row only tells that another page exists */
+    public static <T> KeysetPageDTO<T> of(List<T> rows, int limit, Function<T, Long> keyExtractor) {
+
+        KeysetPageDTO<T> page = new KeysetPageDTO<>();
+        page.setLimit(limit);
+
+        if (rows.size() > limit) {
+            page.setContent(rows.subList(0, limit));
+            page.setNextAfter(keyExtractor.apply(rows.get(limit - 1)));
+        } else {
+            page.setContent(rows);
+        }
+
+        return page;
+    }
+}
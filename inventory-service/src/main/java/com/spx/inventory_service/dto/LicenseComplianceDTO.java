@@ -0,0 +1,29 @@
+package com.spx.inventory_service.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Compliance row of a software license.
+ */
+@Data
+public class LicenseComplianceDTO implements Serializable {
+
+    private String softwareName;
+    private Integer maxInstallations;
+    private LocalDate expirationDate;
+
+    // Installations of the license (all offices and asset types)
+    private long installedSeats;
+
+    // Installations above maxInstallations (0 when compliant or unlimited)
+    private long overAllocatedSeats;
+
+    // Installations on the assets matching the office / asset type filters
+    private long scopedSeats;
+
+    // Scoped installations of an expired license
+    private long expiredInstallations;
+}
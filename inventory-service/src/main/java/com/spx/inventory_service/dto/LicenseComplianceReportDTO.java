@@ -0,0 +1,27 @@
+package com.spx.inventory_service.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * License compliance report: one row per license plus totals.
+ * officeName and assetTypeName are the applied filters (null = all).
+ */
+@Data
+public class LicenseComplianceReportDTO implements Serializable {
+
+    private LocalDate asOf;
+    private String officeName;
+    private String assetTypeName;
+
+    private long licenses;
+    private long overAllocatedLicenses;
+    private long expiredInstalledLicenses;
+    private long overAllocatedSeats;
+    private long expiredInstallations;
+
+    private List<LicenseComplianceDTO> rows;
+}
@@ -0,0 +1,21 @@
+package com.spx.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Licenses expiring between fromDay and toDay (days from today, both included).
+ */
+@Data
+@AllArgsConstructor
+public class LicenseExpiryBucketDTO implements Serializable {
+
+    private int fromDay;
+    private int toDay;
+    private long licenses;
+
+    // Installations that stop being covered when these licenses expire
+    private long seatsAffected;
+}
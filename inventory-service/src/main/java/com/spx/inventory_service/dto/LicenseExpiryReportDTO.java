@@ -0,0 +1,26 @@
+package com.spx.inventory_service.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Licenses expiring within a horizon, read from the in-memory expiry snapshot.
+ * Use GET /software-licenses/expiring-soon?days={horizonDays} for the list of licenses.
+ */
+@Data
+public class LicenseExpiryReportDTO implements Serializable {
+
+    // Day the snapshot refers to and when it was computed
+    private LocalDate asOf;
+    private Instant generatedAt;
+
+    private int horizonDays;
+    private long licenses;
+    private long seatsAffected;
+
+    private List<LicenseExpiryBucketDTO> buckets;
+}
@@ -0,0 +1,16 @@
+package com.spx.inventory_service.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Result of POST /offices/{officeName}/consolidate: every asset of fromOffice now belongs to intoOffice.
+ */
+@Data
+public class OfficeConsolidationDTO implements Serializable {
+
+    private String fromOffice;
+    private String intoOffice;
+    private int movedAssets;
+}
@@ -1,5 +1,6 @@
 package com.spx.inventory_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import java.io.Serializable;
 
@@ -8,5 +9,8 @@ public class OfficeResponseDTO implements Serializable {
 
     private Long id;
     private String officeName;
-}
 
+    // Entity version, sent as the ETag header (not in the body)
+    @JsonIgnore
+    private Long version;
+}
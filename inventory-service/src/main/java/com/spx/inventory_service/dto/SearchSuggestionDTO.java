@@ -0,0 +1,20 @@
+package com.spx.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * An autocomplete match. Score is the trigram similarity with the query (1 = identical).
+ */
+@Data
+@AllArgsConstructor
+public class SearchSuggestionDTO implements Serializable {
+
+    private String value;
+    private double score;
+
+    // true when value starts with the query, false for fuzzy (typo tolerant) matches
+    private boolean prefixMatch;
+}
@@ -0,0 +1,18 @@
+package com.spx.inventory_service.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Autocomplete matches for a query: prefix matches first (alphabetical), then fuzzy matches (most similar first).
+ */
+@Data
+public class SearchSuggestionsDTO implements Serializable {
+
+    private String query;
+    private List<SearchSuggestionDTO> serialNumbers;
+    private List<SearchSuggestionDTO> softwareNames;
+    private List<SearchSuggestionDTO> officeNames;
+}
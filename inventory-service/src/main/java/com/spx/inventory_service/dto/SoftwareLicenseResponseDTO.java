@@ -1,12 +1,16 @@
 package com.spx.inventory_service.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.io.Serializable;
 import java.time.LocalDate;
-import java.util.Set;
 
+/**
+ * Detail view of a software license.
+ * Installed assets are available through GET /software-licenses/{softwareName}/installations.
+ */
 @Data
 public class SoftwareLicenseResponseDTO implements Serializable {
 
@@ -15,6 +19,15 @@ public class SoftwareLicenseResponseDTO implements Serializable {
     private Integer maxInstallations;
     private LocalDate expirationDate;
 
-    // Assets where this license is installed
-    private Set<AssetResponseDTO> installedAssets;
-}
\ No newline at end of file
+    // Number of assets where this license is installed
+    private Long installationCount;
+
+    // Null = no limits
+    private Integer availableInstallations;
+
+    private boolean expired;
+
+    // Entity version, sent as the ETag header (not in the body)
+    @JsonIgnore
+    private Long version;
+}
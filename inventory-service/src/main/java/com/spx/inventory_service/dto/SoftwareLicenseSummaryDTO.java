@@ -0,0 +1,24 @@
+package com.spx.inventory_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Summary view of a software license, used by list endpoints.
+ * Installed assets are available through GET /software-licenses/{softwareName}/installations.
+ */
+@Data
+public class SoftwareLicenseSummaryDTO implements Serializable {
+
+    private Long id;
+    private String softwareName;
+    private Integer maxInstallations;
+    private LocalDate expirationDate;
+
+    // Number of assets where this license is installed (not filled on the /assets/{serialNumber}/licenses pages)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long installationCount;
+}
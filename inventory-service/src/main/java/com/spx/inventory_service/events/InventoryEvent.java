@@ -0,0 +1,82 @@
+package com.spx.inventory_service.events;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.spx.inventory_service.models.Asset;
+import com.spx.inventory_service.models.SoftwareLicense;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Compact description of an inventory mutation (keys only, no entity state).
+ * Values are copied when the event is created, so the event can outlive the transaction.
+ *
+ * Published with ApplicationEventPublisher inside the write transaction and delivered
+ * to @TransactionalEventListener methods (e.g. after commit to the SSE subscribers).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record InventoryEvent(InventoryEventType type,
+                             String serialNumber,
+                             String officeName,
+                             String assetTypeName,
+                             String softwareName,
+                             // ASSET_UPDATED: serial number before the update, ASSET_MOVED: office before the move,
+                             // OFFICE_CONSOLIDATED: office closed
+                             String previousValue,
+                             // OFFICE_CONSOLIDATED: the moved assets
+                             List<String> serialNumbers,
+                             Instant occurredAt) implements Serializable {
+
+    public static InventoryEvent assetCreated(Asset asset) {
+        return of(InventoryEventType.ASSET_CREATED, asset, null, null);
+    }
+
+    public static InventoryEvent assetUpdated(String previousSerialNumber, Asset asset) {
+        return of(InventoryEventType.ASSET_UPDATED, asset, null, previousSerialNumber);
+    }
+
+    public static InventoryEvent assetMoved(String previousOfficeName, Asset asset) {
+        return of(InventoryEventType.ASSET_MOVED, asset, null, previousOfficeName);
+    }
+
+    // Set-based writes (no entity loaded)
+    public static InventoryEvent assetCreated(String serialNumber, String officeName, String assetTypeName) {
+        return new InventoryEvent(InventoryEventType.ASSET_CREATED, serialNumber, officeName, assetTypeName, null, null, null, Instant.now());
+    }
+
+    public static InventoryEvent assetUpdated(String previousSerialNumber, String serialNumber, String officeName, String assetTypeName) {
+        return new InventoryEvent(InventoryEventType.ASSET_UPDATED, serialNumber, officeName, assetTypeName, null, previousSerialNumber, null, Instant.now());
+    }
+
+    public static InventoryEvent assetMoved(String previousOfficeName, String serialNumber, String officeName, String assetTypeName) {
+        return new InventoryEvent(InventoryEventType.ASSET_MOVED, serialNumber, officeName, assetTypeName, null, previousOfficeName, null, Instant.now());
+    }
+
+    // One event for a whole office closure, whatever the number of assets moved
+    public static InventoryEvent officeConsolidated(String fromOfficeName, String intoOfficeName, List<String> serialNumbers) {
+        return new InventoryEvent(InventoryEventType.OFFICE_CONSOLIDATED, null, intoOfficeName, null, null, fromOfficeName, serialNumbers, Instant.now());
+    }
+
+    public static InventoryEvent assetDeleted(Asset asset) {
+        return of(InventoryEventType.ASSET_DELETED, asset, null, null);
+    }
+
+    public static InventoryEvent licenseInstalled(SoftwareLicense softwareLicense, Asset asset) {
+        return of(InventoryEventType.LICENSE_INSTALLED, asset, softwareLicense.getSoftwareName(), null);
+    }
+
+    public static InventoryEvent licenseUninstalled(SoftwareLicense softwareLicense, Asset asset) {
+        return of(InventoryEventType.LICENSE_UNINSTALLED, asset, softwareLicense.getSoftwareName(), null);
+    }
+
+    // Outbox aggregate key: the asset, or the closed office for a consolidation
+    public String aggregateKey() {
+        return type == InventoryEventType.OFFICE_CONSOLIDATED ? previousValue : serialNumber;
+    }
+
+    private static InventoryEvent of(InventoryEventType type, Asset asset, String softwareName, String previousValue) {
+        return new InventoryEvent(type, asset.getSerialNumber(), asset.getOffice().getName(), asset.getAssetType().getAssetTypeName(),
+                softwareName, previousValue, null, Instant.now());
+    }
+}
@@ -0,0 +1,217 @@
+package com.spx.inventory_service.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.naming.ServiceUnavailableException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes inventory events to the SSE subscribers (GET /events/stream), after the write transaction commits.
+ *
+ * Fan-out:
+ * - every event is serialized once and the same frame is offered to every subscriber buffer
+ * - buffers are bounded (inventory.events.buffer-size): a subscriber that falls behind is disconnected,
+ *   it reconnects and catches up with GET /changes. Writers and fast subscribers are never slowed down
+ * - a small pool of sender threads (inventory.events.sender-threads) writes the buffers to the sockets
+ */
+@Component
+@Slf4j
+public class InventoryEventBroadcaster {
+
+    // Events sent to one subscriber before its sender thread moves on to the next one
+    private static final int DRAIN_BATCH = 64;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.events.max-subscribers:5000}")
+    private int maxSubscribers;
+
+    @Value("${inventory.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${inventory.events.sender-threads:4}")
+    private int senderThreads;
+
+    // The client reconnects after the timeout (EventSource does it automatically)
+    @Value("${inventory.events.connection-timeout:PT30M}")
+    private Duration connectionTimeout;
+
+    private final Set<SseSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong eventSequence = new AtomicLong();
+
+    private final AtomicLong disconnectedSlowSubscribers = new AtomicLong();
+
+    private ExecutorService senders;
+
+    @PostConstruct
+    void startSenders() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        subscribers.forEach(SseSubscriber::close);
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    // ==========================================================
+    // SUBSCRIBE
+    // ==========================================================
+
+    /**
+     * Opens a new SSE connection.
+     *
+     * @return the emitter returned by the controller
+     * @throws ServiceUnavailableException when the subscriber limit is reached
+     */
+    public SseEmitter subscribe() throws ServiceUnavailableException {
+
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceUnavailableException("Too many event stream subscribers, retry later");   // Throw 503 HTTP Status code
+        }
+
+        SseEmitter emitter = new SseEmitter(connectionTimeout.toMillis());
+        register(emitter);
+
+        return emitter;
+    }
+
+    // Package-private: tests register their own emitter
+    SseSubscriber register(SseEmitter emitter) {
+
+        SseSubscriber subscriber = new SseSubscriber(emitter, bufferSize);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        subscribers.add(subscriber);
+
+        // First frame: tells the client the stream is open (and flushes the response headers)
+        deliver(subscriber, SseEmitter.event().comment("connected").build());
+
+        return subscriber;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getDisconnectedSlowSubscribers() {
+        return disconnectedSlowSubscribers.get();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    // ==========================================================
+    // PUBLISH
+    // ==========================================================
+
+    /**
+     * Pushes a committed event to every subscriber (events of rolled back transactions are never delivered).
+     *
+     * @param event the inventory event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryEvent(InventoryEvent event) {
+
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        // Step 1: Serialize once for all the subscribers
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("Inventory event not serializable: {}", event, e);
+            return;
+        }
+
+        Set<DataWithMediaType> frame = SseEmitter.event()
+                .id(Long.toString(eventSequence.incrementAndGet()))
+                .name(event.type().name())
+                .data(json, MediaType.APPLICATION_JSON)
+                .build();
+
+        // Step 2: Offer it to every buffer (never blocks the committing thread)
+        broadcast(frame);
+    }
+
+    /**
+     * Keeps idle connections open through proxies and detects the clients that went away.
+     */
+    @Scheduled(fixedDelayString = "${inventory.events.heartbeat-interval:PT20S}")
+    public void sendHeartbeat() {
+
+        if (!subscribers.isEmpty()) {
+            broadcast(SseEmitter.event().comment("heartbeat").build());
+        }
+    }
+
+    private void broadcast(Set<DataWithMediaType> frame) {
+        for (SseSubscriber subscriber : subscribers) {
+            deliver(subscriber, frame);
+        }
+    }
+
+    private void deliver(SseSubscriber subscriber, Set<DataWithMediaType> frame) {
+
+        if (!subscriber.offer(frame)) {
+            if (!subscriber.isClosed()) {
+                disconnectedSlowSubscribers.incrementAndGet();
+                log.warn("SSE subscriber disconnected: buffer of {} events full", bufferSize);
+            }
+            remove(subscriber);
+            return;
+        }
+
+        if (subscriber.startDraining()) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(SseSubscriber subscriber) {
+
+        if (subscriber.drain(DRAIN_BATCH)) {
+            // More events are waiting: back to the end of the queue (fairness between subscribers)
+            senders.execute(() -> drain(subscriber));
+        } else if (subscriber.isClosed()) {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    void remove(SseSubscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.close();
+    }
+}
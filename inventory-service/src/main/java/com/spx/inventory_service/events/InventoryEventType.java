@@ -0,0 +1,14 @@
+package com.spx.inventory_service.events;
+
+/**
+ * Inventory mutations published by AssetService and SoftwareLicenseService.
+ */
+public enum InventoryEventType {
+    ASSET_CREATED,
+    ASSET_UPDATED,
+    ASSET_MOVED,
+    ASSET_DELETED,
+    OFFICE_CONSOLIDATED,
+    LICENSE_INSTALLED,
+    LICENSE_UNINSTALLED
+}
@@ -0,0 +1,80 @@
+package com.spx.inventory_service.events;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One SSE connection with its bounded buffer of pending events.
+ *
+ * Producers only offer to the buffer (never block, never write to the socket).
+ * At most one sender thread drains a subscriber at a time (draining flag), so events keep their order.
+ */
+final class SseSubscriber {
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<Set<DataWithMediaType>> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    SseSubscriber(SseEmitter emitter, int bufferSize) {
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /* false when the buffer is full (the client does not read fast enough) */
+    boolean offer(Set<DataWithMediaType> event) {
+        return !closed && buffer.offer(event);
+    }
+
+    /* true if the caller must schedule a drain (no sender is draining this subscriber) */
+    boolean startDraining() {
+        return !buffer.isEmpty() && draining.compareAndSet(false, true);
+    }
+
+    /**
+     * Sends up to maxEvents buffered events.
+     *
+     * @return true if events are left (the caller schedules another drain, so one slow client cannot keep a sender busy)
+     */
+    boolean drain(int maxEvents) {
+
+        try {
+            Set<DataWithMediaType> event;
+            int sent = 0;
+
+            while (sent < maxEvents && !closed && (event = buffer.poll()) != null) {
+                emitter.send(event);
+                sent++;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Connection closed by the client (or emitter already completed)
+            close();
+        } finally {
+            draining.set(false);
+        }
+
+        return !closed && startDraining();
+    }
+
+    void close() {
+        if (!closed) {
+            closed = true;
+            buffer.clear();
+            emitter.complete();
+        }
+    }
+}
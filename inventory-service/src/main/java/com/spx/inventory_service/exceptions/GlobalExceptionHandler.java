@@ -4,8 +4,10 @@ import com.spx.inventory_service.dto.ApiErrorResponseDTO;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -130,6 +132,24 @@ public class GlobalExceptionHandler {
     }
 
 
+    // ==========================================================
+    // 412 - PRECONDITION FAILED (Optimistic locking)
+    // ==========================================================
+
+    /*
+     * The If-Match version is not the current one, or another request updated the same row
+     * between our read and our write (@Version check at flush).
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiErrorResponseDTO> handlePreconditionFailed(OptimisticLockingFailureException ex, WebRequest request) {
+        // Hibernate messages name tables and ids: not for the client
+        String message = ex instanceof ObjectOptimisticLockingFailureException
+                ? "The resource has been modified by another request, reload it and retry"
+                : ex.getMessage();
+        return buildError(HttpStatus.PRECONDITION_FAILED, "Precondition Failed", message, "Read the resource again (new ETag) and repeat the update", request);
+    }
+
+
     // ==========================================================
     // 500 - INTERNAL SERVER ERROR (FALLBACK)
     // ==========================================================
@@ -0,0 +1,203 @@
+package com.spx.inventory_service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import javax.naming.ServiceUnavailableException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for POST endpoints that clients retry on network timeouts.
+ *
+ * - the first request with a key runs the call, its response is kept for inventory.idempotency.ttl
+ *   (at most inventory.idempotency.max-entries keys, least recently used evicted first)
+ * - a retry with the same key and the same request gets the stored response (header Idempotent-Replayed: true)
+ *   without running the call again. A retry that arrives while the first request is still running waits for it
+ * - the same key with a different request (other endpoint or body) is rejected with 400
+ * - failures are not stored: the waiting retries get the same error, the next retry runs the call again
+ *
+ * Keys are scoped by user, so two clients cannot read each other's responses. The store is in memory (one instance).
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final String SYSTEM_USER = "system";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${inventory.idempotency.max-entries:10000}")
+    private long maxEntries;
+
+    // How long a retry waits for the first request with the same key
+    @Value("${inventory.idempotency.wait-timeout:PT30S}")
+    private Duration waitTimeout;
+
+    private Cache<String, Entry> entries;
+
+    private final AtomicLong executions = new AtomicLong();
+
+    private final AtomicLong replays = new AtomicLong();
+
+    /* Request fingerprint and response (completed when the first request ends) */
+    private record Entry(String fingerprint, CompletableFuture<ResponseEntity<?>> response) {
+    }
+
+    @PostConstruct
+    void createStore() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // ==========================================================
+    // EXECUTE
+    // ==========================================================
+
+    /**
+     * Runs the call once per idempotency key.
+     *
+     * @param idempotencyKey the Idempotency-Key header (null = no idempotency, the call always runs)
+     * @param operation      the endpoint, part of the fingerprint (e.g. "POST /assets/insert")
+     * @param requestBody    the request body, part of the fingerprint (null if none)
+     * @param call           the controller call
+     * @return the response of the call, or the stored one for a retry
+     * @throws ServiceUnavailableException when the first request with the same key is still running after the wait timeout
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String operation, Object requestBody,
+                                         Supplier<ResponseEntity<T>> call) throws ServiceUnavailableException {
+
+        if (idempotencyKey == null) {
+            return call.get();
+        }
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters long");   // Throw 400 HTTP Status code
+        }
+
+        // Step 1: Claim the key (only one of the concurrent requests succeeds)
+        String scopedKey = currentUsername() + " " + idempotencyKey;
+        Entry claim = new Entry(fingerprint(operation, requestBody), new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(scopedKey, claim);
+
+        // Step 2: First request: run the call and share its response
+        if (existing == null) {
+            executions.incrementAndGet();
+            try {
+                ResponseEntity<T> response = call.get();
+                claim.response().complete(response);
+                return response;
+            } catch (RuntimeException | Error ex) {
+                entries.asMap().remove(scopedKey, claim);
+                claim.response().completeExceptionally(ex);
+                throw ex;
+            }
+        }
+
+        // Step 3: Retry: same request only, then wait for the first one if it is still running
+        if (!existing.fingerprint().equals(claim.fingerprint())) {
+            throw new IllegalArgumentException(HEADER + " already used for a different request: " + idempotencyKey);   // Throw 400 HTTP Status code
+        }
+
+        ResponseEntity<?> stored = await(existing, idempotencyKey);
+        replays.incrementAndGet();
+
+        log.info("Idempotent replay. Key: {}, Operation: {}", idempotencyKey, operation);
+
+        return (ResponseEntity<T>) ResponseEntity.status(stored.getStatusCode())
+                .headers(stored.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.getBody());
+    }
+
+    private ResponseEntity<?> await(Entry entry, String idempotencyKey) throws ServiceUnavailableException {
+        try {
+            return entry.response().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            // Same error as the first request
+            throw ex.getCause() instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new ServiceUnavailableException("A request with the same " + HEADER + " is still running, retry later: " + idempotencyKey);   // Throw 503 HTTP Status code
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the request with the same " + HEADER + ": " + idempotencyKey);
+        }
+    }
+
+    // Endpoint + SHA-256 of the JSON body
+    private String fingerprint(String operation, Object requestBody) {
+
+        if (requestBody == null) {
+            return operation;
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(requestBody));
+            return operation + " " + HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Request body cannot be serialized", ex);
+        } catch (NoSuchAlgorithmException ex) {
+            // Never happens: every JVM provides SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String currentUsername() {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return SYSTEM_USER;
+        }
+
+        return authentication.getName();
+    }
+
+    // ==========================================================
+    // STATUS
+    // ==========================================================
+
+    public long getStoredKeys() {
+        return entries.estimatedSize();
+    }
+
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    public long getReplays() {
+        return replays.get();
+    }
+}
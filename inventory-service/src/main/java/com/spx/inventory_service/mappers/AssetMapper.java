@@ -4,6 +4,8 @@ import com.spx.inventory_service.dto.AssetDetailedResponseDTO;
 import com.spx.inventory_service.dto.AssetRequestDTO;
 import com.spx.inventory_service.dto.AssetResponseDTO;
 import com.spx.inventory_service.models.Asset;
+import com.spx.inventory_service.repositories.AssetMoveRepository.MovedAsset;
+import com.spx.inventory_service.repositories.projections.InstalledAssetView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -17,6 +19,10 @@ public interface AssetMapper {
     @Mapping(target = "office", ignore = true)
     @Mapping(target = "assetType", ignore = true)
     @Mapping(target = "softwareLicenses", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "changeVersion", ignore = true)
+    @Mapping(target = "changedAt", ignore = true)
+    @Mapping(target = "changeTransaction", ignore = true)
     Asset toEntity(AssetRequestDTO dto);
 
     // ==========================================================
@@ -27,10 +33,18 @@ public interface AssetMapper {
     @Mapping(source = "assetType.assetTypeName", target = "assetTypeName")
     AssetResponseDTO toDTO(Asset asset);
 
+    // Projection (license installations page) -> DTO
+    AssetResponseDTO toDTO(InstalledAssetView view);
+
+    // Row returned by a set-based move -> DTO
+    AssetResponseDTO toDTO(MovedAsset movedAsset);
+
     // ==========================================================
     // Entity -> DTO (DETAILED)
     // ==========================================================
 
+    // Installed licenses are loaded as summaries by the service (see SoftwareLicenseRepository#findSummariesBySerialNumber)
     @Mapping(source = "office.name", target = "office.officeName")
+    @Mapping(target = "softwareLicenses", ignore = true)
     AssetDetailedResponseDTO toDetailedDTO(Asset asset);
 }
\ No newline at end of file
@@ -1,17 +1,48 @@
 package com.spx.inventory_service.mappers;
+import com.spx.inventory_service.dto.LicenseComplianceDTO;
 import com.spx.inventory_service.dto.SoftwareLicenseRequestDTO;
 import com.spx.inventory_service.dto.SoftwareLicenseResponseDTO;
+import com.spx.inventory_service.dto.SoftwareLicenseSummaryDTO;
 import com.spx.inventory_service.models.SoftwareLicense;
+import com.spx.inventory_service.repositories.projections.InstalledLicenseView;
+import com.spx.inventory_service.repositories.projections.LicenseComplianceView;
+import com.spx.inventory_service.repositories.projections.SoftwareLicenseSummaryView;
+import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
-@Mapper(componentModel = "spring", uses = { AssetMapper.class })
+import java.time.LocalDate;
+
+@Mapper(componentModel = "spring")
 public interface SoftwareLicenseMapper {
 
     // Request → Entity
     SoftwareLicense toEntity(SoftwareLicenseRequestDTO dto);
 
-    // Entity → Response
-    SoftwareLicenseResponseDTO toDTO(SoftwareLicense entity);
+    // Entity + installed seats → Response (detail view, installed assets are never walked)
+    @Mapping(target = "installationCount", source = "installationCount")
+    @Mapping(target = "availableInstallations", ignore = true)
+    @Mapping(target = "expired", ignore = true)
+    SoftwareLicenseResponseDTO toDTO(SoftwareLicense entity, long installationCount);
 
-}
+    // Projection → Response (summary view)
+    SoftwareLicenseSummaryDTO toSummaryDTO(SoftwareLicenseSummaryView view);
+
+    // Projection (asset licenses page) → Response, without installation count
+    @Mapping(target = "installationCount", ignore = true)
+    SoftwareLicenseSummaryDTO toSummaryDTO(InstalledLicenseView view);
+
+    // Projection → Compliance row
+    LicenseComplianceDTO toComplianceDTO(LicenseComplianceView view);
 
+    @AfterMapping
+    default void fillSeatInfo(@MappingTarget SoftwareLicenseResponseDTO dto) {
+
+        if (dto.getMaxInstallations() != null) {
+            dto.setAvailableInstallations((int) Math.max(0, dto.getMaxInstallations() - dto.getInstallationCount()));
+        }
+
+        dto.setExpired(dto.getExpirationDate() != null && dto.getExpirationDate().isBefore(LocalDate.now()));
+    }
+}
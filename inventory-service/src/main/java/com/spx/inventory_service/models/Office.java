@@ -2,7 +2,10 @@ package com.spx.inventory_service.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -26,6 +29,25 @@ public class Office {
     @Column(nullable = false, length = 100, unique = true)
     private String name;
 
+    // Optimistic locking: incremented by Hibernate on every update, first part of the ETag of the resource
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Change tracking (GET /changes): the database sets these columns on every insert and update
+    @Generated(event = {EventType.INSERT, EventType.UPDATE}, sql = "nextval('change_version_seq')")
+    @Column(name = "change_version")
+    private Long changeVersion;
+
+    @Generated(event = {EventType.INSERT, EventType.UPDATE}, sql = "clock_timestamp()")
+    @Column(name = "changed_at")
+    private Instant changedAt;
+
+    // Transaction of the last write: the feed never passes a transaction still running
+    @Generated(event = {EventType.INSERT, EventType.UPDATE}, sql = "CAST(CAST(pg_current_xact_id() AS text) AS bigint)")
+    @Column(name = "change_xid")
+    private Long changeTransaction;
+
 
     // Relation with Asset table on database
     // It allows to have this method: office.getAssets()
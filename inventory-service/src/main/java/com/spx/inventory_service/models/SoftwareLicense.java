@@ -2,7 +2,11 @@ package com.spx.inventory_service.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.OptimisticLock;
+import org.hibernate.generator.EventType;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
@@ -30,6 +34,25 @@ public class SoftwareLicense {
     @Column(name="expiration_date", nullable = false)
     private LocalDate expirationDate;
 
+    // Optimistic locking: incremented by Hibernate on every update, first part of the ETag of the resource
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Change tracking (GET /changes): the database sets these columns on every insert and update
+    @Generated(event = {EventType.INSERT, EventType.UPDATE}, sql = "nextval('change_version_seq')")
+    @Column(name = "change_version")
+    private Long changeVersion;
+
+    @Generated(event = {EventType.INSERT, EventType.UPDATE}, sql = "clock_timestamp()")
+    @Column(name = "changed_at")
+    private Instant changedAt;
+
+    // Transaction of the last write: the feed never passes a transaction still running
+    @Generated(event = {EventType.INSERT, EventType.UPDATE}, sql = "CAST(CAST(pg_current_xact_id() AS text) AS bigint)")
+    @Column(name = "change_xid")
+    private Long changeTransaction;
+
     // Methods
     public void addAsset(Asset asset) {
         this.installedAssets.add(asset);
@@ -42,7 +65,9 @@ public class SoftwareLicense {
     }
 
     // Relation with Asset table on database
+    // Installs and uninstalls do not change the license version (no conflict between installs on different assets)
     @ManyToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(
             name = "assets_licenses", // Join table
             joinColumns = @JoinColumn(name = "license_id"),
@@ -0,0 +1,60 @@
+package com.spx.inventory_service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Appends the events to a JSON lines file (inventory.outbox.sink=file, path in inventory.outbox.file.path).
+ * One line per event: id, eventType, aggregateKey, createdAt and the event payload.
+ *
+ * The batch is written and forced to disk before the relay deletes it from the outbox.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.outbox.file.path:outbox/inventory-events.jsonl}")
+    private Path path;
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) throws IOException {
+
+        // Step 1: Build the whole batch in memory (one write, one fsync)
+        StringBuilder lines = new StringBuilder();
+
+        for (OutboxMessage message : batch) {
+            ObjectNode line = objectMapper.createObjectNode();
+            line.put("id", message.id());
+            line.put("eventType", message.eventType());
+            line.put("aggregateKey", message.aggregateKey());
+            line.put("createdAt", message.createdAt().toString());
+            line.set("payload", objectMapper.readTree(message.payload()));
+            lines.append(objectMapper.writeValueAsString(line)).append('\n');
+        }
+
+        // Step 2: Append and force to disk
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (FileOutputStream out = new FileOutputStream(path.toFile(), true)) {
+            out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            out.getChannel().force(false);
+        }
+    }
+}
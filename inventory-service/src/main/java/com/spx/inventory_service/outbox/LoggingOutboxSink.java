@@ -0,0 +1,24 @@
+package com.spx.inventory_service.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default sink (inventory.outbox.sink=log): writes the events to the application log.
+ * Replace it with a broker sink when a consumer exists.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.outbox.sink", havingValue = "log", matchIfMissing = true)
+@Slf4j
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            log.info("Outbox event {} {} {}: {}", message.id(), message.eventType(), message.aggregateKey(), message.payload());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.spx.inventory_service.outbox;
+
+import java.time.Instant;
+
+/**
+ * One row of event_outbox. id is unique and increasing: sinks can use it to drop duplicates
+ * (delivery is at-least-once, a batch is delivered again if a sink fails).
+ */
+public record OutboxMessage(long id, String eventType, String aggregateKey, String payload, Instant createdAt) {
+}
@@ -0,0 +1,162 @@
+package com.spx.inventory_service.outbox;
+
+import com.spx.inventory_service.datasource.WorkloadContext;
+import com.spx.inventory_service.datasource.WorkloadType;
+import com.spx.inventory_service.repositories.OutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the event outbox in the background and delivers the events to every OutboxSink.
+ *
+ * Each batch is one transaction: lock the oldest rows (FOR UPDATE SKIP LOCKED), publish, delete.
+ * - parallel relays (inventory.outbox.relay-threads, or several replicas) lock disjoint batches: no duplicates between them
+ * - if a sink fails the transaction rolls back, the rows stay in the outbox and are retried after the poll interval:
+ *   delivery is at-least-once, sinks drop duplicates by OutboxMessage.id
+ * - events are ordered inside a batch; with more than one relay, batches can be published out of order
+ *
+ * The relay owns its threads, so a slow sink never delays the @Scheduled jobs, and uses the reporting pool,
+ * so a backlog of events never takes the connections of the requests.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.outbox.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private List<OutboxSink> sinks;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${inventory.outbox.batch-size:200}")
+    private int batchSize;
+
+    // Batches in a row before the thread sleeps again (the rest is picked up on the next poll)
+    @Value("${inventory.outbox.max-batches-per-poll:50}")
+    private int maxBatchesPerPoll;
+
+    @Value("${inventory.outbox.relay-threads:1}")
+    private int relayThreads;
+
+    @Value("${inventory.outbox.poll-interval:PT1S}")
+    private Duration pollInterval;
+
+    private final AtomicLong publishedEvents = new AtomicLong();
+
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    private TransactionTemplate transactionTemplate;
+
+    private ScheduledExecutorService relays;
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        relays = Executors.newScheduledThreadPool(relayThreads, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int i = 0; i < relayThreads; i++) {
+            relays.scheduleWithFixedDelay(() -> WorkloadContext.run(WorkloadType.REPORTING, this::relayPending), pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Let the running batches commit or roll back: what is left is published after the restart
+        relays.shutdown();
+        relays.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Publishes the pending events, batch after batch, until the outbox is empty or a sink fails.
+     *
+     * @return the number of events published
+     */
+    public int relayPending() {
+
+        int published = 0;
+
+        try {
+            for (int batch = 0; batch < maxBatchesPerPoll; batch++) {
+                int count = relayBatch();
+                published += count;
+
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            failedBatches.incrementAndGet();
+            log.warn("Outbox batch not published, retrying in {}: {}", pollInterval, e.toString());
+        }
+
+        return published;
+    }
+
+    private int relayBatch() {
+
+        Integer count = transactionTemplate.execute(status -> {
+
+            // Step 1: Lock the oldest events not locked by another relay
+            List<OutboxMessage> batch = outboxRepository.lockNextBatch(batchSize);
+
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            // Step 2: Deliver to every sink (an exception rolls back and releases the locks)
+            for (OutboxSink sink : sinks) {
+                try {
+                    sink.publish(batch);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException("Outbox sink " + sink.getClass().getSimpleName() + " failed", e);
+                }
+            }
+
+            // Step 3: Published everywhere, remove them
+            outboxRepository.delete(batch);
+            return batch.size();
+        });
+
+        publishedEvents.addAndGet(count);
+        return count;
+    }
+
+    public long getPublishedEvents() {
+        return publishedEvents.get();
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.get();
+    }
+
+    public long getPendingEvents() {
+        return outboxRepository.countPending();
+    }
+}
@@ -0,0 +1,14 @@
+package com.spx.inventory_service.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of the outbox events (message broker, webhook, file...). Every OutboxSink bean receives every batch.
+ *
+ * publish is called inside the relay transaction that holds the row locks: if it throws, the batch stays
+ * in the outbox and is delivered again later (to every sink).
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> batch) throws Exception;
+}
@@ -0,0 +1,47 @@
+package com.spx.inventory_service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spx.inventory_service.events.InventoryEvent;
+import com.spx.inventory_service.repositories.OutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Writes every inventory event to the outbox, in the transaction of the service method that published it.
+ * The event is stored only if the change commits, and the request does not wait for any consumer:
+ * the cost on createAsset / installSoftwareLicenseOnAsset is one insert.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxWriter {
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * BEFORE_COMMIT: still inside the transaction, on its connection. Pending entity changes may be flushed only at the
+     * commit, after this insert: the order does not matter, the outbox row has no reference to them and both commit together.
+     * A failure here rolls the whole change back (no change without its event).
+     *
+     * @param event the inventory event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onInventoryEvent(InventoryEvent event) {
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Inventory event not serializable: " + event, e);
+        }
+
+        outboxRepository.insert(event.type().name(), event.aggregateKey(), payload);
+    }
+}
@@ -0,0 +1,70 @@
+package com.spx.inventory_service.repositories;
+
+import com.spx.inventory_service.audit.AuditRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Append-only audit table asset_audit: rows are inserted by AssetAuditTrail and never updated or deleted.
+ */
+@Repository
+public class AssetAuditRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the records with one JDBC batch.
+     *
+     * @param records the audit records
+     */
+    public void insertAll(List<AuditRecord> records) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO asset_audit (event_type, serial_number, office_name, asset_type_name, software_name,
+                                         previous_value, username, occurred_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """,
+                records, records.size(), (ps, record) -> {
+                    ps.setString(1, record.eventType());
+                    ps.setString(2, record.serialNumber());
+                    ps.setString(3, record.officeName());
+                    ps.setString(4, record.assetTypeName());
+                    ps.setString(5, record.softwareName());
+                    ps.setString(6, record.previousValue());
+                    ps.setString(7, record.username());
+                    ps.setTimestamp(8, Timestamp.from(record.occurredAt()));
+                });
+    }
+
+    /**
+     * Gets the history of a serial number (also after the asset was deleted), newest first.
+     *
+     * @param serialNumber the serial number (case-insensitive)
+     * @param limit        the max number of records
+     * @return the audit records
+     */
+    public List<AuditRecord> findBySerialNumber(String serialNumber, int limit) {
+        return jdbcTemplate.query("""
+                SELECT event_type, serial_number, office_name, asset_type_name, software_name,
+                       previous_value, username, occurred_at
+                FROM asset_audit
+                WHERE upper(serial_number) = upper(?)
+                ORDER BY id DESC
+                LIMIT ?
+                """,
+                (rs, rowNum) -> new AuditRecord(
+                        rs.getString("event_type"),
+                        rs.getString("serial_number"),
+                        rs.getString("office_name"),
+                        rs.getString("asset_type_name"),
+                        rs.getString("software_name"),
+                        rs.getString("previous_value"),
+                        rs.getString("username"),
+                        rs.getTimestamp("occurred_at").toInstant()),
+                serialNumber, limit);
+    }
+}
@@ -0,0 +1,176 @@
+package com.spx.inventory_service.repositories;
+
+import com.spx.inventory_service.dto.AssetCountDTO;
+import com.spx.inventory_service.models.Asset;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counter table asset_counters: one row per (office, asset type) with the number of assets
+ * and the sum of their purchase dates (epoch days), so aggregates never scan the assets table.
+ *
+ * Counters are updated by AssetService in the same transaction as the asset write.
+ */
+@Repository
+public class AssetCounterRepository {
+
+    private static final String UPSERT_PREFIX =
+            "INSERT INTO asset_counters (id_office, id_asset_type, asset_count, dated_count, purchase_day_sum) VALUES ";
+
+    private static final String UPSERT_SUFFIX = """
+             ON CONFLICT (id_office, id_asset_type) DO UPDATE SET
+                asset_count = asset_counters.asset_count + EXCLUDED.asset_count,
+                dated_count = asset_counters.dated_count + EXCLUDED.dated_count,
+                purchase_day_sum = asset_counters.purchase_day_sum + EXCLUDED.purchase_day_sum
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /* Change of one (office, asset type) counter row */
+    public record Delta(long officeId, long assetTypeId, long assets, long datedAssets, long purchaseDaySum) {
+
+        /* The asset as it is now, counted in */
+        public static Delta added(Asset asset) {
+            return of(asset, 1);
+        }
+
+        /* The asset as it is now, counted out (take it before changing the asset) */
+        public static Delta removed(Asset asset) {
+            return of(asset, -1);
+        }
+
+        private static Delta of(Asset asset, int sign) {
+            return of(asset.getOffice().getId(), asset.getAssetType().getId(), asset.getPurchaseDate(), sign);
+        }
+
+        /* One asset counted in (sign 1) or out (sign -1) of a row, from its raw values (set-based writes) */
+        public static Delta of(long officeId, long assetTypeId, LocalDate purchaseDate, int sign) {
+            return new Delta(officeId, assetTypeId, sign,
+                    purchaseDate == null ? 0 : sign, purchaseDate == null ? 0 : sign * purchaseDate.toEpochDay());
+        }
+    }
+
+    // ==========================================================
+    // WRITE
+    // ==========================================================
+
+    /**
+     * Applies the deltas with a single upsert statement.
+     * Deltas of the same row are merged first and rows are written in key order (no deadlock between opposite moves).
+     *
+     * @param deltas the counter changes
+     */
+    public void apply(Delta... deltas) {
+
+        // Step 1: Merge by (office, asset type), sorted by key
+        Map<List<Long>, Delta> merged = new TreeMap<>(Comparator.<List<Long>, Long>comparing(key -> key.get(0)).thenComparing(key -> key.get(1)));
+
+        for (Delta delta : deltas) {
+            merged.merge(List.of(delta.officeId(), delta.assetTypeId()), delta, (a, b) -> new Delta(a.officeId(), a.assetTypeId(),
+                    a.assets() + b.assets(), a.datedAssets() + b.datedAssets(), a.purchaseDaySum() + b.purchaseDaySum()));
+        }
+
+        // Step 2: Skip rows that do not change (e.g. an update that keeps office, type and purchase date)
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+
+        for (Delta delta : merged.values()) {
+            if (delta.assets() == 0 && delta.datedAssets() == 0 && delta.purchaseDaySum() == 0) {
+                continue;
+            }
+            sql.append(parameters.isEmpty() ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+            parameters.addAll(List.of(delta.officeId(), delta.assetTypeId(), delta.assets(), delta.datedAssets(), delta.purchaseDaySum()));
+        }
+
+        if (parameters.isEmpty()) {
+            return;
+        }
+
+        // Step 3: One statement for every row
+        jdbcTemplate.update(sql.append(UPSERT_SUFFIX).toString(), parameters.toArray());
+    }
+
+    /**
+     * Recomputes every counter from the assets table (bulk loads, seed data).
+     * Must run inside a transaction: the table lock waits for the asset writes in flight and blocks new ones until commit.
+     */
+    public void rebuild() {
+        jdbcTemplate.execute("LOCK TABLE asset_counters IN EXCLUSIVE MODE");
+        jdbcTemplate.update("DELETE FROM asset_counters");
+        jdbcTemplate.update("""
+                INSERT INTO asset_counters (id_office, id_asset_type, asset_count, dated_count, purchase_day_sum)
+                SELECT id_office, id_asset_type, count(*), count(purchase_date),
+                       COALESCE(sum(purchase_date - DATE '1970-01-01'), 0)
+                FROM assets
+                GROUP BY id_office, id_asset_type
+                """);
+    }
+
+    // ==========================================================
+    // READ (size = offices x asset types, whatever the number of assets)
+    // ==========================================================
+
+    public List<AssetCountDTO> countByOffice() {
+        return jdbcTemplate.query("""
+                SELECT o.name AS office_name, NULL AS asset_type_name,
+                       sum(c.asset_count) AS assets, sum(c.dated_count) AS dated, sum(c.purchase_day_sum) AS day_sum
+                FROM asset_counters c
+                JOIN offices o ON o.id_office = c.id_office
+                GROUP BY o.name
+                HAVING sum(c.asset_count) > 0
+                ORDER BY o.name
+                """, (rs, rowNum) -> toCount(rs));
+    }
+
+    public List<AssetCountDTO> countByAssetType() {
+        return jdbcTemplate.query("""
+                SELECT NULL AS office_name, t.asset_type_name AS asset_type_name,
+                       sum(c.asset_count) AS assets, sum(c.dated_count) AS dated, sum(c.purchase_day_sum) AS day_sum
+                FROM asset_counters c
+                JOIN asset_types t ON t.id_asset_type = c.id_asset_type
+                GROUP BY t.asset_type_name
+                HAVING sum(c.asset_count) > 0
+                ORDER BY t.asset_type_name
+                """, (rs, rowNum) -> toCount(rs));
+    }
+
+    public List<AssetCountDTO> countByOfficeAndAssetType() {
+        return jdbcTemplate.query("""
+                SELECT o.name AS office_name, t.asset_type_name AS asset_type_name,
+                       c.asset_count AS assets, c.dated_count AS dated, c.purchase_day_sum AS day_sum
+                FROM asset_counters c
+                JOIN offices o ON o.id_office = c.id_office
+                JOIN asset_types t ON t.id_asset_type = c.id_asset_type
+                WHERE c.asset_count > 0
+                ORDER BY o.name, t.asset_type_name
+                """, (rs, rowNum) -> toCount(rs));
+    }
+
+    private static AssetCountDTO toCount(ResultSet rs) throws SQLException {
+
+        AssetCountDTO count = new AssetCountDTO();
+        count.setOfficeName(rs.getString("office_name"));
+        count.setAssetTypeName(rs.getString("asset_type_name"));
+        count.setAssets(rs.getLong("assets"));
+
+        // Average age = today - average purchase date (assets without a purchase date are not counted)
+        long dated = rs.getLong("dated");
+        if (dated > 0) {
+            double averagePurchaseDay = (double) rs.getLong("day_sum") / dated;
+            count.setAverageAgeDays(Math.round((LocalDate.now().toEpochDay() - averagePurchaseDay) * 10) / 10.0);
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,122 @@
+package com.spx.inventory_service.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Set-based asset moves: one UPDATE ... RETURNING per move (or per office consolidation), no entity loaded.
+ *
+ * Every moved row gets what Hibernate would have written: a new version (@Version / ETag) and a new change version (GET /changes).
+ * The returned rows carry the previous and the new office, so the caller can update asset_counters and publish the events.
+ */
+@Repository
+public class AssetMoveRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /* One moved asset, as it is after the move */
+    public record MovedAsset(long id, String serialNumber, LocalDate purchaseDate, long version,
+                             long assetTypeId, String assetTypeName,
+                             long previousOfficeId, String previousOfficeName,
+                             long officeId, String officeName) {
+    }
+
+    /**
+     * Moves one asset to another office.
+     * Nothing is updated (empty result) when the asset or the office does not exist, when the asset is already
+     * in that office or when its version is not the expected one.
+     *
+     * @param serialNumber    the serial number (case-insensitive)
+     * @param officeName      the target office name (case-insensitive)
+     * @param expectedVersion the version read by the client (null = no check)
+     * @return the moved asset
+     */
+    public Optional<MovedAsset> moveAsset(String serialNumber, String officeName, Long expectedVersion) {
+
+        // The CTE locks the row first: previous office and type are read from the latest committed version
+        List<MovedAsset> moved = jdbcTemplate.query("""
+                WITH previous AS (
+                    SELECT a.id_asset, a.id_office, o.name AS office_name, a.id_asset_type
+                    FROM assets a
+                    JOIN offices o ON o.id_office = a.id_office
+                    WHERE upper(a.serial_number) = upper(?)
+                    FOR UPDATE OF a
+                )
+                UPDATE assets a
+                SET id_office = target.id_office,
+                    version = a.version + 1,
+                    change_version = nextval('change_version_seq'),
+                    change_xid = pg_current_xact_id()::text::bigint,
+                    changed_at = clock_timestamp()
+                FROM previous p, offices target, asset_types t
+                WHERE a.id_asset = p.id_asset
+                  AND upper(target.name) = upper(?)
+                  AND t.id_asset_type = p.id_asset_type
+                  AND a.id_office <> target.id_office
+                  AND (CAST(? AS BIGINT) IS NULL OR a.version = CAST(? AS BIGINT))
+                RETURNING a.id_asset, a.serial_number, a.purchase_date, a.version, t.id_asset_type, t.asset_type_name,
+                          p.id_office AS previous_office_id, p.office_name AS previous_office_name,
+                          target.id_office AS office_id, target.name AS office_name
+                """,
+                (rs, rowNum) -> new MovedAsset(
+                        rs.getLong("id_asset"),
+                        rs.getString("serial_number"),
+                        toLocalDate(rs.getDate("purchase_date")),
+                        rs.getLong("version"),
+                        rs.getLong("id_asset_type"),
+                        rs.getString("asset_type_name"),
+                        rs.getLong("previous_office_id"),
+                        rs.getString("previous_office_name"),
+                        rs.getLong("office_id"),
+                        rs.getString("office_name")),
+                serialNumber, officeName, expectedVersion, expectedVersion);
+
+        return moved.stream().findFirst();
+    }
+
+    /**
+     * Moves every asset of an office to another office.
+     * Assets moved away or added concurrently are not moved twice nor counted: the result is exactly what this statement updated.
+     *
+     * @param fromOfficeId the office being closed
+     * @param fromOfficeName its name (copied in the result)
+     * @param intoOfficeId the target office
+     * @param intoOfficeName its name (copied in the result)
+     * @return the moved assets
+     */
+    public List<MovedAsset> moveAllAssets(long fromOfficeId, String fromOfficeName, long intoOfficeId, String intoOfficeName) {
+        return jdbcTemplate.query("""
+                UPDATE assets a
+                SET id_office = ?,
+                    version = a.version + 1,
+                    change_version = nextval('change_version_seq'),
+                    change_xid = pg_current_xact_id()::text::bigint,
+                    changed_at = clock_timestamp()
+                FROM asset_types t
+                WHERE a.id_office = ?
+                  AND t.id_asset_type = a.id_asset_type
+                RETURNING a.id_asset, a.serial_number, a.purchase_date, a.version, t.id_asset_type, t.asset_type_name
+                """,
+                (rs, rowNum) -> new MovedAsset(
+                        rs.getLong("id_asset"),
+                        rs.getString("serial_number"),
+                        toLocalDate(rs.getDate("purchase_date")),
+                        rs.getLong("version"),
+                        rs.getLong("id_asset_type"),
+                        rs.getString("asset_type_name"),
+                        fromOfficeId, fromOfficeName,
+                        intoOfficeId, intoOfficeName),
+                intoOfficeId, fromOfficeId);
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+}
@@ -1,21 +1,127 @@
 package com.spx.inventory_service.repositories;
 
 import com.spx.inventory_service.models.Asset;
+import com.spx.inventory_service.repositories.projections.AssetAgeBucketView;
+import com.spx.inventory_service.repositories.projections.InstalledAssetView;
+import com.spx.inventory_service.repositories.projections.SearchSuggestionView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface AssetRepository extends JpaRepository <Asset, Long> {
+public interface AssetRepository extends JpaRepository <Asset, Long>, JpaSpecificationExecutor<Asset> {
+
+    // Office and asset type are EAGER: fetch them in the same query instead of one select per distinct office/type
+
+    @Override
+    @EntityGraph(attributePaths = {"office", "assetType"})
+    List<Asset> findAll();
+
+    // Multi-criteria search (see AssetSpecifications)
+    @Override
+    @EntityGraph(attributePaths = {"office", "assetType"})
+    Page<Asset> findAll(Specification<Asset> specification, Pageable pageable);
 
     boolean existsBySerialNumberIgnoreCase(String serialNumber);
 
+    @EntityGraph(attributePaths = {"office", "assetType"})
     Optional<Asset> findBySerialNumberIgnoreCase(String serialNumber);
 
-    void deleteBySerialNumberIgnoreCase(String serialNumber);
+    // Batch lookup: serial numbers must be upper case (uq_assets_serial_upper)
+    @Query("select a from Asset a join fetch a.office join fetch a.assetType where upper(a.serialNumber) in :serialNumbers")
+    List<Asset> findAllBySerialNumberUpperIn(@Param("serialNumbers") Collection<String> serialNumbers);
+
+    @Query("select a.id from Asset a where upper(a.serialNumber) = upper(:serialNumber)")
+    Optional<Long> findIdBySerialNumberIgnoreCase(@Param("serialNumber") String serialNumber);
 
+    @EntityGraph(attributePaths = {"office", "assetType"})
     List<Asset> findByOffice_NameIgnoreCase(String officeName);
 
+    @EntityGraph(attributePaths = {"office", "assetType"})
     List<Asset> findByAssetType_AssetTypeNameIgnoreCase(String assetTypeName);
-}
 
+    // Assets where a license is installed after a given asset id: index range scan on the (license_id, asset_id) primary key,
+    // so a page costs the same whatever the number of seats of the license
+    @Query(value = """
+            SELECT a.id_asset AS id, a.serial_number AS serialNumber, a.purchase_date AS purchaseDate,
+                   o.name AS officeName, t.asset_type_name AS assetTypeName
+            FROM assets_licenses al
+            JOIN assets a ON a.id_asset = al.asset_id
+            JOIN offices o ON o.id_office = a.id_office
+            JOIN asset_types t ON t.id_asset_type = a.id_asset_type
+            WHERE al.license_id = :licenseId AND al.asset_id > :after
+            ORDER BY al.asset_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<InstalledAssetView> findInstalledAssetsPage(@Param("licenseId") long licenseId, @Param("after") long after, @Param("limit") int limit);
+
+    // ==========================================================
+    // CHANGE TRACKING (see ChangeLogRepository)
+    // ==========================================================
+
+    // Current state of changed assets
+    @EntityGraph(attributePaths = {"office", "assetType"})
+    List<Asset> findByIdIn(Collection<Long> ids);
+
+    // ==========================================================
+    // PURCHASE DATE
+    // ==========================================================
+
+    // Range scan on idx_assets_purchase_date (both bounds included)
+    @EntityGraph(attributePaths = {"office", "assetType"})
+    Page<Asset> findByPurchaseDateBetween(LocalDate from, LocalDate to, Pageable pageable);
+
+    // Age (whole months at :asOf) / :bucketMonths, capped at :lastBucket. Assets without a purchase date fall in the null bucket,
+    // assets purchased after :asOf in bucket 0. Office and asset type filters are optional (null = any).
+    @Query(value = """
+            SELECT h.bucket AS bucket, count(*) AS assets
+            FROM (
+                SELECT CASE WHEN a.purchase_date IS NULL THEN NULL
+                            ELSE GREATEST(LEAST(CAST(EXTRACT(YEAR FROM age(CAST(:asOf AS DATE), a.purchase_date)) * 12
+                                                     + EXTRACT(MONTH FROM age(CAST(:asOf AS DATE), a.purchase_date)) AS INTEGER) / :bucketMonths,
+                                                :lastBucket), 0)
+                       END AS bucket
+                FROM assets a
+                WHERE (CAST(:officeId AS BIGINT) IS NULL OR a.id_office = :officeId)
+                  AND (CAST(:assetTypeId AS BIGINT) IS NULL OR a.id_asset_type = :assetTypeId)
+            ) h
+            GROUP BY h.bucket
+            ORDER BY h.bucket NULLS LAST
+            """, nativeQuery = true)
+    List<AssetAgeBucketView> countByAgeBucket(@Param("asOf") LocalDate asOf, @Param("bucketMonths") int bucketMonths, @Param("lastBucket") int lastBucket,
+                                              @Param("officeId") Long officeId, @Param("assetTypeId") Long assetTypeId);
+
+    // ==========================================================
+    // AUTOCOMPLETE (see SearchService)
+    // ==========================================================
+
+    // Range scan on idx_assets_serial_prefix, stops after limit rows
+    @Query(value = """
+            SELECT a.serial_number AS value, similarity(lower(a.serial_number), :query) AS score
+            FROM assets a
+            WHERE lower(a.serial_number) COLLATE "C" LIKE :prefix
+            ORDER BY lower(a.serial_number) COLLATE "C"
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SearchSuggestionView> findSerialNumbersStartingWith(@Param("query") String query, @Param("prefix") String prefix, @Param("limit") int limit);
+
+    // Trigram match (pg_trgm.similarity_threshold) on idx_assets_serial_trgm, prefix matches excluded
+    @Query(value = """
+            SELECT a.serial_number AS value, similarity(lower(a.serial_number), :query) AS score
+            FROM assets a
+            WHERE lower(a.serial_number) % :query
+              AND lower(a.serial_number) COLLATE "C" NOT LIKE :prefix
+            ORDER BY score DESC, a.serial_number
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SearchSuggestionView> findSerialNumbersSimilarTo(@Param("query") String query, @Param("prefix") String prefix, @Param("limit") int limit);
+}
@@ -2,8 +2,12 @@ package com.spx.inventory_service.repositories;
 
 import com.spx.inventory_service.models.AssetType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +18,8 @@ public interface AssetTypeRepository extends JpaRepository<AssetType, Long> {
     boolean existsByAssetTypeNameIgnoreCase(String assetTypeName);
 
     void deleteByAssetTypeNameIgnoreCase(String assetTypeName);
+
+    // Batch resolution of asset type names: names must be upper case
+    @Query("select t from AssetType t where upper(t.assetTypeName) in :names")
+    List<AssetType> findAllByAssetTypeNameUpperIn(@Param("names") Collection<String> names);
 }
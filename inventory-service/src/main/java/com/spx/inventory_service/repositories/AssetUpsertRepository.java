@@ -0,0 +1,129 @@
+package com.spx.inventory_service.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Set-based asset synchronization (procurement feeds): INSERT ... ON CONFLICT DO UPDATE on upper(serial_number).
+ *
+ * Rows whose office, asset type and purchase date are already the ones sent are left out of the INSERT (anti-join),
+ * so they are neither locked nor written (no new tuple, no version, no change version): re-sending an unchanged feed writes nothing.
+ * A conflict skipped by ON CONFLICT DO UPDATE ... WHERE would still lock the row, this is why they are filtered out before.
+ * Changed rows get what Hibernate would have written: a new version (@Version / ETag) and a new change version (GET /changes).
+ */
+@Repository
+public class AssetUpsertRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /* One asset of the feed, with office and asset type already resolved */
+    public record AssetRow(String serialNumber, LocalDate purchaseDate, long officeId, long assetTypeId) {
+    }
+
+    /* One asset as it is in the table (before the upsert: previous values, after: new values, version 0 = created) */
+    public record StoredAsset(long id, String serialNumber, LocalDate purchaseDate, long officeId, long assetTypeId, long version) {
+    }
+
+    /**
+     * Locks the existing assets that the upsert is going to change and returns their current values.
+     * Assets that are already up to date are neither returned nor locked.
+     *
+     * @param rows the feed rows
+     * @return the assets that will be updated, as they are now
+     */
+    public List<StoredAsset> lockChangedAssets(List<AssetRow> rows) {
+        return query("""
+                SELECT a.id_asset, a.serial_number, a.purchase_date, a.id_office, a.id_asset_type, a.version
+                FROM assets a
+                JOIN unnest(?::varchar[], ?::date[], ?::bigint[], ?::bigint[]) AS i(serial_number, purchase_date, id_office, id_asset_type)
+                  ON upper(a.serial_number) = upper(i.serial_number)
+                WHERE (a.id_office, a.id_asset_type, a.purchase_date) IS DISTINCT FROM (i.id_office, i.id_asset_type, i.purchase_date)
+                ORDER BY a.id_asset
+                FOR UPDATE OF a
+                """, rows);
+    }
+
+    /**
+     * Inserts the new assets and updates the changed ones with one statement (up-to-date assets are filtered out first).
+     * The WHERE of DO UPDATE only matters if another request brought an asset up to date in between.
+     * The serial numbers must be distinct (case-insensitive): a statement cannot update the same row twice.
+     *
+     * @param rows the feed rows
+     * @return the created (version 0) and updated assets, unchanged assets are not returned
+     */
+    public List<StoredAsset> upsert(List<AssetRow> rows) {
+        return query("""
+                INSERT INTO assets AS a (serial_number, purchase_date, id_office, id_asset_type)
+                SELECT i.serial_number, i.purchase_date, i.id_office, i.id_asset_type
+                FROM unnest(?::varchar[], ?::date[], ?::bigint[], ?::bigint[]) AS i(serial_number, purchase_date, id_office, id_asset_type)
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM assets u
+                    WHERE upper(u.serial_number) = upper(i.serial_number)
+                      AND (u.id_office, u.id_asset_type, u.purchase_date) IS NOT DISTINCT FROM (i.id_office, i.id_asset_type, i.purchase_date))
+                ON CONFLICT ((upper(serial_number))) DO UPDATE
+                SET purchase_date = EXCLUDED.purchase_date,
+                    id_office = EXCLUDED.id_office,
+                    id_asset_type = EXCLUDED.id_asset_type,
+                    version = a.version + 1,
+                    change_version = nextval('change_version_seq'),
+                    change_xid = pg_current_xact_id()::text::bigint,
+                    changed_at = clock_timestamp()
+                WHERE (a.id_office, a.id_asset_type, a.purchase_date)
+                      IS DISTINCT FROM (EXCLUDED.id_office, EXCLUDED.id_asset_type, EXCLUDED.purchase_date)
+                RETURNING a.id_asset, a.serial_number, a.purchase_date, a.id_office, a.id_asset_type, a.version
+                """, rows);
+    }
+
+    // Both statements take the rows as four parallel arrays (one bind per column, whatever the batch size)
+    private List<StoredAsset> query(String sql, List<AssetRow> rows) {
+
+        return jdbcTemplate.query((Connection connection) -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            bindColumns(connection, statement, rows);
+            return statement;
+        }, STORED_ASSET_MAPPER);
+    }
+
+    private static void bindColumns(Connection connection, PreparedStatement statement, List<AssetRow> rows) throws SQLException {
+
+        int size = rows.size();
+        String[] serialNumbers = new String[size];
+        Date[] purchaseDates = new Date[size];
+        Long[] officeIds = new Long[size];
+        Long[] assetTypeIds = new Long[size];
+
+        for (int i = 0; i < size; i++) {
+            AssetRow row = rows.get(i);
+            serialNumbers[i] = row.serialNumber();
+            purchaseDates[i] = row.purchaseDate() == null ? null : Date.valueOf(row.purchaseDate());
+            officeIds[i] = row.officeId();
+            assetTypeIds[i] = row.assetTypeId();
+        }
+
+        statement.setArray(1, connection.createArrayOf("varchar", serialNumbers));
+        statement.setArray(2, connection.createArrayOf("date", purchaseDates));
+        statement.setArray(3, connection.createArrayOf("bigint", officeIds));
+        statement.setArray(4, connection.createArrayOf("bigint", assetTypeIds));
+    }
+
+    private static final RowMapper<StoredAsset> STORED_ASSET_MAPPER = (rs, rowNum) -> {
+        Date purchaseDate = rs.getDate("purchase_date");
+        return new StoredAsset(
+                rs.getLong("id_asset"),
+                rs.getString("serial_number"),
+                purchaseDate == null ? null : purchaseDate.toLocalDate(),
+                rs.getLong("id_office"),
+                rs.getLong("id_asset_type"),
+                rs.getLong("version"));
+    };
+}
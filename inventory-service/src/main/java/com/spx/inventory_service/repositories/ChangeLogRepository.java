@@ -0,0 +1,128 @@
+package com.spx.inventory_service.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Change log read by GET /changes.
+ *
+ * Offices, asset types, assets and software licenses carry change_version (shared sequence change_version_seq),
+ * change_xid (id of the writing transaction) and changed_at, set by the database on every insert and update
+ * (see the @Generated fields of the entities). Deletions are written to change_tombstones in the same transaction as the delete.
+ *
+ * The log is read in (change_xid, change_version) order, below the oldest transaction still running
+ * (xmin of the current snapshot): every transaction under it has ended, and a transaction that commits later
+ * has a greater id, so it always lands after the positions already returned. Versions alone cannot give that
+ * guarantee: they are taken when a row is written, not when the transaction commits.
+ */
+@Repository
+public class ChangeLogRepository {
+
+    /* Tracked entity types (value stored in change_tombstones.entity_type) */
+    public enum EntityType { OFFICE, ASSET_TYPE, ASSET, SOFTWARE_LICENSE }
+
+    /* Position in the change log: writing transaction, then version. START = before every change */
+    public record Position(long transaction, long version) {
+
+        public static final Position START = new Position(0, 0);
+    }
+
+    /* One change: the current state of a row (deleted = false) or a tombstone */
+    public record ChangeRow(long transaction, long version, EntityType entityType, long entityId, String entityKey, Instant changedAt,
+                            boolean deleted) {
+
+        public Position position() {
+            return new Position(transaction, version);
+        }
+    }
+
+    // Every branch is a keyset scan on its (change_xid, change_version) index, limited before the merge
+    private static final String CHANGES_AFTER = """
+            WITH horizon AS (
+                SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint AS oldest_running
+            )
+            SELECT c.change_xid, c.change_version, c.entity_type, c.entity_id, c.entity_key, c.changed_at, c.deleted
+            FROM (
+                (SELECT change_xid, change_version, 'OFFICE' AS entity_type, id_office AS entity_id, name AS entity_key, changed_at, false AS deleted
+                 FROM offices, horizon
+                 WHERE (change_xid, change_version) > (:sinceTransaction, :sinceVersion) AND change_xid < horizon.oldest_running
+                 ORDER BY change_xid, change_version LIMIT :limit)
+                UNION ALL
+                (SELECT change_xid, change_version, 'ASSET_TYPE', id_asset_type, asset_type_name, changed_at, false
+                 FROM asset_types, horizon
+                 WHERE (change_xid, change_version) > (:sinceTransaction, :sinceVersion) AND change_xid < horizon.oldest_running
+                 ORDER BY change_xid, change_version LIMIT :limit)
+                UNION ALL
+                (SELECT change_xid, change_version, 'ASSET', id_asset, serial_number, changed_at, false
+                 FROM assets, horizon
+                 WHERE (change_xid, change_version) > (:sinceTransaction, :sinceVersion) AND change_xid < horizon.oldest_running
+                 ORDER BY change_xid, change_version LIMIT :limit)
+                UNION ALL
+                (SELECT change_xid, change_version, 'SOFTWARE_LICENSE', id_software_license, software_name, changed_at, false
+                 FROM software_licenses, horizon
+                 WHERE (change_xid, change_version) > (:sinceTransaction, :sinceVersion) AND change_xid < horizon.oldest_running
+                 ORDER BY change_xid, change_version LIMIT :limit)
+                UNION ALL
+                (SELECT change_xid, change_version, entity_type, entity_id, entity_key, changed_at, true
+                 FROM change_tombstones, horizon
+                 WHERE (change_xid, change_version) > (:sinceTransaction, :sinceVersion) AND change_xid < horizon.oldest_running
+                 ORDER BY change_xid, change_version LIMIT :limit)
+            ) c
+            ORDER BY c.change_xid, c.change_version
+            LIMIT :limit
+            """;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    // ==========================================================
+    // WRITE
+    // ==========================================================
+
+    /**
+     * Records the deletion of a row (call it in the transaction that deletes the row).
+     *
+     * @param entityType the entity type
+     * @param entityId   the id of the deleted row
+     * @param entityKey  the domain key of the deleted row (name or serial number)
+     */
+    public void recordDeletion(EntityType entityType, long entityId, String entityKey) {
+        jdbcTemplate.update("INSERT INTO change_tombstones (entity_type, entity_id, entity_key) VALUES (:entityType, :entityId, :entityKey)",
+                new MapSqlParameterSource()
+                        .addValue("entityType", entityType.name())
+                        .addValue("entityId", entityId)
+                        .addValue("entityKey", entityKey));
+    }
+
+    // ==========================================================
+    // READ
+    // ==========================================================
+
+    /**
+     * Gets the changes after a position, in position order, written by transactions that have all ended.
+     *
+     * @param since the last position already seen by the client
+     * @param limit the max number of changes
+     * @return the changes
+     */
+    public List<ChangeRow> findChangesAfter(Position since, int limit) {
+        return jdbcTemplate.query(CHANGES_AFTER,
+                new MapSqlParameterSource()
+                        .addValue("sinceTransaction", since.transaction())
+                        .addValue("sinceVersion", since.version())
+                        .addValue("limit", limit),
+                (rs, rowNum) -> new ChangeRow(
+                        rs.getLong("change_xid"),
+                        rs.getLong("change_version"),
+                        EntityType.valueOf(rs.getString("entity_type")),
+                        rs.getLong("entity_id"),
+                        rs.getString("entity_key"),
+                        rs.getTimestamp("changed_at").toInstant(),
+                        rs.getBoolean("deleted")));
+    }
+}
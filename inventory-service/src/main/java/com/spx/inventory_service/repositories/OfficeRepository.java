@@ -1,9 +1,14 @@
 package com.spx.inventory_service.repositories;
 
 import com.spx.inventory_service.models.Office;
+import com.spx.inventory_service.repositories.projections.SearchSuggestionView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +19,29 @@ public interface OfficeRepository extends JpaRepository<Office, Long> {
     boolean existsByNameIgnoreCase(String name);
 
     void deleteByNameIgnoreCase(String name);
+
+    // Batch resolution of office names: names must be upper case
+    @Query("select o from Office o where upper(o.name) in :names")
+    List<Office> findAllByNameUpperIn(@Param("names") Collection<String> names);
+
+    // Autocomplete (see SearchService)
+
+    @Query(value = """
+            SELECT o.name AS value, similarity(lower(o.name), :query) AS score
+            FROM offices o
+            WHERE lower(o.name) COLLATE "C" LIKE :prefix
+            ORDER BY lower(o.name) COLLATE "C"
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SearchSuggestionView> findNamesStartingWith(@Param("query") String query, @Param("prefix") String prefix, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT o.name AS value, similarity(lower(o.name), :query) AS score
+            FROM offices o
+            WHERE lower(o.name) % :query
+              AND lower(o.name) COLLATE "C" NOT LIKE :prefix
+            ORDER BY score DESC, o.name
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SearchSuggestionView> findNamesSimilarTo(@Param("query") String query, @Param("prefix") String prefix, @Param("limit") int limit);
 }
@@ -0,0 +1,57 @@
+package com.spx.inventory_service.repositories;
+
+import com.spx.inventory_service.outbox.OutboxMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Transactional outbox event_outbox: events are inserted in the transaction of the change they describe
+ * and deleted by OutboxRelay once every sink has received them.
+ */
+@Repository
+public class OutboxRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void insert(String eventType, String aggregateKey, String payload) {
+        jdbcTemplate.update("INSERT INTO event_outbox (event_type, aggregate_key, payload) VALUES (?, ?, ?)",
+                eventType, aggregateKey, payload);
+    }
+
+    /**
+     * Locks the oldest pending events. Rows locked by another relay (thread or replica) are skipped,
+     * so parallel relays never deliver the same batch. Call it inside a transaction.
+     *
+     * @param limit the batch size
+     * @return the locked events, oldest first
+     */
+    public List<OutboxMessage> lockNextBatch(int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, event_type, aggregate_key, payload, created_at
+                FROM event_outbox
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """,
+                (rs, rowNum) -> new OutboxMessage(
+                        rs.getLong("id"),
+                        rs.getString("event_type"),
+                        rs.getString("aggregate_key"),
+                        rs.getString("payload"),
+                        rs.getTimestamp("created_at").toInstant()),
+                limit);
+    }
+
+    public void delete(List<OutboxMessage> batch) {
+        jdbcTemplate.update("DELETE FROM event_outbox WHERE id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", batch.stream().map(OutboxMessage::id).toArray())));
+    }
+
+    public long countPending() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM event_outbox", Long.class);
+    }
+}
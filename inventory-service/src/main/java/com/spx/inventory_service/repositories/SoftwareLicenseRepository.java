@@ -1,17 +1,33 @@
 package com.spx.inventory_service.repositories;
 
 import com.spx.inventory_service.models.SoftwareLicense;
-import org.springframework.data.jpa.repository.EntityGraph;
+import com.spx.inventory_service.repositories.projections.AssetLicenseSummaryView;
+import com.spx.inventory_service.repositories.projections.InstalledLicenseView;
+import com.spx.inventory_service.repositories.projections.LicenseComplianceView;
+import com.spx.inventory_service.repositories.projections.LicenseExpiryDayView;
+import com.spx.inventory_service.repositories.projections.SearchSuggestionView;
+import com.spx.inventory_service.repositories.projections.SoftwareLicenseSummaryView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SoftwareLicenseRepository extends JpaRepository<SoftwareLicense, Long> {
 
+    // License columns + installed seats. size() is rendered as a correlated count on assets_licenses
+    String SUMMARY_SELECT = """
+            select l.id as id, l.softwareName as softwareName, l.maxInstallations as maxInstallations,
+                   l.expirationDate as expirationDate, size(l.installedAssets) as installationCount
+            from SoftwareLicense l
+            """;
+
     // ==========================================================
     // BASIC READ OPERATIONS
     // ==========================================================
@@ -22,16 +38,166 @@ public interface SoftwareLicenseRepository extends JpaRepository<SoftwareLicense
 
     void deleteBySoftwareNameIgnoreCase(String softwareName);
 
+    @Query("select l.id from SoftwareLicense l where upper(l.softwareName) = upper(:softwareName)")
+    Optional<Long> findIdBySoftwareNameIgnoreCase(@Param("softwareName") String softwareName);
+
+    // ==========================================================
+    // SUMMARY VIEWS (no installed asset is loaded)
+    // ==========================================================
+
+    @Query(SUMMARY_SELECT + " order by l.softwareName")
+    List<SoftwareLicenseSummaryView> findAllSummaries();
+
+    // Number of assets a license is installed on, straight from the join table
+    @Query(value = "SELECT count(*) FROM assets_licenses WHERE license_id = :licenseId", nativeQuery = true)
+    long countInstallations(@Param("licenseId") long licenseId);
+
+    // ==========================================================
+    // CHANGE TRACKING (installations are not columns of the license row)
+    // ==========================================================
+
+    // New change version for a license whose installation count changed (license installed or uninstalled)
+    @Modifying
+    @Query(value = """
+            UPDATE software_licenses SET change_version = nextval('change_version_seq'), change_xid = CAST(CAST(pg_current_xact_id() AS text) AS bigint),
+                                         changed_at = clock_timestamp()
+            WHERE id_software_license = :licenseId
+            """, nativeQuery = true)
+    void touchChangeVersion(@Param("licenseId") long licenseId);
+
+    // New change version for every license installed on an asset (call it before the asset is deleted)
+    @Modifying
+    @Query(value = """
+            UPDATE software_licenses SET change_version = nextval('change_version_seq'), change_xid = CAST(CAST(pg_current_xact_id() AS text) AS bigint),
+                                         changed_at = clock_timestamp()
+            WHERE id_software_license IN (SELECT license_id FROM assets_licenses WHERE asset_id = :assetId)
+            """, nativeQuery = true)
+    void touchChangeVersionOfLicensesInstalledOn(@Param("assetId") long assetId);
+
+    // ==========================================================
+    // INSTALLATIONS (assets_licenses), keyset paginated
+    // ==========================================================
+
+    // Number of licenses installed on an asset (index on assets_licenses.asset_id)
+    @Query(value = "SELECT count(*) FROM assets_licenses WHERE asset_id = :assetId", nativeQuery = true)
+    long countLicensesInstalledOn(@Param("assetId") long assetId);
+
+    // Licenses installed on an asset after a given license id: index range scan on (asset_id, license_id)
+    @Query(value = """
+            SELECT l.id_software_license AS id, l.software_name AS softwareName,
+                   l.max_installations AS maxInstallations, l.expiration_date AS expirationDate
+            FROM assets_licenses al
+            JOIN software_licenses l ON l.id_software_license = al.license_id
+            WHERE al.asset_id = :assetId AND al.license_id > :after
+            ORDER BY al.license_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<InstalledLicenseView> findLicensesInstalledOnPage(@Param("assetId") long assetId, @Param("after") long after, @Param("limit") int limit);
+
     // ==========================================================
     // COMPLIANCE & AUDIT QUERIES
     // ==========================================================
 
     // Licenses installed on a specific asset (by serial number)
-    List<SoftwareLicense> findByInstalledAssets_SerialNumberIgnoreCase(
-            String serialNumber
-    );
-
-    // Licenses expiring before a given date
-    @EntityGraph(attributePaths = "installedAssets")
-    List<SoftwareLicense> findByExpirationDateBetween(LocalDate start, LocalDate end);
-}
\ No newline at end of file
+    @Query(SUMMARY_SELECT + " join l.installedAssets a where upper(a.serialNumber) = upper(:serialNumber) order by l.softwareName")
+    List<SoftwareLicenseSummaryView> findSummariesBySerialNumber(@Param("serialNumber") String serialNumber);
+
+    // Current state of changed licenses (change feed)
+    @Query(SUMMARY_SELECT + " where l.id in :ids")
+    List<SoftwareLicenseSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Licenses installed on a set of assets (batch lookup), one row per installation
+    @Query("""
+            select a.id as assetId, l.id as id, l.softwareName as softwareName, l.maxInstallations as maxInstallations,
+                   l.expirationDate as expirationDate, size(l.installedAssets) as installationCount
+            from SoftwareLicense l join l.installedAssets a
+            where a.id in :assetIds
+            order by a.id, l.softwareName
+            """)
+    List<AssetLicenseSummaryView> findSummariesInstalledOn(@Param("assetIds") Collection<Long> assetIds);
+
+    // ==========================================================
+    // COMPLIANCE REPORT (one row per license, aggregated by the database)
+    // ==========================================================
+
+    // All installations: one grouped scan of assets_licenses (primary key index)
+    @Query(value = """
+            SELECT l.id_software_license AS id, l.software_name AS softwareName,
+                   l.max_installations AS maxInstallations, l.expiration_date AS expirationDate,
+                   COALESCE(s.seats, 0) AS installedSeats,
+                   GREATEST(COALESCE(s.seats, 0) - COALESCE(l.max_installations, COALESCE(s.seats, 0)), 0) AS overAllocatedSeats,
+                   COALESCE(s.seats, 0) AS scopedSeats,
+                   CASE WHEN l.expiration_date < CURRENT_DATE THEN COALESCE(s.seats, 0) ELSE 0 END AS expiredInstallations
+            FROM software_licenses l
+            LEFT JOIN (
+                SELECT license_id, count(*) AS seats FROM assets_licenses GROUP BY license_id
+            ) s ON s.license_id = l.id_software_license
+            ORDER BY l.software_name
+            """, nativeQuery = true)
+    List<LicenseComplianceView> findComplianceRows();
+
+    // Installations on the assets of an office and/or asset type (null = any).
+    // Only licenses installed on at least one of those assets are returned.
+    @Query(value = """
+            SELECT l.id_software_license AS id, l.software_name AS softwareName,
+                   l.max_installations AS maxInstallations, l.expiration_date AS expirationDate,
+                   t.seats AS installedSeats,
+                   GREATEST(t.seats - COALESCE(l.max_installations, t.seats), 0) AS overAllocatedSeats,
+                   s.seats AS scopedSeats,
+                   CASE WHEN l.expiration_date < CURRENT_DATE THEN s.seats ELSE 0 END AS expiredInstallations
+            FROM (
+                SELECT al.license_id, count(*) AS seats
+                FROM assets a
+                JOIN assets_licenses al ON al.asset_id = a.id_asset
+                WHERE (CAST(:officeId AS BIGINT) IS NULL OR a.id_office = :officeId)
+                  AND (CAST(:assetTypeId AS BIGINT) IS NULL OR a.id_asset_type = :assetTypeId)
+                GROUP BY al.license_id
+            ) s
+            JOIN software_licenses l ON l.id_software_license = s.license_id
+            CROSS JOIN LATERAL (
+                SELECT count(*) AS seats FROM assets_licenses al2 WHERE al2.license_id = l.id_software_license
+            ) t
+            ORDER BY l.software_name
+            """, nativeQuery = true)
+    List<LicenseComplianceView> findComplianceRowsByScope(@Param("officeId") Long officeId, @Param("assetTypeId") Long assetTypeId);
+
+    // Licenses expiring between two dates (index on expiration_date)
+    @Query(SUMMARY_SELECT + " where l.expirationDate between :start and :end order by l.expirationDate, l.softwareName")
+    List<SoftwareLicenseSummaryView> findSummariesByExpirationDateBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Licenses and installed seats expiring each day between two dates (expiry snapshot)
+    @Query(value = """
+            SELECT x.expiration_date AS expirationDate, count(*) AS licenses, CAST(sum(x.seats) AS BIGINT) AS seats
+            FROM (
+                SELECT l.expiration_date,
+                       (SELECT count(*) FROM assets_licenses al WHERE al.license_id = l.id_software_license) AS seats
+                FROM software_licenses l
+                WHERE l.expiration_date BETWEEN :start AND :end
+            ) x
+            GROUP BY x.expiration_date
+            """, nativeQuery = true)
+    List<LicenseExpiryDayView> countExpiringByDay(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // ==========================================================
+    // AUTOCOMPLETE (see SearchService)
+    // ==========================================================
+
+    @Query(value = """
+            SELECT l.software_name AS value, similarity(lower(l.software_name), :query) AS score
+            FROM software_licenses l
+            WHERE lower(l.software_name) COLLATE "C" LIKE :prefix
+            ORDER BY lower(l.software_name) COLLATE "C"
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SearchSuggestionView> findSoftwareNamesStartingWith(@Param("query") String query, @Param("prefix") String prefix, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT l.software_name AS value, similarity(lower(l.software_name), :query) AS score
+            FROM software_licenses l
+            WHERE lower(l.software_name) % :query
+              AND lower(l.software_name) COLLATE "C" NOT LIKE :prefix
+            ORDER BY score DESC, l.software_name
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SearchSuggestionView> findSoftwareNamesSimilarTo(@Param("query") String query, @Param("prefix") String prefix, @Param("limit") int limit);
+}
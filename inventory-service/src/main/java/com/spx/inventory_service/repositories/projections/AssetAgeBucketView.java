@@ -0,0 +1,11 @@
+package com.spx.inventory_service.repositories.projections;
+
+/**
+ * Number of assets in an age bucket (null bucket = assets without a purchase date).
+ */
+public interface AssetAgeBucketView {
+
+    Integer getBucket();
+
+    Long getAssets();
+}
@@ -0,0 +1,9 @@
+package com.spx.inventory_service.repositories.projections;
+
+/**
+ * Summary of a license installed on an asset, with the asset id (licenses of many assets in one query).
+ */
+public interface AssetLicenseSummaryView extends SoftwareLicenseSummaryView {
+
+    Long getAssetId();
+}
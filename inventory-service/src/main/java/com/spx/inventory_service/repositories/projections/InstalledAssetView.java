@@ -0,0 +1,19 @@
+package com.spx.inventory_service.repositories.projections;
+
+import java.time.LocalDate;
+
+/**
+ * One row of a license installations page: the asset with its office and asset type names.
+ */
+public interface InstalledAssetView {
+
+    Long getId();
+
+    String getSerialNumber();
+
+    LocalDate getPurchaseDate();
+
+    String getOfficeName();
+
+    String getAssetTypeName();
+}
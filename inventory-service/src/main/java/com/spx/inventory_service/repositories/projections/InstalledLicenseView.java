@@ -0,0 +1,17 @@
+package com.spx.inventory_service.repositories.projections;
+
+import java.time.LocalDate;
+
+/**
+ * One row of an asset licenses page (license columns only, no installation count).
+ */
+public interface InstalledLicenseView {
+
+    Long getId();
+
+    String getSoftwareName();
+
+    Integer getMaxInstallations();
+
+    LocalDate getExpirationDate();
+}
@@ -0,0 +1,29 @@
+package com.spx.inventory_service.repositories.projections;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the license compliance report, computed by the database.
+ */
+public interface LicenseComplianceView {
+
+    Long getId();
+
+    String getSoftwareName();
+
+    Integer getMaxInstallations();
+
+    LocalDate getExpirationDate();
+
+    // Installations of the license (all offices and asset types)
+    Long getInstalledSeats();
+
+    // Installations above maxInstallations (0 when compliant or unlimited)
+    Long getOverAllocatedSeats();
+
+    // Installations on the assets matching the report filters
+    Long getScopedSeats();
+
+    // Scoped installations of an expired license
+    Long getExpiredInstallations();
+}
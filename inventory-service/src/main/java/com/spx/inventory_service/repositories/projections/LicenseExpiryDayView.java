@@ -0,0 +1,15 @@
+package com.spx.inventory_service.repositories.projections;
+
+import java.time.LocalDate;
+
+/**
+ * Licenses expiring on a given day and the seats (installations) they cover.
+ */
+public interface LicenseExpiryDayView {
+
+    LocalDate getExpirationDate();
+
+    Long getLicenses();
+
+    Long getSeats();
+}
@@ -0,0 +1,11 @@
+package com.spx.inventory_service.repositories.projections;
+
+/**
+ * One autocomplete match: the matched key and its trigram similarity with the query (0..1).
+ */
+public interface SearchSuggestionView {
+
+    String getValue();
+
+    Double getScore();
+}
@@ -0,0 +1,21 @@
+package com.spx.inventory_service.repositories.projections;
+
+import java.time.LocalDate;
+
+/**
+ * Interface-based projection of a software license with its installed seats.
+ * The installation count is computed by the query (aggregate over assets_licenses),
+ * so no installed asset is ever loaded.
+ */
+public interface SoftwareLicenseSummaryView {
+
+    Long getId();
+
+    String getSoftwareName();
+
+    Integer getMaxInstallations();
+
+    LocalDate getExpirationDate();
+
+    Long getInstallationCount();
+}
@@ -0,0 +1,79 @@
+package com.spx.inventory_service.repositories.specifications;
+
+import com.spx.inventory_service.dto.AssetSearchRequestDTO;
+import com.spx.inventory_service.models.Asset;
+import com.spx.inventory_service.models.SoftwareLicense;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Composable predicates for the asset search. Every predicate becomes a SQL condition
+ * (keys are compared already normalized, so the unique indexes on the names are used).
+ */
+public final class AssetSpecifications {
+
+    // Constructor
+    private AssetSpecifications() {
+    }
+
+    /* All the filters set in the (normalized) search request, combined with AND */
+    public static Specification<Asset> matching(AssetSearchRequestDTO search) {
+
+        List<Specification<Asset>> specifications = new ArrayList<>();
+
+        if (search.getOfficeName() != null) {
+            specifications.add(inOffice(search.getOfficeName()));
+        }
+        if (search.getAssetTypeName() != null) {
+            specifications.add(ofAssetType(search.getAssetTypeName()));
+        }
+        if (search.getPurchasedFrom() != null) {
+            specifications.add(purchasedFrom(search.getPurchasedFrom()));
+        }
+        if (search.getPurchasedTo() != null) {
+            specifications.add(purchasedTo(search.getPurchasedTo()));
+        }
+        if (search.getSoftwareName() != null) {
+            specifications.add(withLicense(search.getSoftwareName()));
+        }
+
+        return Specification.allOf(specifications);
+    }
+
+    public static Specification<Asset> inOffice(String officeName) {
+        return (root, query, cb) -> cb.equal(root.get("office").get("name"), officeName);
+    }
+
+    public static Specification<Asset> ofAssetType(String assetTypeName) {
+        return (root, query, cb) -> cb.equal(root.get("assetType").get("assetTypeName"), assetTypeName);
+    }
+
+    public static Specification<Asset> purchasedFrom(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("purchaseDate"), from);
+    }
+
+    public static Specification<Asset> purchasedTo(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("purchaseDate"), to);
+    }
+
+    /* EXISTS on assets_licenses: no join on the main query, so no duplicated assets */
+    public static Specification<Asset> withLicense(String softwareName) {
+        return (root, query, cb) -> {
+            Subquery<Long> installed = query.subquery(Long.class);
+            Root<SoftwareLicense> license = installed.from(SoftwareLicense.class);
+            Join<SoftwareLicense, Asset> installedAsset = license.join("installedAssets");
+
+            installed.select(installedAsset.get("id"))
+                    .where(cb.equal(license.get("softwareName"), softwareName),
+                            cb.equal(installedAsset.get("id"), root.get("id")));
+
+            return cb.exists(installed);
+        };
+    }
+}
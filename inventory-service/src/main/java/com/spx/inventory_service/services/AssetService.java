@@ -1,24 +1,57 @@
 package com.spx.inventory_service.services;
 
+import com.spx.inventory_service.datasource.Workload;
+import com.spx.inventory_service.datasource.WorkloadType;
 import com.spx.inventory_service.dto.*;
+import com.spx.inventory_service.events.InventoryEvent;
 import com.spx.inventory_service.mappers.AssetMapper;
+import com.spx.inventory_service.mappers.SoftwareLicenseMapper;
 import com.spx.inventory_service.models.Asset;
 import com.spx.inventory_service.models.AssetType;
 import com.spx.inventory_service.models.Office;
+import com.spx.inventory_service.repositories.AssetCounterRepository;
+import com.spx.inventory_service.repositories.AssetMoveRepository;
+import com.spx.inventory_service.repositories.AssetMoveRepository.MovedAsset;
 import com.spx.inventory_service.repositories.AssetRepository;
 import com.spx.inventory_service.repositories.AssetTypeRepository;
+import com.spx.inventory_service.repositories.AssetUpsertRepository;
+import com.spx.inventory_service.repositories.AssetUpsertRepository.AssetRow;
+import com.spx.inventory_service.repositories.AssetUpsertRepository.StoredAsset;
+import com.spx.inventory_service.repositories.ChangeLogRepository;
 import com.spx.inventory_service.repositories.OfficeRepository;
+import com.spx.inventory_service.repositories.SoftwareLicenseRepository;
+import com.spx.inventory_service.repositories.projections.AssetLicenseSummaryView;
+import com.spx.inventory_service.repositories.specifications.AssetSpecifications;
+import com.spx.inventory_service.utils.normalizer.AssetSearchRequestNormalizer;
 import com.spx.inventory_service.utils.normalizer.AssetRequestNormalizer;
 import com.spx.inventory_service.utils.TextNormalizer;
 import com.spx.inventory_service.utils.validator.CreateValidator;
 import com.spx.inventory_service.utils.validator.ReadValidator;
+import com.spx.inventory_service.utils.validator.UpdateValidator;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -36,12 +69,45 @@ public class AssetService {
     @Autowired
     private ReadValidator readValidator;
 
+    @Autowired
+    private UpdateValidator updateValidator;
+
     @Autowired
     private CreateValidator createValidator;
 
+    @Autowired
+    private SoftwareLicenseRepository softwareLicenseRepository;
+
+    @Autowired
+    private AssetCounterRepository assetCounterRepository;
+
+    @Autowired
+    private AssetMoveRepository assetMoveRepository;
+
+    @Autowired
+    private AssetUpsertRepository assetUpsertRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private AssetMapper assetMapper;
 
+    @Autowired
+    private SoftwareLicenseMapper softwareLicenseMapper;
+
+    // Sort properties accepted by the search (anything else is a 400, not a PropertyReferenceException)
+    private static final Set<String> SEARCH_SORT_PROPERTIES = Set.of("id", "serialNumber", "purchaseDate");
+
+    // Calendar quarter, e.g. 2022-Q3
+    private static final Pattern QUARTER = Pattern.compile("(\\d{4})-?Q([1-4])", Pattern.CASE_INSENSITIVE);
+
+    // Assets per upsert statement (four array binds, whatever the size)
+    private static final int UPSERT_CHUNK_SIZE = 1000;
+
 
     // ==========================================================
     // CRUD METHODS - From Repository Layer
@@ -57,6 +123,7 @@ public class AssetService {
      *
      * @return the all assets
      */
+    @Workload(WorkloadType.REPORTING)
     public List<AssetResponseDTO> getAllAssets() {
 
         return assetRepository.findAll().stream().map(assetMapper::toDTO).toList();
@@ -68,6 +135,7 @@ public class AssetService {
      * @param officeName the office name
      * @return the assets by office
      */
+    @Workload(WorkloadType.REPORTING)
     public List<AssetResponseDTO> getAssetsByOffice(String officeName) {
 
         String normalizedOffice = TextNormalizer.normalizeKey(officeName);
@@ -82,6 +150,7 @@ public class AssetService {
      * @param assetTypeName the asset type name
      * @return the assets by asset type
      */
+    @Workload(WorkloadType.REPORTING)
     public List<AssetResponseDTO> getAssetsByAssetType(String assetTypeName) {
 
         // Step 1: Normalized the incoming asset serial number
@@ -93,6 +162,70 @@ public class AssetService {
                 .toList();
     }
 
+    /**
+     * Searches assets by any combination of office, asset type, purchase date range and installed license.
+     *
+     * @param searchRequestDTO the filters (null fields are ignored)
+     * @param pageable         the page request
+     * @return a page of matching assets
+     */
+    @Workload(WorkloadType.REPORTING)
+    public Page<AssetResponseDTO> searchAssets(AssetSearchRequestDTO searchRequestDTO, Pageable pageable) {
+
+        // Step 1: Normalize the filters
+        AssetSearchRequestDTO normalizedSearch = AssetSearchRequestNormalizer.normalize(searchRequestDTO);
+
+        // Step 2: Check the purchase date range
+        if (normalizedSearch.getPurchasedFrom() != null && normalizedSearch.getPurchasedTo() != null
+                && normalizedSearch.getPurchasedFrom().isAfter(normalizedSearch.getPurchasedTo())) {
+            throw new IllegalArgumentException("purchasedFrom must not be after purchasedTo");
+        }
+
+        // Step 3: Check the sort properties
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SEARCH_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("sort must be one of " + SEARCH_SORT_PROPERTIES.stream().sorted().toList());       // Throw 400 HTTP Status code
+            }
+        }
+
+        // Step 4: Every filter is a SQL predicate, office and asset type are fetched in the same query
+        return assetRepository.findAll(AssetSpecifications.matching(normalizedSearch), pageable)
+                .map(assetMapper::toDTO);
+    }
+
+    /**
+     * Gets the assets purchased in a date range (both bounds included) or in a calendar quarter.
+     *
+     * @param from     the first purchase date (ignored when quarter is set)
+     * @param to       the last purchase date (ignored when quarter is set)
+     * @param quarter  the calendar quarter, e.g. 2022-Q3 (optional)
+     * @param pageable the page request
+     * @return a page of assets
+     */
+    @Workload(WorkloadType.REPORTING)
+    public Page<AssetResponseDTO> getAssetsByPurchaseDate(LocalDate from, LocalDate to, String quarter, Pageable pageable) {
+
+        // Step 1: Resolve the range
+        if (quarter != null) {
+            Matcher matcher = QUARTER.matcher(quarter.trim());
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("quarter must look like 2022-Q3");       // Throw 400 HTTP Status code
+            }
+            from = LocalDate.of(Integer.parseInt(matcher.group(1)), (Integer.parseInt(matcher.group(2)) - 1) * 3 + 1, 1);
+            to = from.plusMonths(3).minusDays(1);
+        }
+
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Either quarter or both from and to are required");     // Throw 400 HTTP Status code
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");                           // Throw 400 HTTP Status code
+        }
+
+        // Step 2: Range scan on the purchase date index
+        return assetRepository.findByPurchaseDateBetween(from, to, pageable).map(assetMapper::toDTO);
+    }
+
     /**
      * Gets asset by serial number.
      *
@@ -126,7 +259,145 @@ public class AssetService {
         });
 
         // Step 3: Mapper converts the entity into a DTO for response.
-        return assetMapper.toDetailedDTO(asset);
+        AssetDetailedResponseDTO assetDetails = assetMapper.toDetailedDTO(asset);
+
+        // Step 4: Installed licenses as summaries (one aggregate query, installed assets of each license are not loaded)
+        assetDetails.setSoftwareLicenses(softwareLicenseRepository.findSummariesBySerialNumber(normalizedSerialNumber)
+                .stream()
+                .map(softwareLicenseMapper::toSummaryDTO)
+                .toList());
+
+        return assetDetails;
+    }
+
+    /**
+     * Looks up many assets by serial number with one query.
+     *
+     * @param lookupRequestDTO the serial numbers
+     * @return the assets found and the missing serial numbers
+     */
+    public AssetLookupResponseDTO<AssetResponseDTO> lookupAssets(AssetLookupRequestDTO lookupRequestDTO) {
+
+        // Step 1: Normalize the serial numbers (duplicates removed, request order kept)
+        Set<String> serialNumbers = normalizeSerialNumbers(lookupRequestDTO);
+
+        // Step 2: One IN query, office and asset type fetch-joined
+        Map<String, Asset> assets = findAssetsBySerialNumbers(serialNumbers);
+
+        // Step 3: Split found and missing
+        return toLookupResponse(serialNumbers, assets, assetMapper::toDTO);
+    }
+
+    /**
+     * Looks up many assets by serial number, with their installed licenses (two queries in total).
+     *
+     * @param lookupRequestDTO the serial numbers
+     * @return the detailed assets found and the missing serial numbers
+     */
+    public AssetLookupResponseDTO<AssetDetailedResponseDTO> lookupAssetDetails(AssetLookupRequestDTO lookupRequestDTO) {
+
+        // Step 1: Normalize the serial numbers (duplicates removed, request order kept)
+        Set<String> serialNumbers = normalizeSerialNumbers(lookupRequestDTO);
+
+        // Step 2: One IN query, office and asset type fetch-joined
+        Map<String, Asset> assets = findAssetsBySerialNumbers(serialNumbers);
+
+        // Step 3: Installed licenses of every found asset, as summaries, in one query
+        Map<Long, List<SoftwareLicenseSummaryDTO>> licensesByAsset = assets.isEmpty() ? Map.of() :
+                softwareLicenseRepository.findSummariesInstalledOn(assets.values().stream().map(Asset::getId).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(AssetLicenseSummaryView::getAssetId,
+                                Collectors.mapping(softwareLicenseMapper::toSummaryDTO, Collectors.toList())));
+
+        // Step 4: Split found and missing
+        return toLookupResponse(serialNumbers, assets, asset -> {
+            AssetDetailedResponseDTO assetDetails = assetMapper.toDetailedDTO(asset);
+            assetDetails.setSoftwareLicenses(licensesByAsset.getOrDefault(asset.getId(), List.of()));
+            return assetDetails;
+        });
+    }
+
+    private Set<String> normalizeSerialNumbers(AssetLookupRequestDTO lookupRequestDTO) {
+
+        Set<String> serialNumbers = new LinkedHashSet<>();
+
+        for (String serialNumber : lookupRequestDTO.getSerialNumbers()) {
+            serialNumbers.add(TextNormalizer.normalizeKey(serialNumber));
+        }
+        return serialNumbers;
+    }
+
+    // Keyed by normalized serial number (stored serial numbers are not always lower case)
+    private Map<String, Asset> findAssetsBySerialNumbers(Set<String> serialNumbers) {
+
+        List<String> upperSerialNumbers = serialNumbers.stream().map(serialNumber -> serialNumber.toUpperCase(Locale.ROOT)).toList();
+
+        Map<String, Asset> assets = new LinkedHashMap<>();
+
+        for (Asset asset : assetRepository.findAllBySerialNumberUpperIn(upperSerialNumbers)) {
+            assets.put(TextNormalizer.normalizeKey(asset.getSerialNumber()), asset);
+        }
+        return assets;
+    }
+
+    private <T> AssetLookupResponseDTO<T> toLookupResponse(Set<String> serialNumbers, Map<String, Asset> assets, Function<Asset, T> mapper) {
+
+        List<T> found = new ArrayList<>(assets.size());
+        List<String> missing = new ArrayList<>();
+
+        for (String serialNumber : serialNumbers) {
+            Asset asset = assets.get(serialNumber);
+            if (asset == null) {
+                missing.add(serialNumber);
+            } else {
+                found.add(mapper.apply(asset));
+            }
+        }
+
+        AssetLookupResponseDTO<T> response = new AssetLookupResponseDTO<>();
+        response.setFound(found);
+        response.setMissing(missing);
+        return response;
+    }
+
+    /**
+     * Gets the software licenses installed on an asset (keyset pagination).
+     *
+     * @param serialNumber the serial number
+     * @param after        the last license id of the previous page (0 = first page)
+     * @param limit        the page size
+     * @return a page of installed licenses
+     */
+    public KeysetPageDTO<SoftwareLicenseSummaryDTO> getLicensesBySerialNumber(String serialNumber, long after, int limit) {
+
+        // Step 1: Validate the requested page size
+        readValidator.checkIfPageLimitIsValid(limit);
+
+        // Step 2: Check if the asset is found (only its id is read)
+        Long assetId = readValidator.checkIfEntityIsFound("Asset", serialNumber, assetRepository::findIdBySerialNumberIgnoreCase);
+
+        // Step 3: Read one row more than requested, it only tells if there is a next page
+        List<SoftwareLicenseSummaryDTO> rows = softwareLicenseRepository.findLicensesInstalledOnPage(assetId, after, limit + 1)
+                .stream()
+                .map(softwareLicenseMapper::toSummaryDTO)
+                .toList();
+
+        return KeysetPageDTO.of(rows, limit, SoftwareLicenseSummaryDTO::getId);
+    }
+
+    /**
+     * Counts the software licenses installed on an asset.
+     *
+     * @param serialNumber the serial number
+     * @return the number of installed licenses
+     */
+    public long countLicensesBySerialNumber(String serialNumber) {
+
+        // Step 1: Check if the asset is found (only its id is read)
+        Long assetId = readValidator.checkIfEntityIsFound("Asset", serialNumber, assetRepository::findIdBySerialNumberIgnoreCase);
+
+        // Step 2: Count the rows of the join table
+        return softwareLicenseRepository.countLicensesInstalledOn(assetId);
     }
 
     // ==========================================================
@@ -162,8 +433,10 @@ public class AssetService {
         newAsset.setOffice(office);
         newAsset.setAssetType(assetType);
 
-        // Step 6. Save the entity into the database
+        // Step 6. Save the entity into the database and count it in the (office, asset type) counters
         Asset savedAsset = assetRepository.save(newAsset);
+        assetCounterRepository.apply(AssetCounterRepository.Delta.added(savedAsset));
+        eventPublisher.publishEvent(InventoryEvent.assetCreated(savedAsset));
 
         log.info("Asset created succeffully. Serial number: {}", savedAsset.getSerialNumber());
 
@@ -172,6 +445,118 @@ public class AssetService {
     }
 
 
+    // ==========================================================
+    // UPSERT OPERATION (synchronization feeds)
+    // ==========================================================
+
+    /**
+     * Creates or updates a batch of assets keyed by serial number (case-insensitive), e.g. a procurement feed sent again every day.
+     *
+     * Office and asset type names are resolved with one query each for the whole batch. Then every chunk of
+     * UPSERT_CHUNK_SIZE assets costs two statements: lock the existing assets that change, INSERT ... ON CONFLICT DO UPDATE.
+     * Assets already up to date are not written at all (no version, no change version, no counter, no event).
+     *
+     * @param upsertRequestDTO the assets
+     * @return the number of created, updated and unchanged assets
+     */
+    @Transactional
+    public AssetUpsertResultDTO upsertAssets(AssetUpsertRequestDTO upsertRequestDTO) {
+
+        // Step 1: Normalize, the last occurrence of a serial number wins (one statement cannot update the same row twice)
+        Map<String, AssetRequestDTO> requests = new LinkedHashMap<>();
+
+        for (AssetRequestDTO assetRequestDTO : upsertRequestDTO.getAssets()) {
+            AssetRequestDTO normalizedDTO = AssetRequestNormalizer.normalize(assetRequestDTO);
+            requests.put(normalizedDTO.getSerialNumber().toUpperCase(Locale.ROOT), normalizedDTO);
+        }
+
+        // Step 2: Resolve every office and asset type name with one query each (404 if one of them does not exist)
+        Map<String, Office> offices = resolveNames("Office", requests.values(), AssetRequestDTO::getOfficeName,
+                officeRepository::findAllByNameUpperIn, Office::getName);
+        Map<String, AssetType> assetTypes = resolveNames("Asset type", requests.values(), AssetRequestDTO::getAssetTypeName,
+                assetTypeRepository::findAllByAssetTypeNameUpperIn, AssetType::getAssetTypeName);
+
+        Map<Long, String> officeNames = offices.values().stream().collect(Collectors.toMap(Office::getId, Office::getName));
+        Map<Long, String> assetTypeNames = assetTypes.values().stream().collect(Collectors.toMap(AssetType::getId, AssetType::getAssetTypeName));
+
+        List<AssetRow> rows = requests.values().stream()
+                .map(dto -> new AssetRow(dto.getSerialNumber(), dto.getPurchaseDate(),
+                        offices.get(dto.getOfficeName().toUpperCase(Locale.ROOT)).getId(),
+                        assetTypes.get(dto.getAssetTypeName().toUpperCase(Locale.ROOT)).getId()))
+                .toList();
+
+        // Step 3: Upsert chunk by chunk, keeping the previous values of the updated assets for the counters
+        List<AssetCounterRepository.Delta> deltas = new ArrayList<>();
+        int created = 0;
+        int updated = 0;
+
+        for (int from = 0; from < rows.size(); from += UPSERT_CHUNK_SIZE) {
+            List<AssetRow> chunk = rows.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, rows.size()));
+
+            Map<Long, StoredAsset> previousAssets = assetUpsertRepository.lockChangedAssets(chunk).stream()
+                    .collect(Collectors.toMap(StoredAsset::id, Function.identity()));
+
+            for (StoredAsset stored : assetUpsertRepository.upsert(chunk)) {
+                String officeName = officeNames.get(stored.officeId());
+                String assetTypeName = assetTypeNames.get(stored.assetTypeId());
+
+                // Version 0: the row has just been inserted
+                if (stored.version() == 0) {
+                    created++;
+                    deltas.add(AssetCounterRepository.Delta.of(stored.officeId(), stored.assetTypeId(), stored.purchaseDate(), 1));
+                    eventPublisher.publishEvent(InventoryEvent.assetCreated(stored.serialNumber(), officeName, assetTypeName));
+                    continue;
+                }
+
+                // Updated but not locked before: another request inserted or changed it in between, its previous values are unknown
+                StoredAsset previous = previousAssets.get(stored.id());
+
+                if (previous == null) {
+                    throw new IllegalStateException("Asset '" + stored.serialNumber() + "' has been modified by another request during the upsert, retry");   // Throw 409 HTTP Status code
+                }
+
+                updated++;
+                deltas.add(AssetCounterRepository.Delta.of(previous.officeId(), previous.assetTypeId(), previous.purchaseDate(), -1));
+                deltas.add(AssetCounterRepository.Delta.of(stored.officeId(), stored.assetTypeId(), stored.purchaseDate(), 1));
+                eventPublisher.publishEvent(InventoryEvent.assetUpdated(stored.serialNumber(), stored.serialNumber(), officeName, assetTypeName));
+            }
+        }
+
+        // Step 4: Update the counters with one statement (nothing to do if every asset was unchanged)
+        assetCounterRepository.apply(deltas.toArray(AssetCounterRepository.Delta[]::new));
+
+        log.info("Assets upserted. Received: {}, Created: {}, Updated: {}, Unchanged: {}", upsertRequestDTO.getAssets().size(),
+                created, updated, rows.size() - created - updated);
+
+        // Step 5: Report
+        AssetUpsertResultDTO result = new AssetUpsertResultDTO();
+        result.setReceived(upsertRequestDTO.getAssets().size());
+        result.setCreated(created);
+        result.setUpdated(updated);
+        result.setUnchanged(rows.size() - created - updated);
+        return result;
+    }
+
+    // One query for all the distinct names of a batch, keyed by upper case name
+    private <T> Map<String, T> resolveNames(String entityName, Collection<AssetRequestDTO> requests, Function<AssetRequestDTO, String> nameOf,
+                                            Function<Collection<String>, List<T>> finder, Function<T, String> entityNameOf) {
+
+        Set<String> names = requests.stream().map(nameOf).collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<String> upperNames = names.stream().map(name -> name.toUpperCase(Locale.ROOT)).collect(Collectors.toSet());
+
+        Map<String, T> resolved = finder.apply(upperNames).stream()
+                .collect(Collectors.toMap(entity -> entityNameOf.apply(entity).toUpperCase(Locale.ROOT), Function.identity()));
+
+        List<String> missing = names.stream().filter(name -> !resolved.containsKey(name.toUpperCase(Locale.ROOT))).toList();
+
+        if (!missing.isEmpty()) {
+            throw new EntityNotFoundException(entityName + " not found: " + String.join(", ", missing));   // Throw 404 HTTP Status code
+        }
+
+        return resolved;
+    }
+
+
     // ==========================================================
     // UPDATE OPERATIONS
     // ==========================================================
@@ -181,10 +566,11 @@ public class AssetService {
      *
      * @param currentSerialNumber the current serial number
      * @param newAssetDTO         the new asset dto
+     * @param expectedVersion     the version from the If-Match header (null = no check)
      * @return the asset response dto
      */
     @Transactional
-    public AssetResponseDTO updateAssetBySerialNumber(String currentSerialNumber, AssetRequestDTO newAssetDTO) {
+    public AssetResponseDTO updateAssetBySerialNumber(String currentSerialNumber, AssetRequestDTO newAssetDTO, Long expectedVersion) {
 
         // Step 1: Normalize the current serial number
         String normalizedCurrentSerialNumber = TextNormalizer.normalizeKey(currentSerialNumber);
@@ -198,35 +584,40 @@ public class AssetService {
                 return new EntityNotFoundException("Asset not found");
         });
 
+        // Step 4: Reject the update if the asset changed since the client read it (If-Match)
+        updateValidator.checkIfVersionMatches("Asset", normalizedCurrentSerialNumber, expectedVersion, existingAsset.getVersion());
 
-        // Step 4: Extract the new asset serial number
+        // Step 5: Extract the new asset serial number
         String newSerialNumber = normalizedDTO.getSerialNumber();
 
-        // Step 5: If the newSerialNumber IS NOT EQUAL to the currentSerialNumber AND if the newSerialNumber already exists into the database...
+        // Step 6: If the newSerialNumber IS NOT EQUAL to the currentSerialNumber AND if the newSerialNumber already exists into the database...
         if (!normalizedCurrentSerialNumber.equalsIgnoreCase(newSerialNumber) && assetRepository.existsBySerialNumberIgnoreCase(newSerialNumber)) {
             throw new IllegalArgumentException( "Asset with serial number already exists: " + newSerialNumber);
         }
 
-        // Step 6: Check if there is no office
+        // Step 7: Check if there is no office
         Office office = officeRepository.findByNameIgnoreCase(normalizedDTO.getOfficeName()).orElseThrow(() ->
                 new EntityNotFoundException("Office not found"));
 
-        // Step 7: Check if there is no asset type
+        // Step 8: Check if there is no asset type
         AssetType assetType = assetTypeRepository.findByAssetTypeNameIgnoreCase(normalizedDTO.getAssetTypeName()).orElseThrow(() ->
                 new EntityNotFoundException("Asset type not found"));
 
-        // Step 8: Set the foreign keys and update the mutable field (in this case: asset serial number, asset type and asset purchase date)
+        // Step 9: Set the foreign keys and update the mutable field (in this case: asset serial number, asset type and asset purchase date)
+        AssetCounterRepository.Delta previous = AssetCounterRepository.Delta.removed(existingAsset);
         existingAsset.setSerialNumber(newSerialNumber);
         existingAsset.setOffice(office);
         existingAsset.setAssetType(assetType);
         existingAsset.setPurchaseDate(normalizedDTO.getPurchaseDate());
 
-        // Step 9: Save the new updated Asset into the database
-        Asset updatedAsset = assetRepository.save(existingAsset);
+        // Step 10: Save the new updated Asset into the database and move it between counters (no-op if nothing counted changed)
+        Asset updatedAsset = assetRepository.saveAndFlush(existingAsset);
+        assetCounterRepository.apply(previous, AssetCounterRepository.Delta.added(updatedAsset));
+        eventPublisher.publishEvent(InventoryEvent.assetUpdated(normalizedCurrentSerialNumber, updatedAsset));
 
         log.info( "Asset updated. OldSerial={}, NewSerial={}", normalizedCurrentSerialNumber, newSerialNumber);
 
-        // Step 10: Convert Entity -> DTO
+        // Step 11: Convert Entity -> DTO
         return assetMapper.toDTO(updatedAsset);
     }
 
@@ -234,12 +625,16 @@ public class AssetService {
     /**
      * Move asset to office by name asset response dto.
      *
+     * One UPDATE ... RETURNING does the lookups, the checks and the move. The failure cases
+     * (unknown asset or office, same office, stale version) are told apart only when nothing was updated.
+     *
      * @param serialNumber      the serial number
      * @param updatedOfficeName the updated office name
+     * @param expectedVersion   the version from the If-Match header (null = no check)
      * @return the asset response dto
      */
     @Transactional
-    public AssetResponseDTO moveAssetToOfficeByName( String serialNumber,String updatedOfficeName) {
+    public AssetResponseDTO moveAssetToOfficeByName(String serialNumber, String updatedOfficeName, Long expectedVersion) {
 
         // Step 1: Normalize the current serial number
         String normalizedSerial = TextNormalizer.normalizeKey(serialNumber);
@@ -247,30 +642,86 @@ public class AssetService {
         // Step 2: Normalize incoming new asset type data
         String normalizedOfficeName = TextNormalizer.normalizeKey(updatedOfficeName);
 
-        // Step 3: Retrieve the existing asset by serial number
-        Asset asset = assetRepository.findBySerialNumberIgnoreCase(normalizedSerial).orElseThrow(() ->
-                new EntityNotFoundException("Asset not found"));
+        // Step 3: Move the asset with a single statement (row count 0 = one of the checks failed)
+        MovedAsset moved = assetMoveRepository.moveAsset(normalizedSerial, normalizedOfficeName, expectedVersion)
+                .orElseThrow(() -> moveFailure(normalizedSerial, normalizedOfficeName, expectedVersion));
 
-        // Step 4: Retrieve the target office by its name
-        Office targetOffice = officeRepository.findByNameIgnoreCase(normalizedOfficeName).orElseThrow(() ->
-                new EntityNotFoundException("Office not found"));
+        // Step 4: Move the asset between counters and publish the event
+        assetCounterRepository.apply(
+                AssetCounterRepository.Delta.of(moved.previousOfficeId(), moved.assetTypeId(), moved.purchaseDate(), -1),
+                AssetCounterRepository.Delta.of(moved.officeId(), moved.assetTypeId(), moved.purchaseDate(), 1));
+        eventPublisher.publishEvent(InventoryEvent.assetMoved(moved.previousOfficeName(), moved.serialNumber(), moved.officeName(), moved.assetTypeName()));
+
+        log.info("Asset moved. Serial: {}, NewOffice: {}", normalizedSerial, normalizedOfficeName);
+
+        // Step 5: Row -> DTO
+        return assetMapper.toDTO(moved);
+    }
+
+    /**
+     * Moves every asset of an office to another office (office closure) with one set-based update.
+     *
+     * @param fromOfficeName the office being closed
+     * @param intoOfficeName the office receiving the assets
+     * @return the consolidation report (number of assets moved)
+     */
+    @Transactional
+    public OfficeConsolidationDTO consolidateOffice(String fromOfficeName, String intoOfficeName) {
+
+        // Step 1: Check that both offices exist
+        Office fromOffice = readValidator.checkIfEntityIsFound("Office", fromOfficeName, officeRepository::findByNameIgnoreCase);
+        Office intoOffice = readValidator.checkIfEntityIsFound("Office", intoOfficeName, officeRepository::findByNameIgnoreCase);
 
-        // Step 5: Check if asset is already in that office
-        if (asset.getOffice() != null && asset.getOffice().getName().equalsIgnoreCase(normalizedOfficeName)) {
-            throw new IllegalArgumentException("Asset is already assigned to office '" + normalizedOfficeName + "'");
+        if (fromOffice.getId() == intoOffice.getId()) {
+            throw new IllegalArgumentException("An office cannot be consolidated into itself: " + fromOffice.getName());   // Throw 400 HTTP Status code
         }
 
-        // Step 6: Move asset by setting the new office
-        asset.setOffice(targetOffice);
+        // Step 2: Move all the assets with one statement
+        List<MovedAsset> movedAssets = assetMoveRepository.moveAllAssets(fromOffice.getId(), fromOffice.getName(), intoOffice.getId(), intoOffice.getName());
 
-        // Step 7: Save the new office data into the database
-        Asset savedOffice = assetRepository.save(asset);
+        // Step 3: Move the counters (one upsert, whatever the number of assets)
+        List<AssetCounterRepository.Delta> deltas = new ArrayList<>(movedAssets.size() * 2);
 
-        log.info("Asset moved. Serial: {}, NewOffice: {}", normalizedSerial, normalizedOfficeName);
+        for (MovedAsset moved : movedAssets) {
+            deltas.add(AssetCounterRepository.Delta.of(moved.previousOfficeId(), moved.assetTypeId(), moved.purchaseDate(), -1));
+            deltas.add(AssetCounterRepository.Delta.of(moved.officeId(), moved.assetTypeId(), moved.purchaseDate(), 1));
+        }
+
+        assetCounterRepository.apply(deltas.toArray(AssetCounterRepository.Delta[]::new));
 
+        // Step 4: Publish one event carrying the moved serial numbers (one outbox row, one SSE frame), not one per asset
+        if (!movedAssets.isEmpty()) {
+            eventPublisher.publishEvent(InventoryEvent.officeConsolidated(fromOffice.getName(), intoOffice.getName(),
+                    movedAssets.stream().map(MovedAsset::serialNumber).toList()));
+        }
+
+        log.info("Office consolidated. From: {}, Into: {}, Assets moved: {}", fromOffice.getName(), intoOffice.getName(), movedAssets.size());
 
-        // Step 8: Entity -> DTO
-        return assetMapper.toDTO(savedOffice);
+        // Step 5: Report
+        OfficeConsolidationDTO consolidation = new OfficeConsolidationDTO();
+        consolidation.setFromOffice(fromOffice.getName());
+        consolidation.setIntoOffice(intoOffice.getName());
+        consolidation.setMovedAssets(movedAssets.size());
+        return consolidation;
+    }
+
+    // Slow path of a move that updated nothing: find out which check failed
+    private RuntimeException moveFailure(String serialNumber, String officeName, Long expectedVersion) {
+
+        Asset asset = assetRepository.findBySerialNumberIgnoreCase(serialNumber).orElse(null);
+
+        if (asset == null) {
+            return new EntityNotFoundException("Asset not found");
+        }
+        if (!officeRepository.existsByNameIgnoreCase(officeName)) {
+            return new EntityNotFoundException("Office not found");
+        }
+        if (asset.getOffice().getName().equalsIgnoreCase(officeName)) {
+            return new IllegalArgumentException("Asset is already assigned to office '" + officeName + "'");
+        }
+
+        // Throw 412 HTTP Status code (the version changed, possibly between the update and this read)
+        return new OptimisticLockingFailureException("Asset '" + serialNumber + "' has been modified by another request, reload it and retry");
     }
 
     // ==========================================================
@@ -288,13 +739,20 @@ public class AssetService {
         // Step 1: Normalize the serial number input field incoming from assetRequestDTO
         String normalizedSerialNumber = TextNormalizer.normalizeKey(serialNumber);
 
-        // Step 2: Validate entity existence before deletion.
-        if (!assetRepository.existsBySerialNumberIgnoreCase(normalizedSerialNumber)) {
+        // Step 2: Validate entity existence before deletion (office and asset type are needed by the counters).
+        Asset asset = assetRepository.findBySerialNumberIgnoreCase(normalizedSerialNumber).orElseThrow(() -> {
             log.error("Delete failed. Asset not found. Serial number: {}", normalizedSerialNumber);
-            throw new EntityNotFoundException("Asset not found");
-        }
+            return new EntityNotFoundException("Asset not found");
+        });
+
+        // Step 3: The installation counts of its licenses change with it (GET /changes)
+        softwareLicenseRepository.touchChangeVersionOfLicensesInstalledOn(asset.getId());
 
-        assetRepository.deleteBySerialNumberIgnoreCase(normalizedSerialNumber);
+        // Step 4: Delete it, count it out and leave a tombstone for GET /changes
+        assetRepository.delete(asset);
+        assetCounterRepository.apply(AssetCounterRepository.Delta.removed(asset));
+        changeLogRepository.recordDeletion(ChangeLogRepository.EntityType.ASSET, asset.getId(), normalizedSerialNumber);
+        eventPublisher.publishEvent(InventoryEvent.assetDeleted(asset));
 
         log.info("Asset deleted. Serial: {}", normalizedSerialNumber);
     }
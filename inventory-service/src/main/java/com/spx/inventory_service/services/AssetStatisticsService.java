@@ -0,0 +1,176 @@
+package com.spx.inventory_service.services;
+
+import com.spx.inventory_service.datasource.Workload;
+import com.spx.inventory_service.datasource.WorkloadType;
+import com.spx.inventory_service.dto.AssetAgeBucketDTO;
+import com.spx.inventory_service.dto.AssetAgeHistogramDTO;
+import com.spx.inventory_service.dto.AssetCountDTO;
+import com.spx.inventory_service.repositories.AssetCounterRepository;
+import com.spx.inventory_service.repositories.AssetRepository;
+import com.spx.inventory_service.repositories.AssetTypeRepository;
+import com.spx.inventory_service.repositories.OfficeRepository;
+import com.spx.inventory_service.repositories.projections.AssetAgeBucketView;
+import com.spx.inventory_service.utils.TextNormalizer;
+import com.spx.inventory_service.utils.validator.ReadValidator;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Slf4j
+public class AssetStatisticsService {
+
+    @Autowired
+    private AssetCounterRepository assetCounterRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private OfficeRepository officeRepository;
+
+    @Autowired
+    private AssetTypeRepository assetTypeRepository;
+
+    @Autowired
+    private ReadValidator readValidator;
+
+    // Histogram limits
+    private static final int MAX_BUCKET_MONTHS = 120;
+    private static final int MAX_BUCKETS = 50;
+
+    // Rebuild the counters once the application (and data.sql / bulk loads) is ready
+    @Value("${inventory.statistics.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    // ==========================================================
+    // READ OPERATIONS (counter table)
+    // ==========================================================
+
+    /**
+     * Gets the number of assets and their average age by office.
+     *
+     * @return the asset counts by office
+     */
+    public List<AssetCountDTO> getAssetCountsByOffice() {
+        return assetCounterRepository.countByOffice();
+    }
+
+    /**
+     * Gets the number of assets and their average age by asset type.
+     *
+     * @return the asset counts by asset type
+     */
+    public List<AssetCountDTO> getAssetCountsByAssetType() {
+        return assetCounterRepository.countByAssetType();
+    }
+
+    /**
+     * Gets the number of assets and their average age by office and asset type.
+     *
+     * @return the asset counts by office and asset type
+     */
+    public List<AssetCountDTO> getAssetCountsByOfficeAndAssetType() {
+        return assetCounterRepository.countByOfficeAndAssetType();
+    }
+
+    // ==========================================================
+    // READ OPERATIONS (assets table)
+    // ==========================================================
+
+    /**
+     * Gets the asset age histogram (refresh planning). Buckets are computed by one grouped query.
+     *
+     * @param asOf          the date the ages are computed at (null = today)
+     * @param bucketMonths  the width of a bucket in months
+     * @param buckets       the number of buckets (the last one is open-ended)
+     * @param officeName    optional office name filter
+     * @param assetTypeName optional asset type name filter
+     * @return the histogram
+     */
+    @Workload(WorkloadType.REPORTING)
+    public AssetAgeHistogramDTO getAgeHistogram(LocalDate asOf, int bucketMonths, int buckets, String officeName, String assetTypeName) {
+
+        // Step 1: Validate the input
+        if (bucketMonths < 1 || bucketMonths > MAX_BUCKET_MONTHS) {
+            throw new IllegalArgumentException("bucketMonths must be between 1 and " + MAX_BUCKET_MONTHS);    // Throw 400 HTTP Status code
+        }
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw new IllegalArgumentException("buckets must be between 1 and " + MAX_BUCKETS);              // Throw 400 HTTP Status code
+        }
+        LocalDate histogramDate = asOf == null ? LocalDate.now() : asOf;
+
+        // Step 2: Resolve the optional filters (404 if the office or asset type does not exist)
+        Long officeId = officeName == null ? null :
+                readValidator.checkIfEntityIsFound("Office", officeName, officeRepository::findByNameIgnoreCase).getId();
+        Long assetTypeId = assetTypeName == null ? null :
+                readValidator.checkIfEntityIsFound("Asset type", assetTypeName, assetTypeRepository::findByAssetTypeNameIgnoreCase).getId();
+
+        // Step 3: Count the assets of each bucket in the database
+        List<AssetAgeBucketView> rows = assetRepository.countByAgeBucket(histogramDate, bucketMonths, buckets - 1, officeId, assetTypeId);
+
+        // Step 4: Fill every bucket (empty ones included)
+        long[] counts = new long[buckets];
+        long undated = 0;
+
+        for (AssetAgeBucketView row : rows) {
+            if (row.getBucket() == null) {
+                undated = row.getAssets();
+            } else {
+                counts[row.getBucket()] = row.getAssets();
+            }
+        }
+
+        List<AssetAgeBucketDTO> histogramBuckets = new ArrayList<>(buckets);
+        long dated = 0;
+
+        for (int i = 0; i < buckets; i++) {
+            Integer toMonths = (i == buckets - 1) ? null : (i + 1) * bucketMonths;
+            histogramBuckets.add(new AssetAgeBucketDTO(i * bucketMonths, toMonths, counts[i]));
+            dated += counts[i];
+        }
+
+        AssetAgeHistogramDTO histogram = new AssetAgeHistogramDTO();
+        histogram.setAsOf(histogramDate);
+        histogram.setOfficeName(TextNormalizer.normalizeKey(officeName));
+        histogram.setAssetTypeName(TextNormalizer.normalizeKey(assetTypeName));
+        histogram.setBucketMonths(bucketMonths);
+        histogram.setAssets(dated + undated);
+        histogram.setUndatedAssets(undated);
+        histogram.setBuckets(histogramBuckets);
+
+        return histogram;
+    }
+
+    // ==========================================================
+    // REBUILD
+    // ==========================================================
+
+    /**
+     * Recomputes the counters from the assets table (after rows were written outside AssetService).
+     */
+    @Transactional
+    public void rebuildCounters() {
+
+        assetCounterRepository.rebuild();
+
+        log.info("Asset counters rebuilt");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildCountersOnStartup(ApplicationReadyEvent event) {
+
+        if (rebuildOnStartup) {
+            // Through the proxy, so the rebuild runs in its own transaction
+            event.getApplicationContext().getBean(AssetStatisticsService.class).rebuildCounters();
+        }
+    }
+}
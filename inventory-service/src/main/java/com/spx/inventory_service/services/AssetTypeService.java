@@ -1,18 +1,24 @@
 package com.spx.inventory_service.services;
 
+import com.spx.inventory_service.cache.CacheLoaders;
+import com.spx.inventory_service.config.CaffeineCacheConfig;
 import com.spx.inventory_service.dto.AssetTypeRequestDTO;
 import com.spx.inventory_service.dto.AssetTypeResponseDTO;
 import com.spx.inventory_service.mappers.AssetTypeMapper;
 import com.spx.inventory_service.models.AssetType;
 import com.spx.inventory_service.repositories.AssetTypeRepository;
+import com.spx.inventory_service.repositories.ChangeLogRepository;
 import com.spx.inventory_service.utils.normalizer.AssetTypeRequestNormalizer;
 import com.spx.inventory_service.utils.TextNormalizer;
 import com.spx.inventory_service.utils.validator.CreateValidator;
 import com.spx.inventory_service.utils.validator.ReadValidator;
+import com.spx.inventory_service.utils.validator.UpdateValidator;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import java.util.List;
@@ -28,12 +34,28 @@ public class AssetTypeService {
     @Autowired
     private ReadValidator readValidator;
 
+    @Autowired
+    private UpdateValidator updateValidator;
+
     @Autowired
     private CreateValidator createValidator;
 
     @Autowired
     private AssetTypeMapper assetTypeMapper;
 
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private CacheLoaders cacheLoaders;
+
+    // Background refresh of the cached reads: same loads as the @Cacheable methods below
+    @PostConstruct
+    void registerCacheLoaders() {
+        cacheLoaders.register(CaffeineCacheConfig.ASSET_TYPES_ALL, key -> loadAllAssetTypes());
+        cacheLoaders.register(CaffeineCacheConfig.ASSET_TYPES_BY_NAME, key -> loadAssetTypeByName((String) key));
+    }
+
     // ==========================================================
     // CRUD METHODS - From Repository Layer
     // ==========================================================
@@ -43,12 +65,16 @@ public class AssetTypeService {
     // ==========================================================
 
     /**
-     * Gets all asset types.
+     * Gets all asset types (one database load at a time, concurrent misses wait for it).
      *
      * @return the all asset types
      */
-    @Cacheable("assets-types")
+    @Cacheable(value = CaffeineCacheConfig.ASSET_TYPES_ALL, key = "T(com.spx.inventory_service.config.CaffeineCacheConfig).ALL_KEY", sync = true)
     public List<AssetTypeResponseDTO> getAllAssetTypes() {
+        return loadAllAssetTypes();
+    }
+
+    private List<AssetTypeResponseDTO> loadAllAssetTypes() {
 
         log.info("Service getAllAssetTypes");
 
@@ -59,13 +85,17 @@ public class AssetTypeService {
     }
 
     /**
-     * Gets asset type by name.
+     * Gets asset type by name (one database load per name at a time, concurrent misses wait for it).
      *
      * @param assetTypeName the asset type name
      * @return the asset type by name
      */
-    @Cacheable(value = "assets-types", key = "T(com.spx.inventory_service.utils.TextNormalizer).normalizeKey(#assetTypeName)")
+    @Cacheable(value = CaffeineCacheConfig.ASSET_TYPES_BY_NAME, key = "T(com.spx.inventory_service.config.CaffeineCacheConfig).nameKey(#assetTypeName)", sync = true)
     public AssetTypeResponseDTO getAssetTypeByName(String assetTypeName) {
+        return loadAssetTypeByName(assetTypeName);
+    }
+
+    private AssetTypeResponseDTO loadAssetTypeByName(String assetTypeName) {
 
         // Step 1: Check if the input Office entity is found and validate its name
         AssetType assetType = readValidator.checkIfEntityIsFound("AssetType", assetTypeName, assetTypeRepository::findByAssetTypeNameIgnoreCase);
@@ -87,6 +117,7 @@ public class AssetTypeService {
      * @return the asset type response dto
      */
     @Transactional
+    @CacheEvict(value = { CaffeineCacheConfig.ASSET_TYPES_ALL, CaffeineCacheConfig.ASSET_TYPES_BY_NAME }, allEntries = true)
     public AssetTypeResponseDTO createAssetType(AssetTypeRequestDTO newAssetTypeRequestDTO) {
 
         // Step 1. Check if the input Asset Type entity already exists and validate its fields
@@ -114,10 +145,12 @@ public class AssetTypeService {
      *
      * @param currentName     the current name
      * @param newAssetTypeDTO the new asset type dto
+     * @param expectedVersion the version from the If-Match header (null = no check)
      * @return the asset type response dto
      */
     @Transactional
-    public AssetTypeResponseDTO updateAssetTypeByName(String currentName, AssetTypeRequestDTO newAssetTypeDTO) {
+    @CacheEvict(value = { CaffeineCacheConfig.ASSET_TYPES_ALL, CaffeineCacheConfig.ASSET_TYPES_BY_NAME }, allEntries = true)
+    public AssetTypeResponseDTO updateAssetTypeByName(String currentName, AssetTypeRequestDTO newAssetTypeDTO, Long expectedVersion) {
 
         // Step 1: Normalize the current name
         String normalizedCurrentName = TextNormalizer.normalizeKey(currentName);
@@ -131,25 +164,28 @@ public class AssetTypeService {
             return new EntityNotFoundException("Asset type not found");
         });
 
-        // Step 4: Extract the new asset type name
+        // Step 4: Reject the update if the asset type changed since the client read it (If-Match)
+        updateValidator.checkIfVersionMatches("Asset type", normalizedCurrentName, expectedVersion, existingAssetType.getVersion());
+
+        // Step 5: Extract the new asset type name
         String newName = normalizedDTO.getAssetTypeName();
 
-        // Step 5: If the newName IS NOT EQUAL to the currentName AND if the newName already exists into the database...
+        // Step 6: If the newName IS NOT EQUAL to the currentName AND if the newName already exists into the database...
         if (!normalizedCurrentName.equalsIgnoreCase(newName) && assetTypeRepository.existsByAssetTypeNameIgnoreCase(newName)) {
             throw new IllegalArgumentException("Asset type already exists: " + newName);
         }
 
-        // Step 6: Update only mutable fields (in this case: asset type name and asset type description).
+        // Step 7: Update only mutable fields (in this case: asset type name and asset type description).
         existingAssetType.setAssetTypeName(newName);
         existingAssetType.setAssetTypeDescription(normalizedDTO.getAssetTypeDescription());
 
-        // Step 7: Save the new updated Asset Type into the database
-        AssetType updated = assetTypeRepository.save(existingAssetType);
+        // Step 8: Save the new updated Asset Type into the database (flushed now: the response carries the new version)
+        AssetType updated = assetTypeRepository.saveAndFlush(existingAssetType);
 
         log.info("AssetType updated. oldName: {}, newName: {}", normalizedCurrentName, newName);
 
 
-        // Step 8: Convert Entity -> DTO
+        // Step 9: Convert Entity -> DTO
         return assetTypeMapper.toDTO(updated);
     }
 
@@ -163,19 +199,21 @@ public class AssetTypeService {
      * @param assetTypeName the asset type name
      */
     @Transactional
+    @CacheEvict(value = { CaffeineCacheConfig.ASSET_TYPES_ALL, CaffeineCacheConfig.ASSET_TYPES_BY_NAME }, allEntries = true)
     public void deleteAssetTypeByName(String assetTypeName) {
 
         // Step 1: Normalize the asset type name
         String normalizedName = TextNormalizer.normalizeKey(assetTypeName);
 
         // Step 2: Validate entity existence before deletion.
-        if (!assetTypeRepository.existsByAssetTypeNameIgnoreCase(normalizedName)) {
+        AssetType assetType = assetTypeRepository.findByAssetTypeNameIgnoreCase(normalizedName).orElseThrow(() -> {
             log.error("Delete failed. AssetType not found. Name: {}", normalizedName);
-            throw new EntityNotFoundException("Asset type not found");
-        }
+            return new EntityNotFoundException("Asset type not found");
+        });
 
-        // Step 3: Proceed with deletion.
-        assetTypeRepository.deleteByAssetTypeNameIgnoreCase(normalizedName);
+        // Step 3: Proceed with deletion and leave a tombstone for GET /changes
+        assetTypeRepository.delete(assetType);
+        changeLogRepository.recordDeletion(ChangeLogRepository.EntityType.ASSET_TYPE, assetType.getId(), normalizedName);
 
         log.info("AssetType deleted. name={}", normalizedName);
     }
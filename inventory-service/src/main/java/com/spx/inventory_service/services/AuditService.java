@@ -0,0 +1,57 @@
+package com.spx.inventory_service.services;
+
+import com.spx.inventory_service.audit.AssetAuditTrail;
+import com.spx.inventory_service.audit.AuditRecord;
+import com.spx.inventory_service.dto.AuditStatusDTO;
+import com.spx.inventory_service.repositories.AssetAuditRepository;
+import com.spx.inventory_service.utils.TextNormalizer;
+import com.spx.inventory_service.utils.validator.ReadValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Reads the audit trail. Records reach the table up to inventory.audit.flush-interval after the change commits.
+ */
+@Service
+public class AuditService {
+
+    @Autowired
+    private AssetAuditRepository assetAuditRepository;
+
+    @Autowired
+    private AssetAuditTrail assetAuditTrail;
+
+    @Autowired
+    private ReadValidator readValidator;
+
+    /**
+     * Gets the audit history of a serial number, newest first (deleted assets keep their history).
+     *
+     * @param serialNumber the serial number
+     * @param limit        the max number of records (max 500)
+     * @return the audit records
+     */
+    public List<AuditRecord> getAssetHistory(String serialNumber, int limit) {
+
+        // Step 1: Validate the limit
+        readValidator.checkIfPageLimitIsValid(limit);
+
+        // Step 2: Read the history (no existence check: the asset may be deleted)
+        return assetAuditRepository.findBySerialNumber(TextNormalizer.normalizeKey(serialNumber), limit);
+    }
+
+    public AuditStatusDTO getStatus() {
+
+        AuditStatusDTO status = new AuditStatusDTO();
+        status.setBufferedRecords(assetAuditTrail.getBufferedRecords());
+        status.setBufferCapacity(assetAuditTrail.getBufferCapacity());
+        status.setDroppedRecords(assetAuditTrail.getDroppedRecords());
+        status.setWrittenRecords(assetAuditTrail.getWrittenRecords());
+        status.setFailedFlushes(assetAuditTrail.getFailedFlushes());
+        status.setDeadLetteredRecords(assetAuditTrail.getDeadLetteredRecords());
+        status.setLastFlushLagMillis(assetAuditTrail.getLastFlushLagMillis());
+        return status;
+    }
+}
@@ -0,0 +1,166 @@
+package com.spx.inventory_service.services;
+
+import com.spx.inventory_service.dto.ChangeDTO;
+import com.spx.inventory_service.dto.ChangeFeedPageDTO;
+import com.spx.inventory_service.mappers.AssetMapper;
+import com.spx.inventory_service.mappers.AssetTypeMapper;
+import com.spx.inventory_service.mappers.OfficeMapper;
+import com.spx.inventory_service.mappers.SoftwareLicenseMapper;
+import com.spx.inventory_service.repositories.AssetRepository;
+import com.spx.inventory_service.repositories.AssetTypeRepository;
+import com.spx.inventory_service.repositories.ChangeLogRepository;
+import com.spx.inventory_service.repositories.ChangeLogRepository.ChangeRow;
+import com.spx.inventory_service.repositories.ChangeLogRepository.EntityType;
+import com.spx.inventory_service.repositories.ChangeLogRepository.Position;
+import com.spx.inventory_service.repositories.OfficeRepository;
+import com.spx.inventory_service.repositories.SoftwareLicenseRepository;
+import com.spx.inventory_service.utils.validator.ReadValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync: the rows inserted, updated or deleted after a client watermark.
+ *
+ * The watermark is a change log position, "<transaction>-<version>" (see ChangeLogRepository):
+ * changes are returned in commit-safe order, so a client never moves its watermark past a transaction that may still commit,
+ * however long that transaction runs. Changes of a transaction still running are returned once it has ended.
+ */
+@Service
+public class ChangeFeedService {
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private OfficeRepository officeRepository;
+
+    @Autowired
+    private AssetTypeRepository assetTypeRepository;
+
+    @Autowired
+    private SoftwareLicenseRepository softwareLicenseRepository;
+
+    @Autowired
+    private AssetMapper assetMapper;
+
+    @Autowired
+    private OfficeMapper officeMapper;
+
+    @Autowired
+    private AssetTypeMapper assetTypeMapper;
+
+    @Autowired
+    private SoftwareLicenseMapper softwareLicenseMapper;
+
+    @Autowired
+    private ReadValidator readValidator;
+
+    /**
+     * Gets the changes after a position (keyset pagination on the change log position).
+     *
+     * @param since the nextSince value of the previous page ("0" = full sync)
+     * @param limit the page size (max 500)
+     * @return the page of changes
+     */
+    public ChangeFeedPageDTO getChanges(String since, int limit) {
+
+        // Step 1: Validate the input
+        Position position = parsePosition(since);
+        readValidator.checkIfPageLimitIsValid(limit);
+
+        // Step 2: Next changes of every table (and tombstones), merged by position. One extra row tells if there is more
+        List<ChangeRow> rows = changeLogRepository.findChangesAfter(position, limit + 1);
+        List<ChangeRow> page = rows.subList(0, Math.min(rows.size(), limit));
+
+        // Step 3: Current state of the changed rows, one query per entity type
+        Map<EntityType, Map<Long, Object>> states = loadStates(page);
+
+        List<ChangeDTO> changes = new ArrayList<>(page.size());
+        for (ChangeRow row : page) {
+            ChangeDTO change = new ChangeDTO();
+            change.setVersion(row.version());
+            change.setEntityType(row.entityType().name());
+            change.setKey(row.entityKey());
+            change.setChangedAt(row.changedAt());
+            change.setDeleted(row.deleted());
+            if (!row.deleted()) {
+                change.setData(states.get(row.entityType()).get(row.entityId()));
+            }
+            changes.add(change);
+        }
+
+        ChangeFeedPageDTO feedPage = new ChangeFeedPageDTO();
+        feedPage.setChanges(changes);
+        feedPage.setLimit(limit);
+        feedPage.setNextSince(page.isEmpty() ? formatPosition(position) : formatPosition(page.get(page.size() - 1).position()));
+        feedPage.setHasMore(rows.size() > limit);
+
+        return feedPage;
+    }
+
+    private Map<EntityType, Map<Long, Object>> loadStates(List<ChangeRow> page) {
+
+        // Ids of the rows still present, by entity type
+        Map<EntityType, Set<Long>> ids = page.stream()
+                .filter(row -> !row.deleted())
+                .collect(Collectors.groupingBy(ChangeRow::entityType, () -> new EnumMap<>(EntityType.class),
+                        Collectors.mapping(ChangeRow::entityId, Collectors.toSet())));
+
+        Map<EntityType, Map<Long, Object>> states = new EnumMap<>(EntityType.class);
+
+        ids.forEach((entityType, entityIds) -> {
+            Map<Long, Object> byId = new HashMap<>();
+            switch (entityType) {
+                case OFFICE -> officeRepository.findAllById(entityIds)
+                        .forEach(office -> byId.put(office.getId(), officeMapper.toDTO(office)));
+                case ASSET_TYPE -> assetTypeRepository.findAllById(entityIds)
+                        .forEach(assetType -> byId.put(assetType.getId(), assetTypeMapper.toDTO(assetType)));
+                case ASSET -> assetRepository.findByIdIn(entityIds)
+                        .forEach(asset -> byId.put(asset.getId(), assetMapper.toDTO(asset)));
+                case SOFTWARE_LICENSE -> softwareLicenseRepository.findSummariesByIdIn(entityIds)
+                        .forEach(license -> byId.put(license.getId(), softwareLicenseMapper.toSummaryDTO(license)));
+            }
+            states.put(entityType, byId);
+        });
+
+        return states;
+    }
+
+    // "0" (full sync) or "<transaction>-<version>", as returned in nextSince
+    private static Position parsePosition(String since) {
+
+        if (since == null || since.isBlank() || since.equals("0")) {
+            return Position.START;
+        }
+
+        String[] parts = since.trim().split("-", -1);
+
+        try {
+            if (parts.length == 2) {
+                Position position = new Position(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+                if (position.transaction() >= 0 && position.version() >= 0) {
+                    return position;
+                }
+            }
+        } catch (NumberFormatException ex) {
+            // Reported below
+        }
+
+        throw new IllegalArgumentException("since must be 0 or the nextSince value of a previous page");      // Throw 400 HTTP Status code
+    }
+
+    private static String formatPosition(Position position) {
+        return position.equals(Position.START) ? "0" : position.transaction() + "-" + position.version();
+    }
+}
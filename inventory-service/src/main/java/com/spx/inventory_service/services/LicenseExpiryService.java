@@ -0,0 +1,200 @@
+package com.spx.inventory_service.services;
+
+import com.spx.inventory_service.datasource.Workload;
+import com.spx.inventory_service.datasource.WorkloadType;
+import com.spx.inventory_service.dto.LicenseExpiryBucketDTO;
+import com.spx.inventory_service.dto.LicenseExpiryReportDTO;
+import com.spx.inventory_service.dto.SoftwareLicenseSummaryDTO;
+import com.spx.inventory_service.mappers.SoftwareLicenseMapper;
+import com.spx.inventory_service.repositories.SoftwareLicenseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+@Slf4j
+public class LicenseExpiryService {
+
+    // Upper bounds (days from today) of the report buckets
+    private static final int[] BUCKET_UPPER_DAYS = { 7, 30, 90, 180, 365 };
+
+    @Autowired
+    private SoftwareLicenseRepository softwareLicenseRepository;
+
+    @Autowired
+    private SoftwareLicenseMapper softwareLicenseMapper;
+
+    // This bean through its proxy, so the rebuilds triggered here run with @Workload like the scheduled ones
+    @Lazy
+    @Autowired
+    private LicenseExpiryService self;
+
+    // Longest horizon accepted by the expiry endpoints
+    @Value("${inventory.expiry.max-horizon-days:365}")
+    private int maxHorizonDays;
+
+    // Last computed rollup, read by every polling client
+    private final AtomicReference<LicenseExpirySnapshot> snapshot = new AtomicReference<>();
+
+    // One rebuild at a time after midnight, off the request threads
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private ExecutorService refresher;
+
+    @PostConstruct
+    void start() {
+        refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "expiry-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdownNow();
+    }
+
+    // ==========================================================
+    // SNAPSHOT (in memory)
+    // ==========================================================
+
+    /**
+     * Rebuilds the expiry snapshot with one grouped query (expiration_date index + join table counts).
+     */
+    @Scheduled(initialDelayString = "${inventory.expiry.initial-delay:PT10S}", fixedDelayString = "${inventory.expiry.refresh-interval:PT5M}")
+    @Workload(WorkloadType.REPORTING)
+    public void refreshSnapshot() {
+
+        LocalDate today = LocalDate.now();
+
+        // Step 1: Licenses and seats expiring each day of the horizon
+        LicenseExpirySnapshot refreshed = LicenseExpirySnapshot.of(today, maxHorizonDays,
+                softwareLicenseRepository.countExpiringByDay(today, today.plusDays(maxHorizonDays)));
+
+        // Step 2: Publish it
+        snapshot.set(refreshed);
+
+        log.info("License expiry snapshot refreshed. asOf: {}, licenses within {} days: {}", today, maxHorizonDays, refreshed.licenses(0, maxHorizonDays));
+    }
+
+    /**
+     * Gets the expiry report for a horizon, from the in-memory snapshot.
+     *
+     * @param horizonDays the number of days from today
+     * @return the expiry report
+     */
+    @Workload(WorkloadType.REPORTING)
+    public LicenseExpiryReportDTO getExpiryReport(int horizonDays) {
+
+        // Step 1: Validate the horizon
+        checkHorizon(horizonDays);
+
+        // Step 2: Read the snapshot (built here only before the first scheduled run; after midnight the previous one
+        // is served, with its asOf date, while the new one is built in the background)
+        LicenseExpirySnapshot current = snapshot.get();
+        if (current == null) {
+            self.refreshSnapshot();
+            current = snapshot.get();
+        } else if (!current.asOf().equals(LocalDate.now())) {
+            refreshInBackground();
+        }
+
+        // Step 3: Split the horizon into buckets
+        List<LicenseExpiryBucketDTO> buckets = new ArrayList<>();
+        int fromDay = 0;
+
+        for (int upperDay : BUCKET_UPPER_DAYS) {
+            int toDay = Math.min(upperDay, horizonDays);
+            buckets.add(new LicenseExpiryBucketDTO(fromDay, toDay, current.licenses(fromDay, toDay), current.seats(fromDay, toDay)));
+            fromDay = toDay + 1;
+
+            if (fromDay > horizonDays) {
+                break;
+            }
+        }
+
+        if (fromDay <= horizonDays) {
+            buckets.add(new LicenseExpiryBucketDTO(fromDay, horizonDays, current.licenses(fromDay, horizonDays), current.seats(fromDay, horizonDays)));
+        }
+
+        // Step 4: Build the report
+        LicenseExpiryReportDTO report = new LicenseExpiryReportDTO();
+        report.setAsOf(current.asOf());
+        report.setGeneratedAt(current.generatedAt());
+        report.setHorizonDays(horizonDays);
+        report.setLicenses(current.licenses(0, horizonDays));
+        report.setSeatsAffected(current.seats(0, horizonDays));
+        report.setBuckets(buckets);
+
+        return report;
+    }
+
+    // ==========================================================
+    // DRILL-DOWN (database)
+    // ==========================================================
+
+    /**
+     * Gets the licenses expiring within a horizon.
+     *
+     * @param horizonDays the number of days from today
+     * @return the licenses expiring within the horizon
+     */
+    @Workload(WorkloadType.REPORTING)
+    public List<SoftwareLicenseSummaryDTO> getSoftwareLicensesExpiringWithin(int horizonDays) {
+
+        // Step 1: Validate the horizon
+        checkHorizon(horizonDays);
+
+        LocalDate today = LocalDate.now();
+
+        // Step 2: Range scan on the expiration_date index, seats counted on the join table
+        return softwareLicenseRepository.findSummariesByExpirationDateBetween(today, today.plusDays(horizonDays))
+                .stream()
+                .map(softwareLicenseMapper::toSummaryDTO)
+                .toList();
+    }
+
+    private void refreshInBackground() {
+
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            refresher.execute(() -> {
+                try {
+                    self.refreshSnapshot();
+                } catch (RuntimeException e) {
+                    log.warn("License expiry snapshot not refreshed, serving the previous one: {}", e.toString());
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    private void checkHorizon(int horizonDays) {
+
+        if (horizonDays < 0 || horizonDays > maxHorizonDays) {
+            log.error("Invalid expiry horizon: {}", horizonDays);
+            throw new IllegalArgumentException("days must be between 0 and " + maxHorizonDays);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.spx.inventory_service.services;
+
+import com.spx.inventory_service.repositories.projections.LicenseExpiryDayView;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Immutable per-day rollup of licenses expiring in the next maxHorizonDays days.
+ *
+ * Index i of the arrays = licenses expiring i days after asOf (cumulative, so any horizon
+ * and any bucket is answered with at most two array reads).
+ */
+final class LicenseExpirySnapshot {
+
+    private final LocalDate asOf;
+    private final Instant generatedAt;
+    private final long[] cumulativeLicenses;
+    private final long[] cumulativeSeats;
+
+    private LicenseExpirySnapshot(LocalDate asOf, Instant generatedAt, long[] cumulativeLicenses, long[] cumulativeSeats) {
+        this.asOf = asOf;
+        this.generatedAt = generatedAt;
+        this.cumulativeLicenses = cumulativeLicenses;
+        this.cumulativeSeats = cumulativeSeats;
+    }
+
+    static LicenseExpirySnapshot of(LocalDate asOf, int maxHorizonDays, List<LicenseExpiryDayView> days) {
+
+        long[] licenses = new long[maxHorizonDays + 1];
+        long[] seats = new long[maxHorizonDays + 1];
+
+        // Step 1: Place every day of the rollup at its distance from asOf
+        for (LicenseExpiryDayView day : days) {
+            int index = (int) ChronoUnit.DAYS.between(asOf, day.getExpirationDate());
+
+            if (index >= 0 && index <= maxHorizonDays) {
+                licenses[index] += day.getLicenses();
+                seats[index] += day.getSeats() == null ? 0 : day.getSeats();
+            }
+        }
+
+        // Step 2: Running totals
+        for (int i = 1; i <= maxHorizonDays; i++) {
+            licenses[i] += licenses[i - 1];
+            seats[i] += seats[i - 1];
+        }
+
+        return new LicenseExpirySnapshot(asOf, Instant.now(), licenses, seats);
+    }
+
+    LocalDate asOf() {
+        return asOf;
+    }
+
+    Instant generatedAt() {
+        return generatedAt;
+    }
+
+    int maxHorizonDays() {
+        return cumulativeLicenses.length - 1;
+    }
+
+    /* Licenses expiring between fromDay and toDay (both included) */
+    long licenses(int fromDay, int toDay) {
+        return cumulativeLicenses[toDay] - (fromDay == 0 ? 0 : cumulativeLicenses[fromDay - 1]);
+    }
+
+    /* Seats covered by the licenses expiring between fromDay and toDay (both included) */
+    long seats(int fromDay, int toDay) {
+        return cumulativeSeats[toDay] - (fromDay == 0 ? 0 : cumulativeSeats[fromDay - 1]);
+    }
+}
@@ -1,14 +1,18 @@
 package com.spx.inventory_service.services;
 
+import com.spx.inventory_service.cache.CacheLoaders;
+import com.spx.inventory_service.config.CaffeineCacheConfig;
 import com.spx.inventory_service.dto.OfficeRequestDTO;
 import com.spx.inventory_service.dto.OfficeResponseDTO;
 import com.spx.inventory_service.mappers.OfficeMapper;
 import com.spx.inventory_service.models.Office;
+import com.spx.inventory_service.repositories.ChangeLogRepository;
 import com.spx.inventory_service.repositories.OfficeRepository;
 import com.spx.inventory_service.utils.normalizer.OfficeRequestNormalizer;
 import com.spx.inventory_service.utils.validator.CreateValidator;
 import com.spx.inventory_service.utils.validator.ReadValidator;
 import com.spx.inventory_service.utils.validator.UpdateValidator;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,6 +40,18 @@ public class OfficeService {
     @Autowired
     private OfficeMapper officeMapper;
 
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private CacheLoaders cacheLoaders;
+
+    // Background refresh of the cached reads: same loads as the @Cacheable methods below
+    @PostConstruct
+    void registerCacheLoaders() {
+        cacheLoaders.register(CaffeineCacheConfig.OFFICES_ALL, key -> loadAllOffices());
+        cacheLoaders.register(CaffeineCacheConfig.OFFICES_BY_NAME, key -> loadOfficeByName((String) key));
+    }
 
     // ==========================================================
     // CRUD METHODS - From Repository Layer
@@ -46,12 +62,16 @@ public class OfficeService {
     // ==========================================================
 
     /**
-     * Gets all offices.
+     * Gets all offices (one database load at a time, concurrent misses wait for it).
      *
      * @return the all offices
      */
-    @Cacheable("offices-all")
+    @Cacheable(value = CaffeineCacheConfig.OFFICES_ALL, key = "T(com.spx.inventory_service.config.CaffeineCacheConfig).ALL_KEY", sync = true)
     public List<OfficeResponseDTO> getAllOffices() {
+        return loadAllOffices();
+    }
+
+    private List<OfficeResponseDTO> loadAllOffices() {
 
         log.info("Service getAllOffices");
 
@@ -65,13 +85,17 @@ public class OfficeService {
 
 
     /**
-     * Gets office by name.
+     * Gets office by name (one database load per name at a time, concurrent misses wait for it).
      *
      * @param name the name
      * @return the office by name
      */
-    @Cacheable(value = "offices-by-name", key = "T(com.spx.inventory_service.utils.TextNormalizer).normalizeKey(#name)")
+    @Cacheable(value = CaffeineCacheConfig.OFFICES_BY_NAME, key = "T(com.spx.inventory_service.config.CaffeineCacheConfig).nameKey(#name)", sync = true)
     public OfficeResponseDTO getOfficeByName(String name) {
+        return loadOfficeByName(name);
+    }
+
+    private OfficeResponseDTO loadOfficeByName(String name) {
 
         // Step 1: Check if the input Office entity is found and validate its name
         Office office = readValidator.checkIfEntityIsFound("Office", name, officeRepository::findByNameIgnoreCase);
@@ -94,7 +118,7 @@ public class OfficeService {
      * @return the office response dto
      */
     @Transactional
-    @CacheEvict(value = { "offices-all", "offices-by-name" }, allEntries = true)
+    @CacheEvict(value = { CaffeineCacheConfig.OFFICES_ALL, CaffeineCacheConfig.OFFICES_BY_NAME }, allEntries = true)
     public OfficeResponseDTO createOffice(OfficeRequestDTO newOfficeDTO) {
 
         // Step 1. Check if the input Office entity already exists and validate its fields
@@ -121,33 +145,37 @@ public class OfficeService {
     /**
      * Update existing office by name office response dto.
      *
-     * @param currentName  the current name
-     * @param newOfficeDTO the new office dto
+     * @param currentName     the current name
+     * @param newOfficeDTO    the new office dto
+     * @param expectedVersion the version from the If-Match header (null = no check)
      * @return the office response dto
      */
     @Transactional
-    @CacheEvict(value = { "offices-all", "offices-by-name" }, allEntries = true)
-    public OfficeResponseDTO updateExistingOfficeByName(String currentName, OfficeRequestDTO newOfficeDTO) {
+    @CacheEvict(value = { CaffeineCacheConfig.OFFICES_ALL, CaffeineCacheConfig.OFFICES_BY_NAME }, allEntries = true)
+    public OfficeResponseDTO updateExistingOfficeByName(String currentName, OfficeRequestDTO newOfficeDTO, Long expectedVersion) {
 
         // Step 1: Check if the input Office (old office) entity is found and validate its name
         Office existingOffice = readValidator.checkIfEntityIsFound("Office", currentName, officeRepository::findByNameIgnoreCase);
 
-        // Step 2: Normalize incoming new office DTO
+        // Step 2: Reject the update if the office changed since the client read it (If-Match)
+        updateValidator.checkIfVersionMatches("Office", existingOffice.getName(), expectedVersion, existingOffice.getVersion());
+
+        // Step 3: Normalize incoming new office DTO
         OfficeRequestDTO normalizedNewOffice = OfficeRequestNormalizer.normalize(newOfficeDTO);
 
-        // Step 3: Extract the new office name
+        // Step 4: Extract the new office name
         String newOfficeName = normalizedNewOffice.getOfficeName();
 
-        // Step 4: UpdateValidator
+        // Step 5: UpdateValidator
         updateValidator.checkIfUpdateIsAllowed("Office", existingOffice.getName(), newOfficeName, officeRepository::existsByNameIgnoreCase);
 
-        // Step 5: Update only mutable fields (in this case: office name).
+        // Step 6: Update only mutable fields (in this case: office name).
         existingOffice.setName(newOfficeName);
 
-        // Step 6: Save the new updated Office into the database
-        Office updatedOffice = officeRepository.save(existingOffice);
+        // Step 7: Save the new updated Office into the database (flushed now: the response carries the new version)
+        Office updatedOffice = officeRepository.saveAndFlush(existingOffice);
 
-        // Step 7: Convert Entity -> DTO
+        // Step 8: Convert Entity -> DTO
         return officeMapper.toDTO(updatedOffice);
     }
 
@@ -162,7 +190,7 @@ public class OfficeService {
      * @param officeName the office name
      */
     @Transactional
-    @CacheEvict(value = { "offices-all", "offices-by-name" }, allEntries = true)
+    @CacheEvict(value = { CaffeineCacheConfig.OFFICES_ALL, CaffeineCacheConfig.OFFICES_BY_NAME }, allEntries = true)
     public void deleteOfficeByName(String officeName) {
 
         // Step 1: Check if the input Office entity is found and validate its name
@@ -171,8 +199,9 @@ public class OfficeService {
         // Step 2: Extract the normalized office name
         String normalizedOfficeName = office.getName();
 
-        // Step 3: Proceed with deletion.
-        officeRepository.deleteByNameIgnoreCase(normalizedOfficeName);
+        // Step 3: Proceed with deletion (the loaded entity is deleted, no second lookup) and leave a tombstone for GET /changes
+        officeRepository.delete(office);
+        changeLogRepository.recordDeletion(ChangeLogRepository.EntityType.OFFICE, office.getId(), normalizedOfficeName);
 
         log.info("Deleting office. Named: {}", normalizedOfficeName);
 
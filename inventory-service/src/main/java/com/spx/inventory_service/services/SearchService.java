@@ -0,0 +1,102 @@
+package com.spx.inventory_service.services;
+
+import com.spx.inventory_service.dto.SearchSuggestionDTO;
+import com.spx.inventory_service.dto.SearchSuggestionsDTO;
+import com.spx.inventory_service.repositories.AssetRepository;
+import com.spx.inventory_service.repositories.OfficeRepository;
+import com.spx.inventory_service.repositories.SoftwareLicenseRepository;
+import com.spx.inventory_service.repositories.projections.SearchSuggestionView;
+import com.spx.inventory_service.utils.TextNormalizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Autocomplete over serial numbers, software names and office names.
+ *
+ * Each key gets up to two indexed queries (see schema.sql):
+ * - prefix matches: range scan on a lower(key) COLLATE "C" B-tree, already sorted, stops after limit rows
+ * - fuzzy matches (only when prefix matches do not fill the limit): pg_trgm GIN index, most similar first
+ */
+@Service
+public class SearchService {
+
+    public static final int MAX_SUGGESTIONS = 50;
+
+    // Shorter queries only run the prefix scan (a 1-2 char query has no meaningful trigrams)
+    private static final int MIN_QUERY_LENGTH = 2;
+    private static final int MIN_FUZZY_QUERY_LENGTH = 3;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private SoftwareLicenseRepository softwareLicenseRepository;
+
+    @Autowired
+    private OfficeRepository officeRepository;
+
+    /**
+     * Gets the top matches for a partial key.
+     *
+     * @param query the partial serial number / software name / office name
+     * @param limit the max number of matches per key
+     * @return the matches
+     */
+    public SearchSuggestionsDTO getSuggestions(String query, int limit) {
+
+        // Step 1: Normalize and validate the input
+        String normalizedQuery = TextNormalizer.normalizeKey(query);
+
+        if (normalizedQuery == null || normalizedQuery.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q must be at least " + MIN_QUERY_LENGTH + " characters long");    // Throw 400 HTTP Status code
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SUGGESTIONS);                 // Throw 400 HTTP Status code
+        }
+
+        // Step 2: LIKE pattern with the wildcards of the query escaped
+        String prefix = escapeLike(normalizedQuery) + "%";
+
+        // Step 3: Prefix matches first, fuzzy matches fill the rest
+        SearchSuggestionsDTO suggestions = new SearchSuggestionsDTO();
+        suggestions.setQuery(normalizedQuery);
+        suggestions.setSerialNumbers(suggest(normalizedQuery, prefix, limit,
+                assetRepository::findSerialNumbersStartingWith, assetRepository::findSerialNumbersSimilarTo));
+        suggestions.setSoftwareNames(suggest(normalizedQuery, prefix, limit,
+                softwareLicenseRepository::findSoftwareNamesStartingWith, softwareLicenseRepository::findSoftwareNamesSimilarTo));
+        suggestions.setOfficeNames(suggest(normalizedQuery, prefix, limit,
+                officeRepository::findNamesStartingWith, officeRepository::findNamesSimilarTo));
+
+        return suggestions;
+    }
+
+    private List<SearchSuggestionDTO> suggest(String query, String prefix, int limit, SuggestionFinder prefixFinder, SuggestionFinder fuzzyFinder) {
+
+        List<SearchSuggestionDTO> matches = new ArrayList<>(limit);
+
+        for (SearchSuggestionView view : prefixFinder.find(query, prefix, limit)) {
+            matches.add(new SearchSuggestionDTO(view.getValue(), view.getScore(), true));
+        }
+
+        if (matches.size() < limit && query.length() >= MIN_FUZZY_QUERY_LENGTH) {
+            for (SearchSuggestionView view : fuzzyFinder.find(query, prefix, limit - matches.size())) {
+                matches.add(new SearchSuggestionDTO(view.getValue(), view.getScore(), false));
+            }
+        }
+
+        return matches;
+    }
+
+    // Backslash is the default LIKE escape character in PostgreSQL
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @FunctionalInterface
+    private interface SuggestionFinder {
+        List<SearchSuggestionView> find(String query, String prefix, int limit);
+    }
+}
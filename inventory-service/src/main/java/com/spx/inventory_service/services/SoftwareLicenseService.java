@@ -1,19 +1,34 @@
 package com.spx.inventory_service.services;
+import com.spx.inventory_service.datasource.Workload;
+import com.spx.inventory_service.datasource.WorkloadType;
+import com.spx.inventory_service.dto.AssetResponseDTO;
+import com.spx.inventory_service.dto.KeysetPageDTO;
+import com.spx.inventory_service.dto.LicenseComplianceDTO;
+import com.spx.inventory_service.dto.LicenseComplianceReportDTO;
 import com.spx.inventory_service.dto.SoftwareLicenseRequestDTO;
 import com.spx.inventory_service.dto.SoftwareLicenseResponseDTO;
+import com.spx.inventory_service.dto.SoftwareLicenseSummaryDTO;
+import com.spx.inventory_service.events.InventoryEvent;
+import com.spx.inventory_service.mappers.AssetMapper;
 import com.spx.inventory_service.mappers.SoftwareLicenseMapper;
 import com.spx.inventory_service.models.Asset;
 import com.spx.inventory_service.models.SoftwareLicense;
 import com.spx.inventory_service.repositories.AssetRepository;
+import com.spx.inventory_service.repositories.AssetTypeRepository;
+import com.spx.inventory_service.repositories.ChangeLogRepository;
+import com.spx.inventory_service.repositories.OfficeRepository;
 import com.spx.inventory_service.repositories.SoftwareLicenseRepository;
+import com.spx.inventory_service.repositories.projections.LicenseComplianceView;
 import com.spx.inventory_service.utils.normalizer.SoftwareLicenseRequestNormalizer;
 import com.spx.inventory_service.utils.TextNormalizer;
 import com.spx.inventory_service.utils.validator.CreateValidator;
 import com.spx.inventory_service.utils.validator.ReadValidator;
+import com.spx.inventory_service.utils.validator.UpdateValidator;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -30,15 +45,33 @@ public class SoftwareLicenseService {
     @Autowired
     private AssetRepository assetRepository;
 
+    @Autowired
+    private OfficeRepository officeRepository;
+
+    @Autowired
+    private AssetTypeRepository assetTypeRepository;
+
     @Autowired
     private ReadValidator readValidator;
 
+    @Autowired
+    private UpdateValidator updateValidator;
+
     @Autowired
     private CreateValidator createValidator;
 
     @Autowired
     private SoftwareLicenseMapper softwareLicenseMapper;
 
+    @Autowired
+    private AssetMapper assetMapper;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ==========================================================
     // CRUD METHODS - From Repository Layer
     // ==========================================================
@@ -49,14 +82,15 @@ public class SoftwareLicenseService {
     // ==========================================================
 
     /**
-     * Gets all software licenses.
+     * Gets all software licenses (summary view).
      *
      * @return the all software licenses
      */
-    public List<SoftwareLicenseResponseDTO> getAllSoftwareLicenses() {
-        return softwareLicenseRepository.findAll()
+    @Workload(WorkloadType.REPORTING)
+    public List<SoftwareLicenseSummaryDTO> getAllSoftwareLicenses() {
+        return softwareLicenseRepository.findAllSummaries()
                 .stream()
-                .map(softwareLicenseMapper::toDTO)
+                .map(softwareLicenseMapper::toSummaryDTO)
                 .toList();
     }
 
@@ -71,8 +105,51 @@ public class SoftwareLicenseService {
         // Step 1: Check if the input Office entity is found and validate its name
         SoftwareLicense license = readValidator.checkIfEntityIsFound("SoftwareLicence", softwareName, softwareLicenseRepository::findBySoftwareNameIgnoreCase);
 
+        // Step 2: Count installations on the join table (installed assets are not loaded)
+        long installationCount = softwareLicenseRepository.countInstallations(license.getId());
+
         // Step 3: Mapper converts the entity into a DTO for response.
-        return softwareLicenseMapper.toDTO(license);
+        return softwareLicenseMapper.toDTO(license, installationCount);
+    }
+
+    /**
+     * Gets the assets where a software license is installed (keyset pagination).
+     *
+     * @param softwareName the software name
+     * @param after        the last asset id of the previous page (0 = first page)
+     * @param limit        the page size
+     * @return a page of installed assets
+     */
+    public KeysetPageDTO<AssetResponseDTO> getInstallationsBySoftwareName(String softwareName, long after, int limit) {
+
+        // Step 1: Validate the requested page size
+        readValidator.checkIfPageLimitIsValid(limit);
+
+        // Step 2: Check if the software license is found (only its id is read)
+        Long licenseId = readValidator.checkIfEntityIsFound("SoftwareLicence", softwareName, softwareLicenseRepository::findIdBySoftwareNameIgnoreCase);
+
+        // Step 3: Read one row more than requested, it only tells if there is a next page
+        List<AssetResponseDTO> rows = assetRepository.findInstalledAssetsPage(licenseId, after, limit + 1)
+                .stream()
+                .map(assetMapper::toDTO)
+                .toList();
+
+        return KeysetPageDTO.of(rows, limit, AssetResponseDTO::getId);
+    }
+
+    /**
+     * Counts the assets where a software license is installed.
+     *
+     * @param softwareName the software name
+     * @return the number of installations
+     */
+    public long countInstallationsBySoftwareName(String softwareName) {
+
+        // Step 1: Check if the software license is found (only its id is read)
+        Long licenseId = readValidator.checkIfEntityIsFound("SoftwareLicence", softwareName, softwareLicenseRepository::findIdBySoftwareNameIgnoreCase);
+
+        // Step 2: Count the rows of the join table
+        return softwareLicenseRepository.countInstallations(licenseId);
     }
 
 
@@ -100,8 +177,8 @@ public class SoftwareLicenseService {
 
         log.info("Software license created: {}", savedSoftwareLicense.getSoftwareName());
 
-        // Step 4. Convert Entity -> DTO
-        return softwareLicenseMapper.toDTO(savedSoftwareLicense);
+        // Step 4. Convert Entity -> DTO (a new license has no installations)
+        return softwareLicenseMapper.toDTO(savedSoftwareLicense, 0);
     }
 
     // ==========================================================
@@ -113,10 +190,11 @@ public class SoftwareLicenseService {
      *
      * @param softwareName          the software name
      * @param newSoftwareLicenseDTO the new software license dto
+     * @param expectedVersion       the version from the If-Match header (null = no check)
      * @return the software license response dto
      */
     @Transactional
-    public SoftwareLicenseResponseDTO updateSoftwareLicense(String softwareName, SoftwareLicenseRequestDTO newSoftwareLicenseDTO) {
+    public SoftwareLicenseResponseDTO updateSoftwareLicense(String softwareName, SoftwareLicenseRequestDTO newSoftwareLicenseDTO, Long expectedVersion) {
 
         // Step 1: Normalize the current software license name
         String normalizedCurrentName = TextNormalizer.normalizeKey(softwareName);
@@ -128,26 +206,29 @@ public class SoftwareLicenseService {
         SoftwareLicense existingSoftwareLicense = softwareLicenseRepository.findBySoftwareNameIgnoreCase(normalizedCurrentName).orElseThrow(() ->
                 new EntityNotFoundException("Software license not found"));
 
-        // Step 4: Extract the new software license name
+        // Step 4: Reject the update if the license changed since the client read it (If-Match)
+        updateValidator.checkIfVersionMatches("Software license", normalizedCurrentName, expectedVersion, existingSoftwareLicense.getVersion());
+
+        // Step 5: Extract the new software license name
         String newSoftwareLicenseName = normalizedUpdated.getSoftwareName();
 
-        // Step 5: If the newSoftwareLicenseName IS NOT EQUAL to the currentSoftwareLicenseName AND if the newSoftwareLicenseName already exists into the database...
+        // Step 6: If the newSoftwareLicenseName IS NOT EQUAL to the currentSoftwareLicenseName AND if the newSoftwareLicenseName already exists into the database...
         if (!normalizedCurrentName.equalsIgnoreCase(newSoftwareLicenseName) && softwareLicenseRepository.existsBySoftwareNameIgnoreCase(newSoftwareLicenseName)) {
             throw new IllegalArgumentException("Software license already exists: " + newSoftwareLicenseName);
         }
 
-        // Step 6: Update only mutable fields (in this case: office name).
+        // Step 7: Update only mutable fields (in this case: office name).
         existingSoftwareLicense.setSoftwareName(newSoftwareLicenseName);
         existingSoftwareLicense.setExpirationDate(normalizedUpdated.getExpirationDate());
         existingSoftwareLicense.setMaxInstallations(normalizedUpdated.getMaxInstallations());
 
-        // Step 7: Save the new updated Software license into the database
-        SoftwareLicense saved = softwareLicenseRepository.save(existingSoftwareLicense);
+        // Step 8: Save the new updated Software license into the database
+        SoftwareLicense saved = softwareLicenseRepository.saveAndFlush(existingSoftwareLicense);
 
         log.info("Software license updated. OldName: {}, NewName: {}", normalizedCurrentName, newSoftwareLicenseName);
 
-        // Step 8: Convert Entity -> DTO
-        return softwareLicenseMapper.toDTO(saved);
+        // Step 9: Convert Entity -> DTO
+        return softwareLicenseMapper.toDTO(saved, softwareLicenseRepository.countInstallations(saved.getId()));
     }
 
 
@@ -167,12 +248,12 @@ public class SoftwareLicenseService {
         String normalizedName = TextNormalizer.normalizeKey(softwareName);
 
         // Step 2: Validate entity existence before deletion.
-        if (!softwareLicenseRepository.existsBySoftwareNameIgnoreCase(normalizedName)) {
-            throw new EntityNotFoundException("Software license not found");
-        }
+        SoftwareLicense softwareLicense = softwareLicenseRepository.findBySoftwareNameIgnoreCase(normalizedName)
+                .orElseThrow(() -> new EntityNotFoundException("Software license not found"));
 
-        // Step 3: Proceed with deletion.
-        softwareLicenseRepository.deleteBySoftwareNameIgnoreCase(normalizedName);
+        // Step 3: Proceed with deletion (join table rows first, installed assets are not loaded) and leave a tombstone for GET /changes
+        softwareLicenseRepository.delete(softwareLicense);
+        changeLogRepository.recordDeletion(ChangeLogRepository.EntityType.SOFTWARE_LICENSE, softwareLicense.getId(), normalizedName);
 
 
         log.info("Software license deleted: {}", normalizedName);
@@ -233,10 +314,14 @@ public class SoftwareLicenseService {
         // Step 9: Save the entity into the database
         SoftwareLicense savedSoftwareLicense = softwareLicenseRepository.save(softwareLicense);
 
+        // The license row does not change but its installation count does: new change version (GET /changes)
+        softwareLicenseRepository.touchChangeVersion(softwareLicense.getId());
+        eventPublisher.publishEvent(InventoryEvent.licenseInstalled(softwareLicense, asset));
+
         log.info("Software successfully installed. Software license name:{}, Asset serial number:{}", normalizedSoftwareName, normalizedSerialNumber);
 
-        // Step 10: Convert Entity -> DTO
-        return softwareLicenseMapper.toDTO(savedSoftwareLicense);
+        // Step 10: Convert Entity -> DTO (installed assets are already loaded by the checks above)
+        return softwareLicenseMapper.toDTO(savedSoftwareLicense, savedSoftwareLicense.getInstalledAssets().size());
     }
 
     /**
@@ -277,10 +362,14 @@ public class SoftwareLicenseService {
         // Step 6: Save the entity into the database
         SoftwareLicense savedSoftwareLicense = softwareLicenseRepository.save(softwareLicense);
 
+        // The license row does not change but its installation count does: new change version (GET /changes)
+        softwareLicenseRepository.touchChangeVersion(softwareLicense.getId());
+        eventPublisher.publishEvent(InventoryEvent.licenseUninstalled(softwareLicense, asset));
+
         log.info("Software uninstalled. Software license name:{}, Asset serial number:{}", normalizedSoftwareName, normalizedSerialNumber);
 
-        // Step 7: Convert Entity -> DTO
-        return softwareLicenseMapper.toDTO(savedSoftwareLicense);
+        // Step 7: Convert Entity -> DTO (installed assets are already loaded by the checks above)
+        return softwareLicenseMapper.toDTO(savedSoftwareLicense, savedSoftwareLicense.getInstalledAssets().size());
 
     }
 
@@ -292,7 +381,7 @@ public class SoftwareLicenseService {
      * @return the installed software by asset
      */
     // Retrieve all the licenses owned by an asset
-    public List<SoftwareLicenseResponseDTO> getInstalledSoftwareLicenseBySerialNumber(String serialNumber) {
+    public List<SoftwareLicenseSummaryDTO> getInstalledSoftwareLicenseBySerialNumber(String serialNumber) {
 
         // Step 1: Normalize the incoming asset serial number
         String normalizedSerialNumber = TextNormalizer.normalizeKey(serialNumber);
@@ -300,29 +389,54 @@ public class SoftwareLicenseService {
         log.info("Audit software for asset. Asset serial number: {}", normalizedSerialNumber);
 
         return softwareLicenseRepository
-                .findByInstalledAssets_SerialNumberIgnoreCase(normalizedSerialNumber)
+                .findSummariesBySerialNumber(normalizedSerialNumber)
                 .stream()
-                .map(softwareLicenseMapper::toDTO)
+                .map(softwareLicenseMapper::toSummaryDTO)
                 .toList();
 
 
     }
 
     /**
-     * Gets licenses expiring soon.
+     * Gets the license compliance report (installed seats against maxInstallations, expired but installed).
      *
-     * @return the licenses expiring soon
+     * @param officeName     optional office filter (null = all offices)
+     * @param assetTypeName  optional asset type filter (null = all asset types)
+     * @param onlyViolations keep only over-allocated or expired-but-installed licenses
+     * @return the compliance report
      */
-    // Retrieve all the licenses that will expire in 30 days
-    public List<SoftwareLicenseResponseDTO> getSoftwareLicensesExpiringSoon() {
-
-        LocalDate today = LocalDate.now();
-        LocalDate limit = today.plusDays(30);
-
-        return softwareLicenseRepository.findByExpirationDateBetween(today, limit)
-                .stream()
-                .map(softwareLicenseMapper::toDTO)
+    @Workload(WorkloadType.REPORTING)
+    public LicenseComplianceReportDTO getComplianceReport(String officeName, String assetTypeName, boolean onlyViolations) {
+
+        // Step 1: Resolve the optional filters (404 if the office or asset type does not exist)
+        Long officeId = officeName == null ? null :
+                readValidator.checkIfEntityIsFound("Office", officeName, officeRepository::findByNameIgnoreCase).getId();
+        Long assetTypeId = assetTypeName == null ? null :
+                readValidator.checkIfEntityIsFound("Asset type", assetTypeName, assetTypeRepository::findByAssetTypeNameIgnoreCase).getId();
+
+        // Step 2: One grouped query computes every row
+        List<LicenseComplianceView> rows = (officeId == null && assetTypeId == null)
+                ? softwareLicenseRepository.findComplianceRows()
+                : softwareLicenseRepository.findComplianceRowsByScope(officeId, assetTypeId);
+
+        // Step 3: Keep the requested rows
+        List<LicenseComplianceDTO> reportRows = rows.stream()
+                .map(softwareLicenseMapper::toComplianceDTO)
+                .filter(row -> !onlyViolations || row.getOverAllocatedSeats() > 0 || row.getExpiredInstallations() > 0)
                 .toList();
+
+        // Step 4: Totals
+        LicenseComplianceReportDTO report = new LicenseComplianceReportDTO();
+        report.setAsOf(LocalDate.now());
+        report.setOfficeName(TextNormalizer.normalizeKey(officeName));
+        report.setAssetTypeName(TextNormalizer.normalizeKey(assetTypeName));
+        report.setLicenses(reportRows.size());
+        report.setOverAllocatedLicenses(reportRows.stream().filter(row -> row.getOverAllocatedSeats() > 0).count());
+        report.setExpiredInstalledLicenses(reportRows.stream().filter(row -> row.getExpiredInstallations() > 0).count());
+        report.setOverAllocatedSeats(reportRows.stream().mapToLong(LicenseComplianceDTO::getOverAllocatedSeats).sum());
+        report.setExpiredInstallations(reportRows.stream().mapToLong(LicenseComplianceDTO::getExpiredInstallations).sum());
+        report.setRows(reportRows);
+
+        return report;
     }
 }
-
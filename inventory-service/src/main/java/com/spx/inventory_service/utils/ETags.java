@@ -0,0 +1,75 @@
+package com.spx.inventory_service.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Entity versions (@Version) and response bodies as HTTP ETags.
+ *
+ * - ETag: "<version>.<digest>" (strong). The digest is taken from the serialized body, so anything else the response
+ *   shows changes the tag too: a renamed office or asset type in an asset, the installation count of a license,
+ *   its expired flag (which changes with the date)
+ * - If-Match: a single strong ETag or "*". Only the version part is compared (the row the update writes)
+ * - If-None-Match on GET is handled by Spring (304) when the ResponseEntity carries the ETag
+ */
+public final class ETags {
+
+    // Same JSON for the same values, whatever the field order of the DTO
+    private static final ObjectMapper BODY_WRITER = JsonMapper.builder()
+            .findAndAddModules()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+
+    // Constructor
+    private ETags() {
+    }
+
+    public static String of(Long version, Object body) {
+        return "\"" + version + "." + digest(body) + "\"";
+    }
+
+    private static String digest(Object body) {
+        try {
+            return DigestUtils.md5DigestAsHex(BODY_WRITER.writeValueAsBytes(body)).substring(0, 16);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot compute the ETag of " + body.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Reads the expected version from an If-Match header.
+     *
+     * @param ifMatch the header value (may be null)
+     * @return the expected version, null when the header is absent or "*" (unconditional update)
+     */
+    public static Long parseIfMatch(String ifMatch) {
+
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String etag = ifMatch.trim();
+
+        if (etag.startsWith("W/")) {
+            throw new IllegalArgumentException("If-Match needs a strong ETag, not " + etag);   // Throw 400 HTTP Status code
+        }
+        if (etag.contains(",")) {
+            throw new IllegalArgumentException("If-Match must contain a single ETag");   // Throw 400 HTTP Status code
+        }
+        if (etag.length() < 2 || !etag.startsWith("\"") || !etag.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match ETag must be quoted: " + etag);   // Throw 400 HTTP Status code
+        }
+
+        String value = etag.substring(1, etag.length() - 1);
+        int dot = value.indexOf('.');
+
+        try {
+            return Long.parseLong(dot < 0 ? value : value.substring(0, dot));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown ETag: " + etag);   // Throw 400 HTTP Status code
+        }
+    }
+}
@@ -1,41 +1,125 @@
 package com.spx.inventory_service.utils;
-import lombok.extern.slf4j.Slf4j;
 
 import java.util.Locale;
 
-@Slf4j
+/**
+ * Normalizes incoming keys and descriptions.
+ *
+ * Normalization rules (same result as trim() + replaceAll("\\s+", " ") [+ toLowerCase(Locale.ROOT)]):
+ * - leading and trailing control characters and spaces are removed
+ * - every run of whitespace (space, tab, line feed, vertical tab, form feed, carriage return) becomes a single space
+ * - keys are lowercased
+ *
+ * The input is scanned once. If it is already normalized the same String instance is returned,
+ * so the common case (clients sending clean keys) does not allocate.
+ */
 public final class TextNormalizer {
 
+    // Constructor
+    private TextNormalizer() {
+    }
+
     /* Clean and normalize an incoming key value */
     public static String normalizeKey(String incomingText) {
 
         if (incomingText == null) {
-
-            log.info("There is no text to normalize");
             return null;
-
         }
 
         // Convert key value text
-        return incomingText.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
-
+        return normalize(incomingText, true);
     }
 
     /* Clean and normalize a description (= no lowercase) */
     public static String normalizeText(String incomingDescription) {
 
         if (incomingDescription == null) {
-
-           log.info("There is no description to normalize");
             return null;
-
         }
 
         // Convert description
-        return incomingDescription.trim().replaceAll("\\s+", " ");
+        return normalize(incomingDescription, false);
+    }
 
+    private static String normalize(String input, boolean lowerCase) {
+
+        // Step 1: Find trim bounds (same rule as String.trim())
+        int start = 0;
+        int end = input.length();
+
+        while (start < end && input.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        // Step 2: Look for the first char that must change.
+        // After trimming, input.charAt(end - 1) is never whitespace, so i + 1 is always in range.
+        int i = start;
+        while (i < end) {
+            char c = input.charAt(i);
+
+            if (isWhitespace(c)) {
+                if (c != ' ' || isWhitespace(input.charAt(i + 1))) {
+                    break;
+                }
+            } else if (lowerCase && needsLowerCase(c)) {
+                break;
+            }
+            i++;
+        }
+
+        // Step 3: Nothing to rewrite, return the input (or a trimmed view of it)
+        if (i == end) {
+            return (start == 0 && end == input.length()) ? input : input.substring(start, end);
+        }
+
+        // Step 4: Rewrite the remaining part in a single buffer
+        StringBuilder builder = new StringBuilder(end - start);
+        builder.append(input, start, i);
+
+        boolean previousWhitespace = false;
+        boolean nonAscii = false;
+
+        for (; i < end; i++) {
+            char c = input.charAt(i);
+
+            if (isWhitespace(c)) {
+                if (!previousWhitespace) {
+                    builder.append(' ');
+                    previousWhitespace = true;
+                }
+                continue;
+            }
+
+            previousWhitespace = false;
+
+            if (lowerCase && c >= 'A' && c <= 'Z') {
+                builder.append((char) (c + ('a' - 'A')));
+            } else {
+                nonAscii |= c >= 0x80;
+                builder.append(c);
+            }
+        }
+
+        String normalized = builder.toString();
+
+        // Non-ASCII letters (e.g. U+0130, surrogate pairs) keep the exact String.toLowerCase semantics
+        return (lowerCase && nonAscii) ? normalized.toLowerCase(Locale.ROOT) : normalized;
     }
-}
 
+    // Same set of characters matched by the regex "\\s"
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
 
+    private static boolean needsLowerCase(char c) {
 
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z';
+        }
+
+        return Character.isSurrogate(c) || Character.toLowerCase(c) != c;
+    }
+}
@@ -0,0 +1,42 @@
+package com.spx.inventory_service.utils.normalizer;
+
+import com.spx.inventory_service.dto.AssetSearchRequestDTO;
+import com.spx.inventory_service.utils.TextNormalizer;
+
+/**
+ * Utility class responsible for normalizing incoming AssetSearchRequestDTO filters.
+ *
+ * Normalization rules:
+ * - officeName, assetTypeName, softwareName: normalized as keys, blank = no filter
+ * - purchasedFrom, purchasedTo: untouched
+ */
+public class AssetSearchRequestNormalizer {
+
+    // Constructor
+    private AssetSearchRequestNormalizer() {
+
+    }
+
+    // Method for fields normalization
+    public static AssetSearchRequestDTO normalize(AssetSearchRequestDTO inputSearchRequestDTO) {
+
+        AssetSearchRequestDTO normalized = new AssetSearchRequestDTO();
+
+        if (inputSearchRequestDTO == null) {
+            return normalized;
+        }
+
+        normalized.setOfficeName(normalizeFilter(inputSearchRequestDTO.getOfficeName()));
+        normalized.setAssetTypeName(normalizeFilter(inputSearchRequestDTO.getAssetTypeName()));
+        normalized.setSoftwareName(normalizeFilter(inputSearchRequestDTO.getSoftwareName()));
+        normalized.setPurchasedFrom(inputSearchRequestDTO.getPurchasedFrom());
+        normalized.setPurchasedTo(inputSearchRequestDTO.getPurchasedTo());
+
+        return normalized;
+    }
+
+    private static String normalizeFilter(String value) {
+        String normalized = TextNormalizer.normalizeKey(value);
+        return (normalized == null || normalized.isEmpty()) ? null : normalized;
+    }
+}
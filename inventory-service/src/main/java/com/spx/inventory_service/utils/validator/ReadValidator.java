@@ -12,6 +12,9 @@ import java.util.function.Function;
 @Component
 public class ReadValidator {
 
+    // Upper bound for the "limit" of keyset paginated endpoints
+    public static final int MAX_PAGE_LIMIT = 500;
+
     /* Using <Generics>:
        T = Generic entity Type ex. Office, Asset, SoftwareLicence
        K = Generic identifier type, can be a String, an int, a Long
@@ -60,4 +63,15 @@ public class ReadValidator {
 
     }
 
+    /* Checks the page size requested on a keyset paginated endpoint */
+    public int checkIfPageLimitIsValid(int limit) {
+
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            log.error("Invalid page limit: {}", limit);
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_LIMIT);   // Throw 400 HTTP Status code
+        }
+
+        return limit;
+    }
+
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.spx.inventory_service.utils.validator;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 
 import java.util.function.Function;
@@ -20,4 +21,19 @@ public class UpdateValidator {
         }
     }
 
+    /**
+     * Conditional update (If-Match): the client must have read the current version of the entity.
+     *
+     * @param expectedVersion the version sent by the client (null = unconditional update)
+     * @param currentVersion  the version of the loaded entity
+     */
+    public void checkIfVersionMatches(String entityName, String key, Long expectedVersion, Long currentVersion) {
+
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+
+            log.warn("{} '{}' modified concurrently. Expected version: {}, current version: {}", entityName, key, expectedVersion, currentVersion);
+            throw new OptimisticLockingFailureException(entityName + " '" + key + "' has been modified by another request, reload it and retry");   // Throw 412 HTTP Status code
+        }
+    }
+
 }
\ No newline at end of file
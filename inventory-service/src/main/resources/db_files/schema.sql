@@ -1,3 +1,10 @@
+-- ============================================================
+-- EXTENSIONS
+-- ============================================================
+
+-- Trigram matching for the autocomplete (trusted extension since PostgreSQL 13: the database owner can create it)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- ============================================================
 -- SCHEMA
 -- ============================================================
@@ -38,5 +45,135 @@ CREATE TABLE IF NOT EXISTS assets_licenses (
     FOREIGN KEY (license_id) REFERENCES software_licenses(id_software_license)
 );
 
+-- Asset counters by office and asset type (maintained by AssetService, rebuilt at startup).
+-- Counter rows stay at 0 when the last asset leaves: they go with their office or asset type
+-- (the assets foreign keys still refuse the delete while assets remain).
+CREATE TABLE IF NOT EXISTS asset_counters (
+    id_office BIGINT NOT NULL,
+    id_asset_type BIGINT NOT NULL,
+    asset_count BIGINT NOT NULL DEFAULT 0,
+    dated_count BIGINT NOT NULL DEFAULT 0,
+    purchase_day_sum BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id_office, id_asset_type),
+    FOREIGN KEY (id_office) REFERENCES offices(id_office) ON DELETE CASCADE,
+    FOREIGN KEY (id_asset_type) REFERENCES asset_types(id_asset_type) ON DELETE CASCADE
+);
+
+-- ============================================================
+-- CHANGE TRACKING (GET /changes)
+-- ============================================================
+
+-- One version sequence shared by every tracked table and the tombstones: a single watermark covers all of them
+CREATE SEQUENCE IF NOT EXISTS change_version_seq;
+
+-- ALTER (not in CREATE TABLE) so existing databases get the columns too. Existing rows get distinct versions.
+ALTER TABLE offices ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT nextval('change_version_seq');
+ALTER TABLE offices ADD COLUMN IF NOT EXISTS changed_at TIMESTAMPTZ NOT NULL DEFAULT clock_timestamp();
+ALTER TABLE asset_types ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT nextval('change_version_seq');
+ALTER TABLE asset_types ADD COLUMN IF NOT EXISTS changed_at TIMESTAMPTZ NOT NULL DEFAULT clock_timestamp();
+ALTER TABLE assets ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT nextval('change_version_seq');
+ALTER TABLE assets ADD COLUMN IF NOT EXISTS changed_at TIMESTAMPTZ NOT NULL DEFAULT clock_timestamp();
+ALTER TABLE software_licenses ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT nextval('change_version_seq');
+ALTER TABLE software_licenses ADD COLUMN IF NOT EXISTS changed_at TIMESTAMPTZ NOT NULL DEFAULT clock_timestamp();
+
+-- Deleted rows (entity type + domain key), written in the same transaction as the delete
+CREATE TABLE IF NOT EXISTS change_tombstones (
+    change_version BIGINT PRIMARY KEY DEFAULT nextval('change_version_seq'),
+    entity_type VARCHAR(30) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    entity_key VARCHAR(200) NOT NULL,
+    changed_at TIMESTAMPTZ NOT NULL DEFAULT clock_timestamp()
+);
+
+-- Transaction id (64 bit, never wraps) of the last write, set with change_version.
+-- The feed is read in (change_xid, change_version) order and stops below the oldest transaction still running:
+-- a transaction that commits later always has a greater id, so it can never land behind a client watermark.
+ALTER TABLE offices ADD COLUMN IF NOT EXISTS change_xid BIGINT NOT NULL DEFAULT pg_current_xact_id()::text::bigint;
+ALTER TABLE asset_types ADD COLUMN IF NOT EXISTS change_xid BIGINT NOT NULL DEFAULT pg_current_xact_id()::text::bigint;
+ALTER TABLE assets ADD COLUMN IF NOT EXISTS change_xid BIGINT NOT NULL DEFAULT pg_current_xact_id()::text::bigint;
+ALTER TABLE software_licenses ADD COLUMN IF NOT EXISTS change_xid BIGINT NOT NULL DEFAULT pg_current_xact_id()::text::bigint;
+ALTER TABLE change_tombstones ADD COLUMN IF NOT EXISTS change_xid BIGINT NOT NULL DEFAULT pg_current_xact_id()::text::bigint;
+
+-- ============================================================
+-- OPTIMISTIC LOCKING (@Version, ETag / If-Match)
+-- ============================================================
+
+ALTER TABLE offices ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE asset_types ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE assets ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE software_licenses ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- ============================================================
+-- EVENT OUTBOX
+-- ============================================================
+
+-- Inventory events written in the transaction of the change, deleted by the relay once published.
+-- The relay reads it in id order (primary key), so no other index is needed
+CREATE TABLE IF NOT EXISTS event_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type VARCHAR(30) NOT NULL,
+    aggregate_key VARCHAR(200) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT clock_timestamp()
+);
+
+-- ============================================================
+-- AUDIT TRAIL
+-- ============================================================
+
+-- Append-only history of the inventory mutations (who, what, when), written in batches after commit
+CREATE TABLE IF NOT EXISTS asset_audit (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type VARCHAR(30) NOT NULL,
+    serial_number VARCHAR(200) NOT NULL,
+    office_name VARCHAR(200),
+    asset_type_name VARCHAR(200),
+    software_name VARCHAR(200),
+    previous_value VARCHAR(200),
+    username VARCHAR(100) NOT NULL,
+    occurred_at TIMESTAMPTZ NOT NULL,
+    recorded_at TIMESTAMPTZ NOT NULL DEFAULT clock_timestamp()
+);
+
+-- ============================================================
+-- INDEXES
+-- ============================================================
+
+-- Reverse direction of the assets_licenses primary key: licenses of an asset (keyset pages, counts)
+CREATE INDEX IF NOT EXISTS idx_assets_licenses_asset ON assets_licenses (asset_id, license_id);
+
+-- Expiry range scans (expiring-soon drill-down, expiry snapshot)
+CREATE INDEX IF NOT EXISTS idx_software_licenses_expiration ON software_licenses (expiration_date);
+
+-- Asset filters (search, compliance report scopes). Match the common combinations:
+-- office [+ type] [+ purchase date range], type [+ purchase date range]. They also index the foreign keys.
+CREATE INDEX IF NOT EXISTS idx_assets_office_type_purchase ON assets (id_office, id_asset_type, purchase_date);
+CREATE INDEX IF NOT EXISTS idx_assets_type_purchase ON assets (id_asset_type, purchase_date);
+
+-- Case-insensitive serial number lookups (findBySerialNumberIgnoreCase and the other upper(serial_number) = upper(?) finders,
+-- batch lookup with upper(serial_number) IN (...)). Unique: it is also the conflict target of the feed upsert
+-- (INSERT ... ON CONFLICT ((upper(serial_number)))) and replaces the former non-unique idx_assets_serial_upper
+DROP INDEX IF EXISTS idx_assets_serial_upper;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_assets_serial_upper ON assets (upper(serial_number));
+
+-- Purchase date ranges without office / asset type (B-tree: rows are not inserted in purchase date order, so BRIN would not prune)
+CREATE INDEX IF NOT EXISTS idx_assets_purchase_date ON assets (purchase_date);
+
+-- Autocomplete (SearchService). "C" collation B-trees serve prefix LIKE and its ORDER BY with a range scan,
+-- trigram GIN indexes serve the fuzzy (%) matches
+CREATE INDEX IF NOT EXISTS idx_assets_serial_prefix ON assets ((lower(serial_number)) COLLATE "C");
+CREATE INDEX IF NOT EXISTS idx_assets_serial_trgm ON assets USING GIN (lower(serial_number) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_software_licenses_name_prefix ON software_licenses ((lower(software_name)) COLLATE "C");
+CREATE INDEX IF NOT EXISTS idx_software_licenses_name_trgm ON software_licenses USING GIN (lower(software_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_offices_name_prefix ON offices ((lower(name)) COLLATE "C");
+CREATE INDEX IF NOT EXISTS idx_offices_name_trgm ON offices USING GIN (lower(name) gin_trgm_ops);
 
+-- Change feed: keyset scans on (transaction, version) of every tracked table and of the tombstones
+CREATE INDEX IF NOT EXISTS idx_offices_change_xid ON offices (change_xid, change_version);
+CREATE INDEX IF NOT EXISTS idx_asset_types_change_xid ON asset_types (change_xid, change_version);
+CREATE INDEX IF NOT EXISTS idx_assets_change_xid ON assets (change_xid, change_version);
+CREATE INDEX IF NOT EXISTS idx_software_licenses_change_xid ON software_licenses (change_xid, change_version);
+CREATE INDEX IF NOT EXISTS idx_change_tombstones_change_xid ON change_tombstones (change_xid, change_version);
 
+-- History of one asset, newest first
+CREATE INDEX IF NOT EXISTS idx_asset_audit_serial ON asset_audit (upper(serial_number), id);
@@ -0,0 +1,91 @@
+package com.spx.inventory_service.audit;
+
+import com.spx.inventory_service.services.AssetService;
+import com.spx.inventory_service.services.AuditService;
+import com.spx.inventory_service.support.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+
+import java.util.List;
+
+import static com.spx.inventory_service.support.TestFixtures.assetCreatedEvent;
+import static com.spx.inventory_service.support.TestFixtures.assetRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AssetAuditTrailTests extends IntegrationTestSupport {
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AssetAuditTrail assetAuditTrail;
+
+    @Test
+    void mutationsAreWrittenAfterFlush() {
+
+        String serialNumber = assetService.createAsset(assetRequest(uniqueKey("audit"), "milan")).getSerialNumber();
+        assetService.moveAssetToOfficeByName(serialNumber, "naples", null);
+
+        // Records are queued after commit and written by the flusher: flush now instead of waiting
+        assetAuditTrail.flush();
+
+        List<AuditRecord> history = auditService.getAssetHistory(serialNumber, 10);
+
+        assertEquals(List.of("ASSET_MOVED", "ASSET_CREATED"), history.stream().map(AuditRecord::eventType).toList());
+        assertEquals("milan", history.get(0).previousValue());
+        assertEquals("system", history.get(0).username());
+    }
+
+    @Test
+    void consolidationIsRecordedAsAMoveOfEveryAsset() {
+
+        String from = uniqueKey("office");
+        String into = uniqueKey("office");
+        jdbcTemplate.update("INSERT INTO offices (name) VALUES (?), (?)", from, into);
+
+        String first = assetService.createAsset(assetRequest(uniqueKey("audit"), from)).getSerialNumber();
+        String second = assetService.createAsset(assetRequest(uniqueKey("audit"), from)).getSerialNumber();
+        assetService.consolidateOffice(from, into);
+
+        assetAuditTrail.flush();
+
+        for (String serialNumber : List.of(first, second)) {
+            AuditRecord move = auditService.getAssetHistory(serialNumber, 10).get(0);
+            assertEquals("ASSET_MOVED", move.eventType());
+            assertEquals(from, move.previousValue());
+            assertEquals(into, move.officeName());
+        }
+    }
+
+    @Test
+    void batchThatCannotBeWrittenIsDeadLettered() {
+
+        // Nothing else in the next batch
+        assetAuditTrail.flush();
+        long deadLetteredBefore = assetAuditTrail.getDeadLetteredRecords();
+
+        // serial_number is VARCHAR(200): this insert always fails
+        assetAuditTrail.onInventoryEvent(assetCreatedEvent("x".repeat(250)));
+
+        // The failed attempts throw (the background flusher may run some of them), the last one drops the batch
+        for (int attempt = 0; attempt < 3; attempt++) {
+            try {
+                assetAuditTrail.flush();
+            } catch (DataAccessException expected) {
+                // retried on the next attempt
+            }
+        }
+
+        assertEquals(deadLetteredBefore + 1, assetAuditTrail.getDeadLetteredRecords());
+
+        // The trail is not blocked
+        String serialNumber = assetService.createAsset(assetRequest(uniqueKey("audit"), "milan")).getSerialNumber();
+        assetAuditTrail.flush();
+
+        assertEquals(List.of("ASSET_CREATED"), auditService.getAssetHistory(serialNumber, 10).stream().map(AuditRecord::eventType).toList());
+    }
+}
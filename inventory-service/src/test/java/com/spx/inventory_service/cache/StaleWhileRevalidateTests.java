@@ -0,0 +1,205 @@
+package com.spx.inventory_service.cache;
+
+import com.spx.inventory_service.cache.StaleWhileRevalidate.CachedRead;
+import com.spx.inventory_service.config.CaffeineCacheConfig;
+import com.spx.inventory_service.support.IntegrationTestSupport;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class StaleWhileRevalidateTests extends IntegrationTestSupport {
+
+    private static final String CACHE = CaffeineCacheConfig.OFFICES_BY_NAME;
+
+    @Autowired
+    private StaleWhileRevalidate staleWhileRevalidate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Value("${inventory.cache.revalidate-threads:8}")
+    private int revalidateThreads;
+
+    // Released after each test: the blocked loads end and their loader threads are free again
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseBlockedLoads() {
+        release.countDown();
+    }
+
+    @Test
+    void slowLoadServesTheLastKnownValue() {
+
+        String key = uniqueKey("office");
+        staleWhileRevalidate.read(CACHE, key, () -> "v1");
+
+        // Over the load budget (0.5s by default)
+        CachedRead<String> read = staleWhileRevalidate.read(CACHE, key, blocked("v2"));
+
+        assertTrue(read.stale());
+        assertEquals("v1", read.value());
+    }
+
+    @Test
+    void connectionFailureServesTheLastKnownValue() {
+
+        String key = uniqueKey("office");
+        staleWhileRevalidate.read(CACHE, key, () -> "v1");
+
+        CachedRead<String> read = staleWhileRevalidate.read(CACHE, key, () -> {
+            throw new CannotGetJdbcConnectionException("Connection is not available, request timed out after 30000ms");
+        });
+
+        assertTrue(read.stale());
+        assertEquals("v1", read.value());
+    }
+
+    @Test
+    void busyLoadersServeTheLastKnownValue() throws Exception {
+
+        String key = uniqueKey("office");
+        staleWhileRevalidate.read(CACHE, key, () -> "v1");
+
+        // Every loader thread blocked on a load (each caller gets its stale value after the budget)
+        ExecutorService clients = Executors.newFixedThreadPool(revalidateThreads);
+
+        try {
+            List<Future<CachedRead<String>>> blockedReads = new ArrayList<>();
+
+            for (int i = 0; i < revalidateThreads; i++) {
+                String blockedKey = uniqueKey("office");
+                staleWhileRevalidate.read(CACHE, blockedKey, () -> "v1");
+                blockedReads.add(clients.submit(() -> staleWhileRevalidate.read(CACHE, blockedKey, blocked("v2"))));
+            }
+            for (Future<CachedRead<String>> blockedRead : blockedReads) {
+                assertTrue(blockedRead.get(10, TimeUnit.SECONDS).stale());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        // No loader left: the last known value right away, the load never runs
+        AtomicBoolean loaded = new AtomicBoolean();
+        CachedRead<String> read = staleWhileRevalidate.read(CACHE, key, () -> {
+            loaded.set(true);
+            return "v2";
+        });
+
+        assertTrue(read.stale());
+        assertEquals("v1", read.value());
+        assertFalse(loaded.get());
+    }
+
+    @Test
+    void slowLoadWithoutLastKnownValueWaits() {
+
+        // Released after the budget: no last known value, so the caller waits for the load
+        CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS).execute(release::countDown);
+
+        CachedRead<String> read = staleWhileRevalidate.read(CACHE, uniqueKey("office"), blocked("v1"));
+
+        assertFalse(read.stale());
+        assertEquals("v1", read.value());
+    }
+
+    @Test
+    void notFoundIsNeverHidden() {
+
+        String key = uniqueKey("office");
+        staleWhileRevalidate.read(CACHE, key, () -> "v1");
+
+        assertThrows(EntityNotFoundException.class, () -> staleWhileRevalidate.read(CACHE, key, () -> {
+            throw new EntityNotFoundException("Office not found");
+        }));
+    }
+
+    // ==========================================================
+    // HTTP (Warning header)
+    // ==========================================================
+
+    @Test
+    void officesAreServedStaleWhileTheTableIsLocked() throws Exception {
+        assertServedStaleWhileLocked("/offices/all", "offices", CaffeineCacheConfig.OFFICES_ALL);
+    }
+
+    @Test
+    void assetTypesAreServedStaleWhileTheTableIsLocked() throws Exception {
+        assertServedStaleWhileLocked("/asset-types/all", "asset_types", CaffeineCacheConfig.ASSET_TYPES_ALL);
+    }
+
+    // First GET loads the list, the second one finds the cache empty and the table locked (a slow database)
+    private void assertServedStaleWhileLocked(String url, String table, String cacheName) throws Exception {
+
+        // Controllers only: the security filters are not under test
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.WARNING));
+
+        cacheManager.getCache(cacheName).clear();
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+
+            connection.setAutoCommit(false);
+            statement.execute("LOCK TABLE " + table + " IN ACCESS EXCLUSIVE MODE");
+
+            try {
+                mockMvc.perform(get(url))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(HttpHeaders.WARNING, StaleWhileRevalidate.STALE_WARNING));
+            } finally {
+                // The blocked load completes and fills the cache again
+                connection.rollback();
+            }
+        }
+    }
+
+    private Supplier<String> blocked(String value) {
+        return () -> {
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        };
+    }
+}
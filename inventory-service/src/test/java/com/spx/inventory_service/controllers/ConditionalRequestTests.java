@@ -0,0 +1,72 @@
+package com.spx.inventory_service.controllers;
+
+import com.spx.inventory_service.services.AssetService;
+import com.spx.inventory_service.services.OfficeService;
+import com.spx.inventory_service.services.SoftwareLicenseService;
+import com.spx.inventory_service.support.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDate;
+
+import static com.spx.inventory_service.support.TestFixtures.assetRequest;
+import static com.spx.inventory_service.support.TestFixtures.officeRequest;
+import static com.spx.inventory_service.support.TestFixtures.softwareLicenseRequest;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionalRequestTests extends IntegrationTestSupport {
+
+    @Autowired
+    private AssetController assetController;
+
+    @Autowired
+    private SoftwareLicenseController softwareLicenseController;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private OfficeService officeService;
+
+    @Autowired
+    private SoftwareLicenseService softwareLicenseService;
+
+    @Test
+    void renamingTheOfficeOfAnAssetChangesItsETag() {
+
+        String officeName = officeService.createOffice(officeRequest(uniqueKey("office"))).getOfficeName();
+        String serialNumber = assetService.createAsset(assetRequest(uniqueKey("asset"), officeName)).getSerialNumber();
+        String etag = assetController.getAssetBySerialNumber(serialNumber).getHeaders().getETag();
+
+        assertTrue(isNotModified(etag, assetController.getAssetBySerialNumber(serialNumber).getHeaders().getETag()));
+
+        // The asset row does not change, its response does
+        officeService.updateExistingOfficeByName(officeName, officeRequest(uniqueKey("office")), null);
+
+        assertFalse(isNotModified(etag, assetController.getAssetBySerialNumber(serialNumber).getHeaders().getETag()));
+    }
+
+    @Test
+    void installingALicenseChangesItsETag() {
+
+        String name = softwareLicenseService.createSoftwareLicense(softwareLicenseRequest(uniqueKey("license"), LocalDate.now().plusYears(1))).getSoftwareName();
+        String serialNumber = assetService.createAsset(assetRequest(uniqueKey("asset"), "milan")).getSerialNumber();
+        String etag = softwareLicenseController.getSoftwareLicenseByName(name).getHeaders().getETag();
+
+        softwareLicenseService.installSoftwareLicenseOnAsset(name, serialNumber);
+
+        assertFalse(isNotModified(etag, softwareLicenseController.getSoftwareLicenseByName(name).getHeaders().getETag()));
+    }
+
+    // Same check as Spring MVC for a GET that returns a ResponseEntity with an ETag: true = 304 Not Modified
+    private static boolean isNotModified(String ifNoneMatch, String currentETag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return new ServletWebRequest(request, new MockHttpServletResponse()).checkNotModified(currentETag);
+    }
+}
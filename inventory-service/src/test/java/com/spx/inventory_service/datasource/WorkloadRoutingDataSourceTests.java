@@ -0,0 +1,68 @@
+package com.spx.inventory_service.datasource;
+
+import com.spx.inventory_service.dto.AssetResponseDTO;
+import com.spx.inventory_service.dto.DataSourcePoolStatusDTO;
+import com.spx.inventory_service.services.AssetService;
+import com.spx.inventory_service.support.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkloadRoutingDataSourceTests extends IntegrationTestSupport {
+
+    @Autowired
+    private WorkloadRoutingDataSource dataSource;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Test
+    void reportingMethodsUseTheReportingPool() {
+
+        long before = dataSource.getAcquiredConnections(WorkloadType.REPORTING);
+
+        assetService.getAllAssets();
+
+        assertTrue(dataSource.getAcquiredConnections(WorkloadType.REPORTING) > before);
+        assertEquals(WorkloadType.INTERACTIVE, WorkloadContext.current());
+    }
+
+    @Test
+    void exhaustedReportingPoolDoesNotBlockInteractiveReads() throws Exception {
+
+        int reportingPoolSize = status(WorkloadType.REPORTING).getMaximumPoolSize();
+        List<Connection> held = new ArrayList<>();
+
+        // Take every reporting connection, like a burst of long exports
+        WorkloadType previous = WorkloadContext.set(WorkloadType.REPORTING);
+        try {
+            for (int i = 0; i < reportingPoolSize; i++) {
+                held.add(dataSource.getConnection());
+            }
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+
+        try {
+            AssetResponseDTO asset = assetService.getAssetBySerialNumber("lap-dev-001");
+            assertEquals("LAP-DEV-001", asset.getSerialNumber());
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+
+    private DataSourcePoolStatusDTO status(WorkloadType workload) {
+        return dataSource.getStatus().stream()
+                .filter(poolStatus -> poolStatus.getWorkload().equals(workload.name()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
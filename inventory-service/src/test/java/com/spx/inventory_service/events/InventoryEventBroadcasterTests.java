@@ -0,0 +1,170 @@
+package com.spx.inventory_service.events;
+
+import com.spx.inventory_service.services.AssetService;
+import com.spx.inventory_service.support.IntegrationTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static com.spx.inventory_service.support.TestFixtures.assetCreatedEvent;
+import static com.spx.inventory_service.support.TestFixtures.assetRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryEventBroadcasterTests extends IntegrationTestSupport {
+
+    @Autowired
+    private InventoryEventBroadcaster broadcaster;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<SseSubscriber> registered = new ArrayList<>();
+
+    @AfterEach
+    void disconnect() {
+        registered.forEach(broadcaster::remove);
+    }
+
+    @Test
+    void onlyCommittedEventsAreDelivered() throws Exception {
+
+        RecordingEmitter emitter = RecordingEmitter.reading();
+        registered.add(broadcaster.register(emitter));
+
+        String rolledBack = uniqueKey("sse");
+        String committed = uniqueKey("sse");
+
+        // The asset is created, then the whole transaction rolls back
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assetService.createAsset(assetRequest(rolledBack, "milan"));
+            status.setRollbackOnly();
+        });
+        assetService.createAsset(assetRequest(committed, "milan"));
+
+        // The frames of a subscriber keep their order: once the committed event is there, the rolled back one is never coming
+        await(() -> emitter.hasFrameContaining(committed));
+        assertFalse(emitter.hasFrameContaining(rolledBack));
+    }
+
+    @Test
+    void slowSubscriberIsDisconnectedWhenItsBufferIsFull() throws Exception {
+
+        long disconnectedBefore = broadcaster.getDisconnectedSlowSubscribers();
+        RecordingEmitter emitter = RecordingEmitter.stuck();
+        registered.add(broadcaster.register(emitter));
+
+        try {
+            // The sender is stuck on the first frame: the buffer fills up, the next event disconnects the subscriber
+            for (int i = 0; i <= broadcaster.getBufferSize() + 1; i++) {
+                broadcaster.onInventoryEvent(assetCreatedEvent(uniqueKey("sse")));
+            }
+
+            assertTrue(emitter.completed.await(10, TimeUnit.SECONDS));
+            assertEquals(disconnectedBefore + 1, broadcaster.getDisconnectedSlowSubscribers());
+        } finally {
+            emitter.release.countDown();
+        }
+    }
+
+    @Test
+    void emitterIsCompletedWhenTheClientIsGone() throws Exception {
+
+        int subscribersBefore = broadcaster.getSubscriberCount();
+        RecordingEmitter emitter = RecordingEmitter.gone();
+        registered.add(broadcaster.register(emitter));
+
+        // The first send fails ("connected" frame): the emitter is completed and the subscriber removed
+        assertTrue(emitter.completed.await(10, TimeUnit.SECONDS));
+        await(() -> broadcaster.getSubscriberCount() == subscribersBefore);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 10 seconds");
+            Thread.sleep(10);
+        }
+    }
+
+    // ==========================================================
+    // TEST EMITTER (no HTTP response behind it)
+    // ==========================================================
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        // Sends wait for it (a client that does not read)
+        private final CountDownLatch release;
+
+        private final boolean clientGone;
+
+        private RecordingEmitter(int blockedSends, boolean clientGone) {
+            this.release = new CountDownLatch(blockedSends);
+            this.clientGone = clientGone;
+        }
+
+        static RecordingEmitter reading() {
+            return new RecordingEmitter(0, false);
+        }
+
+        static RecordingEmitter stuck() {
+            return new RecordingEmitter(1, false);
+        }
+
+        static RecordingEmitter gone() {
+            return new RecordingEmitter(0, true);
+        }
+
+        // Not synchronized (unlike the parent): complete() must not wait for a stuck send
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+
+            if (clientGone) {
+                throw new IOException("Broken pipe");
+            }
+
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            frames.add(items.stream().map(item -> String.valueOf(item.getData())).collect(Collectors.joining()).toLowerCase(Locale.ROOT));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+            super.complete();
+        }
+
+        boolean hasFrameContaining(String key) {
+            return frames.stream().anyMatch(frame -> frame.contains(key.toLowerCase(Locale.ROOT)));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.spx.inventory_service.idempotency;
+
+import com.spx.inventory_service.controllers.AssetController;
+import com.spx.inventory_service.controllers.SoftwareLicenseController;
+import com.spx.inventory_service.dto.AssetRequestDTO;
+import com.spx.inventory_service.dto.AssetResponseDTO;
+import com.spx.inventory_service.dto.SoftwareLicenseResponseDTO;
+import com.spx.inventory_service.services.AssetService;
+import com.spx.inventory_service.services.SoftwareLicenseService;
+import com.spx.inventory_service.support.IntegrationTestSupport;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.spx.inventory_service.support.TestFixtures.assetRequest;
+import static com.spx.inventory_service.support.TestFixtures.softwareLicenseRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotencyStoreTests extends IntegrationTestSupport {
+
+    private static final String OPERATION = "POST /assets/insert";
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private SoftwareLicenseService softwareLicenseService;
+
+    @Autowired
+    private AssetController assetController;
+
+    @Autowired
+    private SoftwareLicenseController softwareLicenseController;
+
+    @Test
+    void concurrentRetriesRunTheCallOnce() throws Exception {
+
+        String key = uniqueKey("key");
+        AssetRequestDTO request = assetRequest(uniqueKey("asset"), "milan");
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<ResponseEntity<AssetResponseDTO>>> responses = new ArrayList<>();
+
+            for (int i = 0; i < 8; i++) {
+                responses.add(clients.submit(() -> {
+                    start.await();
+                    return idempotencyStore.execute(key, OPERATION, request, () -> {
+                        calls.incrementAndGet();
+                        return ResponseEntity.status(HttpStatus.CREATED).body(assetService.createAsset(request));
+                    });
+                }));
+            }
+
+            start.countDown();
+
+            // Without the store seven of them would fail with "already exists"
+            for (Future<ResponseEntity<AssetResponseDTO>> response : responses) {
+                ResponseEntity<AssetResponseDTO> entity = response.get(30, TimeUnit.SECONDS);
+                assertEquals(HttpStatus.CREATED, entity.getStatusCode());
+                assertEquals(request.getSerialNumber(), entity.getBody().getSerialNumber());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void sameKeyWithAnotherRequestIsRejected() throws Exception {
+
+        String key = uniqueKey("key");
+
+        idempotencyStore.execute(key, OPERATION, assetRequest(uniqueKey("asset"), "milan"), () -> ResponseEntity.ok("first"));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                idempotencyStore.execute(key, OPERATION, assetRequest(uniqueKey("asset"), "milan"), () -> ResponseEntity.ok("second")));
+    }
+
+    @Test
+    void failuresAreNotStored() throws Exception {
+
+        String key = uniqueKey("key");
+        AssetRequestDTO request = assetRequest(uniqueKey("asset"), "milan");
+
+        assertThrows(EntityNotFoundException.class, () -> idempotencyStore.execute(key, OPERATION, request, () -> {
+            throw new EntityNotFoundException("Office not found");
+        }));
+
+        // The retry runs the call again
+        ResponseEntity<String> retry = idempotencyStore.execute(key, OPERATION, request, () -> ResponseEntity.ok("retried"));
+        assertEquals("retried", retry.getBody());
+    }
+
+    @Test
+    void installRetrySpelledDifferentlyIsAReplay() throws Exception {
+
+        String key = uniqueKey("key");
+        String name = softwareLicenseService.createSoftwareLicense(softwareLicenseRequest(uniqueKey("license"), LocalDate.now().plusYears(1))).getSoftwareName();
+        String serialNumber = assetService.createAsset(assetRequest(uniqueKey("asset"), "milan")).getSerialNumber();
+
+        ResponseEntity<SoftwareLicenseResponseDTO> first = softwareLicenseController.installSoftwareLicenseOnAsset(name, serialNumber, key);
+
+        // Same license and asset written another way: the first response again, not 400 (key used for another request) nor 409 (already installed)
+        ResponseEntity<SoftwareLicenseResponseDTO> retry = softwareLicenseController.installSoftwareLicenseOnAsset(
+                " " + name.toUpperCase() + " ", serialNumber.toLowerCase(), key);
+
+        assertEquals(first.getBody(), retry.getBody());
+    }
+
+    @Test
+    void insertRetrySpelledDifferentlyIsAReplay() throws Exception {
+
+        String key = uniqueKey("key");
+        AssetRequestDTO request = assetRequest(uniqueKey("asset"), "milan");
+
+        ResponseEntity<AssetResponseDTO> first = assetController.createAsset(request, key);
+
+        // Same asset written another way: the first response again, not 400 (key used for another request)
+        AssetRequestDTO respelled = assetRequest(" " + request.getSerialNumber().toUpperCase() + "\t", " MILAN ");
+        respelled.setAssetTypeName(" LAPTOP ");
+
+        ResponseEntity<AssetResponseDTO> retry = assetController.createAsset(respelled, key);
+
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+    }
+}
@@ -0,0 +1,38 @@
+package com.spx.inventory_service.outbox;
+
+import com.spx.inventory_service.services.AssetService;
+import com.spx.inventory_service.support.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static com.spx.inventory_service.support.TestFixtures.assetRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxRelayTests extends IntegrationTestSupport {
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Test
+    void relayPublishesCommittedEventsAndEmptiesTheOutbox() {
+
+        String serialNumber = assetService.createAsset(assetRequest(uniqueKey("outbox"), "milan")).getSerialNumber();
+
+        // The background relay polls once an hour in the tests: publish now
+        outboxRelay.relayPending();
+
+        long pending = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM event_outbox WHERE aggregate_key = ?", Long.class, serialNumber);
+
+        assertTrue(sink.getMessages().stream()
+                .anyMatch(message -> message.eventType().equals("ASSET_CREATED") && message.aggregateKey().equals(serialNumber)));
+        assertEquals(0, pending);
+    }
+}
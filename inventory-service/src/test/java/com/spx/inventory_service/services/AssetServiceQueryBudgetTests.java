@@ -0,0 +1,338 @@
+package com.spx.inventory_service.services;
+
+import com.spx.inventory_service.dto.AssetDetailedResponseDTO;
+import com.spx.inventory_service.dto.AssetLookupRequestDTO;
+import com.spx.inventory_service.dto.AssetLookupResponseDTO;
+import com.spx.inventory_service.dto.AssetResponseDTO;
+import com.spx.inventory_service.dto.AssetSearchRequestDTO;
+import com.spx.inventory_service.dto.AssetUpsertRequestDTO;
+import com.spx.inventory_service.dto.AssetUpsertResultDTO;
+import com.spx.inventory_service.dto.SoftwareLicenseSummaryDTO;
+import com.spx.inventory_service.support.QueryBudgetTestSupport;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.spx.inventory_service.support.TestFixtures.assetRequest;
+import static com.spx.inventory_service.support.TestFixtures.lookupRequest;
+import static com.spx.inventory_service.support.TestFixtures.softwareLicenseRequest;
+import static com.spx.inventory_service.support.TestFixtures.upsertRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AssetServiceQueryBudgetTests extends QueryBudgetTestSupport {
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private SoftwareLicenseService softwareLicenseService;
+
+    // ==========================================================
+    // READ OPERATIONS
+    // ==========================================================
+
+    @Test
+    void getAllAssets() throws Exception {
+
+        // Office and asset type come with the assets, not with one select per distinct office/type
+        capture(() -> assetService.getAllAssets())
+                .hasAtMostStatements(1)
+                .hasAtMostEntityFetches(0)
+                .initializesNoCollections();
+    }
+
+    @Test
+    void getAssetsByOffice() throws Exception {
+
+        capture(() -> assetService.getAssetsByOffice("milan"))
+                .hasAtMostStatements(1)
+                .hasAtMostEntityFetches(0)
+                .hasNoFullScanOf("assets")
+                .initializesNoCollections();
+    }
+
+    @Test
+    void getAssetsByAssetType() throws Exception {
+
+        capture(() -> assetService.getAssetsByAssetType("laptop"))
+                .hasAtMostStatements(1)
+                .hasAtMostEntityFetches(0)
+                .hasNoFullScanOf("assets")
+                .initializesNoCollections();
+    }
+
+    @Test
+    void searchAssets() throws Exception {
+
+        AssetSearchRequestDTO search = new AssetSearchRequestDTO();
+        search.setOfficeName(" Milan ");
+        search.setAssetTypeName("LAPTOP");
+        search.setPurchasedFrom(LocalDate.of(2024, 1, 1));
+        search.setPurchasedTo(LocalDate.of(2025, 12, 31));
+        search.setSoftwareName("jetbrains-datagrip");
+
+        // page (office and type joined, license filter as EXISTS) + count when the page is full
+        capture(() -> assetService.searchAssets(search, PageRequest.of(0, 20, Sort.by("serialNumber"))))
+                .hasAtMostStatements(2)
+                .hasAtMostEntityFetches(0)
+                .hasNoFullScanOf("assets")
+                .initializesNoCollections();
+    }
+
+    @Test
+    void searchAssetsRejectsAnUnknownSortBeforeQuerying() throws Exception {
+
+        // 400 (IllegalArgumentException), not a PropertyReferenceException (500)
+        capture(() -> assertThrows(IllegalArgumentException.class,
+                () -> assetService.searchAssets(new AssetSearchRequestDTO(), PageRequest.of(0, 20, Sort.by("office.secret")))))
+                .hasAtMostStatements(0);
+    }
+
+    @Test
+    void getAssetsByPurchaseDate() throws Exception {
+
+        // page (office and type joined) + count when the page is full
+        capture(() -> assetService.getAssetsByPurchaseDate(null, null, "2024-Q4", PageRequest.of(0, 20, Sort.by("purchaseDate"))))
+                .hasAtMostStatements(2)
+                .hasAtMostEntityFetches(0)
+                .hasNoFullScanOf("assets")
+                .initializesNoCollections();
+    }
+
+    @Test
+    void getAssetBySerialNumber() throws Exception {
+
+        capture(() -> assetService.getAssetBySerialNumber(" LAP-DEV-001 "))
+                .hasAtMostStatements(1)
+                .hasAtMostEntityFetches(0)
+                .hasNoFullScanOf("assets")
+                .initializesNoCollections();
+    }
+
+    @Test
+    void getAssetDetailsBySerialNumber() throws Exception {
+
+        // asset (office and type joined), installed licenses as summaries
+        capture(() -> assetService.getAssetDetailsBySerialNumber("lap-dev-001"))
+                .hasAtMostStatements(2)
+                .hasAtMostEntityFetches(0)
+                .initializesNoCollections()
+                .hasNoFullScanOf("assets");
+    }
+
+    @Test
+    void lookupAssets() throws Exception {
+
+        String first = assetService.createAsset(assetRequest(uniqueKey("lookup"), "milan")).getSerialNumber();
+        String second = assetService.createAsset(assetRequest(uniqueKey("lookup"), "naples")).getSerialNumber();
+
+        AssetLookupRequestDTO lookup = lookupRequest(second.toUpperCase(), " " + first + "\t", "missing-serial", second);
+        AtomicReference<AssetLookupResponseDTO<AssetResponseDTO>> response = new AtomicReference<>();
+
+        // One IN query, office and type fetch-joined
+        capture(() -> response.set(assetService.lookupAssets(lookup)))
+                .hasAtMostStatements(1)
+                .hasAtMostEntityFetches(0)
+                .hasNoFullScanOf("assets")
+                .initializesNoCollections();
+
+        // Case and whitespace ignored, duplicates collapsed, request order kept
+        assertEquals(List.of(second, first), response.get().getFound().stream().map(AssetResponseDTO::getSerialNumber).toList());
+        assertEquals(List.of("naples", "milan"), response.get().getFound().stream().map(AssetResponseDTO::getOfficeName).toList());
+        assertEquals(List.of("missing-serial"), response.get().getMissing());
+    }
+
+    @Test
+    void lookupAssetDetails() throws Exception {
+
+        String first = assetService.createAsset(assetRequest(uniqueKey("lookup"), "milan")).getSerialNumber();
+        String second = assetService.createAsset(assetRequest(uniqueKey("lookup"), "milan")).getSerialNumber();
+        String license = softwareLicenseService.createSoftwareLicense(softwareLicenseRequest(uniqueKey("license"), LocalDate.now().plusYears(1))).getSoftwareName();
+        softwareLicenseService.installSoftwareLicenseOnAsset(license, first);
+
+        AssetLookupRequestDTO lookup = lookupRequest(first.toUpperCase(), "missing-serial", " " + second + " ");
+        AtomicReference<AssetLookupResponseDTO<AssetDetailedResponseDTO>> response = new AtomicReference<>();
+
+        // assets + installed licenses of all of them as summaries
+        capture(() -> response.set(assetService.lookupAssetDetails(lookup)))
+                .hasAtMostStatements(2)
+                .hasAtMostEntityFetches(0)
+                .hasNoFullScanOf("assets")
+                .initializesNoCollections();
+
+        List<AssetDetailedResponseDTO> found = response.get().getFound();
+
+        assertEquals(List.of(first, second), found.stream().map(AssetDetailedResponseDTO::getSerialNumber).toList());
+        assertEquals(List.of(license), found.get(0).getSoftwareLicenses().stream().map(SoftwareLicenseSummaryDTO::getSoftwareName).toList());
+        assertEquals(List.of(), found.get(1).getSoftwareLicenses());
+        assertEquals(List.of("missing-serial"), response.get().getMissing());
+    }
+
+    @Test
+    void getLicensesBySerialNumber() throws Exception {
+
+        // asset id, one keyset page from the join table (no count query)
+        capture(() -> assetService.getLicensesBySerialNumber("lap-dev-001", 0, 20))
+                .hasAtMostStatements(2)
+                .hasAtMostEntityFetches(0)
+                .initializesNoCollections()
+                .hasNoStatementMatching("\\boffset\\b")
+                .hasNoFullScanOf("assets");
+    }
+
+    @Test
+    void countLicensesBySerialNumber() throws Exception {
+
+        // asset id, count on the join table
+        capture(() -> assetService.countLicensesBySerialNumber("lap-dev-001"))
+                .hasAtMostStatements(2)
+                .initializesNoCollections()
+                .hasNoFullScanOf("assets");
+    }
+
+    // ==========================================================
+    // WRITE OPERATIONS
+    // ==========================================================
+
+    @Test
+    void createAsset() throws Exception {
+
+        // exists check, office, asset type, insert, asset_counters upsert, event_outbox insert
+        capture(() -> assetService.createAsset(assetRequest(uniqueKey("asset"), "milan")))
+                .hasAtMostStatements(6)
+                .hasNoFullScanOf("assets")
+                .initializesNoCollections();
+    }
+
+    @Test
+    void updateAssetBySerialNumber() throws Exception {
+
+        String serialNumber = assetService.createAsset(assetRequest(uniqueKey("asset"), "milan")).getSerialNumber();
+
+        // asset, new serial exists check, office, asset type, update, asset_counters upsert, event_outbox insert
+        capture(() -> assetService.updateAssetBySerialNumber(serialNumber, assetRequest(uniqueKey("asset"), "turin"), null))
+                .hasAtMostStatements(7)
+                .hasAtMostEntityFetches(0)
+                .hasNoFullScanOf("assets")
+                .initializesNoCollections();
+    }
+
+    @Test
+    void moveAssetToOfficeByName() throws Exception {
+
+        String serialNumber = assetService.createAsset(assetRequest(uniqueKey("asset"), "milan")).getSerialNumber();
+
+        // One UPDATE ... RETURNING, the counter upsert and the event_outbox insert: no entity is loaded
+        capture(() -> assetService.moveAssetToOfficeByName(serialNumber, "naples", null))
+                .hasAtMostStatements(3)
+                .hasAtMostSelects(0);
+
+        assertEquals("naples", jdbcTemplate.queryForObject(
+                "SELECT o.name FROM assets a JOIN offices o ON o.id_office = a.id_office WHERE a.serial_number = ?", String.class, serialNumber));
+    }
+
+    @Test
+    void moveAssetToOfficeByNameWithStaleVersion() throws Exception {
+
+        AssetResponseDTO created = assetService.createAsset(assetRequest(uniqueKey("asset"), "milan"));
+        assetService.moveAssetToOfficeByName(created.getSerialNumber(), "naples", created.getVersion());
+
+        // The second client still holds the version read before the first move: the update matches no row,
+        // then asset and office are read to tell which check failed. Nothing else: no counter, no event
+        capture(() -> assertThrows(OptimisticLockingFailureException.class,
+                () -> assetService.moveAssetToOfficeByName(created.getSerialNumber(), "turin", created.getVersion())))
+                .hasAtMostStatements(3)
+                .hasNoStatementMatching("^update");
+    }
+
+    @Test
+    void consolidateOffice() throws Exception {
+
+        String from = uniqueKey("office");
+        String into = uniqueKey("office");
+        jdbcTemplate.update("INSERT INTO offices (name) VALUES (?), (?)", from, into);
+
+        for (int i = 0; i < 3; i++) {
+            assetService.createAsset(assetRequest(uniqueKey("asset"), from));
+        }
+
+        // Both offices, one UPDATE ... RETURNING, one counter upsert, one event_outbox insert (whatever the number of assets)
+        capture(() -> assertEquals(3, assetService.consolidateOffice(from, into).getMovedAssets()))
+                .hasAtMostStatements(5)
+                .hasNoFullScanOf("assets");
+
+        String countersSql = "SELECT COALESCE(sum(c.asset_count), 0) FROM asset_counters c JOIN offices o ON o.id_office = c.id_office WHERE o.name = ?";
+        assertEquals(0L, jdbcTemplate.queryForObject(countersSql, Long.class, from));
+        assertEquals(3L, jdbcTemplate.queryForObject(countersSql, Long.class, into));
+
+        // One outbox row for the whole consolidation
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT count(*) FROM event_outbox WHERE event_type = 'OFFICE_CONSOLIDATED' AND aggregate_key = ?", Long.class, from));
+    }
+
+    @Test
+    void upsertAssets() throws Exception {
+
+        String office = uniqueKey("office");
+        jdbcTemplate.update("INSERT INTO offices (name) VALUES (?)", office);
+
+        String unchanged = assetService.createAsset(assetRequest(uniqueKey("asset"), office)).getSerialNumber();
+        String moved = assetService.createAsset(assetRequest(uniqueKey("asset"), "milan")).getSerialNumber();
+        String created = uniqueKey("asset");
+
+        // Same serial number twice (different case): counted once, the last occurrence wins
+        AssetUpsertRequestDTO feed = upsertRequest(assetRequest(unchanged.toUpperCase(), office), assetRequest(moved, "milan"),
+                assetRequest(created, office), assetRequest(moved.toUpperCase(), office));
+
+        // Offices and asset types with one query each, lock + upsert for the chunk, one counter upsert,
+        // one event_outbox insert per created or updated asset
+        capture(() -> {
+            AssetUpsertResultDTO result = assetService.upsertAssets(feed);
+            assertEquals(4, result.getReceived());
+            assertEquals(1, result.getCreated());
+            assertEquals(1, result.getUpdated());
+            assertEquals(1, result.getUnchanged());
+        }).hasAtMostStatements(7);
+
+        String countersSql = "SELECT COALESCE(sum(c.asset_count), 0) FROM asset_counters c JOIN offices o ON o.id_office = c.id_office WHERE o.name = ?";
+        assertEquals(3L, jdbcTemplate.queryForObject(countersSql, Long.class, office));
+
+        // The same feed again writes and locks nothing: same versions, same change versions, same xmax (a row lock sets it)
+        String versionsSql = "SELECT string_agg(version || ':' || change_version || ':' || xmax, ',' ORDER BY id_asset) FROM assets WHERE id_office = (SELECT id_office FROM offices WHERE name = ?)";
+        String versions = jdbcTemplate.queryForObject(versionsSql, String.class, office);
+
+        AssetUpsertResultDTO again = assetService.upsertAssets(feed);
+        assertEquals(0, again.getCreated());
+        assertEquals(0, again.getUpdated());
+        assertEquals(3, again.getUnchanged());
+        assertEquals(versions, jdbcTemplate.queryForObject(versionsSql, String.class, office));
+        assertEquals(3L, jdbcTemplate.queryForObject(countersSql, Long.class, office));
+    }
+
+    @Test
+    void upsertAssetsWithUnknownOffice() {
+
+        AssetUpsertRequestDTO feed = upsertRequest(assetRequest(uniqueKey("asset"), uniqueKey("office")));
+
+        assertThrows(EntityNotFoundException.class, () -> assetService.upsertAssets(feed));
+    }
+
+    @Test
+    void deleteAssetBySerialNumber() throws Exception {
+
+        String serialNumber = assetService.createAsset(assetRequest(uniqueKey("asset"), "milan")).getSerialNumber();
+
+        // asset (office and type joined), licenses change version, delete, asset_counters upsert, tombstone, event_outbox insert
+        capture(() -> assetService.deleteAssetBySerialNumber(serialNumber))
+                .hasAtMostStatements(6)
+                .hasNoFullScanOf("assets")
+                .initializesNoCollections();
+    }
+}
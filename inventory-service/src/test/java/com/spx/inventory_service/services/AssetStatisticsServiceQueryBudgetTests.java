@@ -0,0 +1,31 @@
+package com.spx.inventory_service.services;
+
+import com.spx.inventory_service.support.QueryBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class AssetStatisticsServiceQueryBudgetTests extends QueryBudgetTestSupport {
+
+    @Autowired
+    private AssetStatisticsService assetStatisticsService;
+
+    @Test
+    void getAgeHistogram() throws Exception {
+
+        // Buckets are grouped by the database: one statement, no asset loaded
+        capture(() -> assetStatisticsService.getAgeHistogram(null, 12, 6, null, null))
+                .hasAtMostStatements(1)
+                .hasAtMostEntityFetches(0)
+                .initializesNoCollections();
+    }
+
+    @Test
+    void getAgeHistogramByOffice() throws Exception {
+
+        // office lookup + grouped query
+        capture(() -> assetStatisticsService.getAgeHistogram(null, 6, 10, "milan", null))
+                .hasAtMostStatements(2)
+                .hasNoFullScanOf("offices")
+                .initializesNoCollections();
+    }
+}
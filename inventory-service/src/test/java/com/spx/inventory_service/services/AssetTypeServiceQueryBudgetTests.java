@@ -0,0 +1,84 @@
+package com.spx.inventory_service.services;
+
+import com.spx.inventory_service.dto.AssetRequestDTO;
+import com.spx.inventory_service.support.QueryBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static com.spx.inventory_service.support.TestFixtures.assetRequest;
+import static com.spx.inventory_service.support.TestFixtures.assetTypeRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AssetTypeServiceQueryBudgetTests extends QueryBudgetTestSupport {
+
+    @Autowired
+    private AssetTypeService assetTypeService;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Test
+    void getAllAssetTypes() throws Exception {
+
+        capture(() -> assetTypeService.getAllAssetTypes())
+                .hasAtMostStatements(1)
+                .initializesNoCollections();
+    }
+
+    @Test
+    void getAssetTypeByName() throws Exception {
+
+        capture(() -> assetTypeService.getAssetTypeByName("LAPTOP"))
+                .hasAtMostStatements(1)
+                .hasNoFullScanOf("asset_types")
+                .initializesNoCollections();
+    }
+
+    @Test
+    void createAssetType() throws Exception {
+
+        capture(() -> assetTypeService.createAssetType(assetTypeRequest(uniqueKey("type"))))
+                .hasAtMostStatements(2)
+                .hasAtMostSelects(1);
+    }
+
+    @Test
+    void updateAssetTypeByName() throws Exception {
+
+        String name = assetTypeService.createAssetType(assetTypeRequest(uniqueKey("type"))).getAssetTypeName();
+
+        capture(() -> assetTypeService.updateAssetTypeByName(name, assetTypeRequest(uniqueKey("type")), null))
+                .hasAtMostStatements(3)
+                .hasNoFullScanOf("asset_types")
+                .initializesNoCollections();
+    }
+
+    @Test
+    void deleteAssetTypeByName() throws Exception {
+
+        String name = assetTypeService.createAssetType(assetTypeRequest(uniqueKey("type"))).getAssetTypeName();
+
+        // asset type, delete, tombstone
+        capture(() -> assetTypeService.deleteAssetTypeByName(name))
+                .hasAtMostStatements(3)
+                .hasNoFullScanOf("asset_types")
+                .initializesNoCollections();
+    }
+
+    @Test
+    void deleteAssetTypeAfterItsLastAssetDeleted() {
+
+        String name = assetTypeService.createAssetType(assetTypeRequest(uniqueKey("type"))).getAssetTypeName();
+
+        AssetRequestDTO request = assetRequest(uniqueKey("asset"), "milan");
+        request.setAssetTypeName(name);
+        String serialNumber = assetService.createAsset(request).getSerialNumber();
+
+        // The counter row of the asset type drops to 0 but stays: it must not block the delete
+        assetService.deleteAssetBySerialNumber(serialNumber);
+        assetTypeService.deleteAssetTypeByName(name);
+
+        assertEquals(0L, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM asset_types WHERE asset_type_name = ?", Long.class, name));
+    }
+}
@@ -0,0 +1,116 @@
+package com.spx.inventory_service.services;
+
+import com.spx.inventory_service.dto.ChangeDTO;
+import com.spx.inventory_service.dto.ChangeFeedPageDTO;
+import com.spx.inventory_service.dto.SoftwareLicenseSummaryDTO;
+import com.spx.inventory_service.support.QueryBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.spx.inventory_service.support.TestFixtures.assetRequest;
+import static com.spx.inventory_service.support.TestFixtures.officeRequest;
+import static com.spx.inventory_service.support.TestFixtures.softwareLicenseRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeFeedServiceQueryBudgetTests extends QueryBudgetTestSupport {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private OfficeService officeService;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private SoftwareLicenseService softwareLicenseService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void getChanges() throws Exception {
+
+        // The merged change log, then at most one query per entity type loads the current state of the changed rows
+        capture(() -> changeFeedService.getChanges("0", 200))
+                .hasAtMostStatements(5)
+                .hasAtMostEntityFetches(0)
+                .hasNoFullScanOf("assets");
+    }
+
+    @Test
+    void changesCommittedBehindALongTransactionAreNotSkipped() throws Exception {
+
+        String since = endOfFeed();
+        String slowOffice = uniqueKey("office");
+        String fastOffice = uniqueKey("office");
+
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // A transaction writes first and commits last
+        CompletableFuture<Void> slowTransaction = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO offices (name) VALUES (?)", slowOffice);
+            written.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        try {
+            assertTrue(written.await(30, TimeUnit.SECONDS));
+            officeService.createOffice(officeRequest(fastOffice));
+
+            // The later transaction has committed, but the feed does not move past the one still running
+            ChangeFeedPageDTO whileRunning = changeFeedService.getChanges(since, 500);
+            assertTrue(keys(whileRunning).isEmpty());
+            assertEquals(since, whileRunning.getNextSince());
+        } finally {
+            release.countDown();
+            slowTransaction.get(30, TimeUnit.SECONDS);
+        }
+
+        // Both changes, in commit-safe order
+        assertEquals(List.of(slowOffice, fastOffice), keys(changeFeedService.getChanges(since, 500)));
+    }
+
+    @Test
+    void installingALicenseIsAChangeOfTheLicense() {
+
+        String name = softwareLicenseService.createSoftwareLicense(softwareLicenseRequest(uniqueKey("license"), LocalDate.now().plusYears(1))).getSoftwareName();
+        String serialNumber = assetService.createAsset(assetRequest(uniqueKey("asset"), "milan")).getSerialNumber();
+        String since = endOfFeed();
+
+        softwareLicenseService.installSoftwareLicenseOnAsset(name, serialNumber);
+
+        ChangeDTO change = changeFeedService.getChanges(since, 500).getChanges().stream()
+                .filter(candidate -> candidate.getEntityType().equals("SOFTWARE_LICENSE") && candidate.getKey().equals(name))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1L, ((SoftwareLicenseSummaryDTO) change.getData()).getInstallationCount());
+    }
+
+    private String endOfFeed() {
+        ChangeFeedPageDTO page = changeFeedService.getChanges("0", 500);
+        while (page.isHasMore()) {
+            page = changeFeedService.getChanges(page.getNextSince(), 500);
+        }
+        return page.getNextSince();
+    }
+
+    private static List<String> keys(ChangeFeedPageDTO page) {
+        return page.getChanges().stream().map(ChangeDTO::getKey).toList();
+    }
+}
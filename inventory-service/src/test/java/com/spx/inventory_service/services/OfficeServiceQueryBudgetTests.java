@@ -0,0 +1,132 @@
+package com.spx.inventory_service.services;
+
+import com.spx.inventory_service.config.CaffeineCacheConfig;
+import com.spx.inventory_service.dto.OfficeResponseDTO;
+import com.spx.inventory_service.support.QueryBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.spx.inventory_service.support.TestFixtures.assetRequest;
+import static com.spx.inventory_service.support.TestFixtures.officeRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OfficeServiceQueryBudgetTests extends QueryBudgetTestSupport {
+
+    @Autowired
+    private OfficeService officeService;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void getAllOffices() throws Exception {
+
+        capture(() -> officeService.getAllOffices())
+                .hasAtMostStatements(1)
+                .initializesNoCollections();
+
+        // Second call is served by the cache
+        capture(() -> officeService.getAllOffices())
+                .hasAtMostStatements(0);
+    }
+
+    @Test
+    void getOfficeByName() throws Exception {
+
+        capture(() -> officeService.getOfficeByName("  Milan "))
+                .hasAtMostStatements(1)
+                .hasNoFullScanOf("offices")
+                .initializesNoCollections();
+    }
+
+    @Test
+    void getOfficeByNameLoadsOncePerKeyUnderConcurrentMisses() throws Exception {
+
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CaffeineCacheConfig.OFFICES_BY_NAME);
+        long loadsBefore = cache.getNativeCache().stats().loadCount();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+
+        try {
+            List<Future<OfficeResponseDTO>> offices = new ArrayList<>();
+
+            for (int i = 0; i < 16; i++) {
+                String name = i % 2 == 0 ? "milan" : " MILAN ";
+                offices.add(clients.submit(() -> {
+                    start.await();
+                    return officeService.getOfficeByName(name);
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<OfficeResponseDTO> office : offices) {
+                assertEquals("milan", office.get(30, TimeUnit.SECONDS).getOfficeName());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        // Same normalized key: one database load, the other requests waited for it
+        assertEquals(1, cache.getNativeCache().stats().loadCount() - loadsBefore);
+    }
+
+    @Test
+    void createOffice() throws Exception {
+
+        capture(() -> officeService.createOffice(officeRequest(uniqueKey("office"))))
+                .hasAtMostStatements(2)
+                .hasAtMostSelects(1);
+    }
+
+    @Test
+    void updateExistingOfficeByName() throws Exception {
+
+        String name = officeService.createOffice(officeRequest(uniqueKey("office"))).getOfficeName();
+
+        capture(() -> officeService.updateExistingOfficeByName(name, officeRequest(uniqueKey("office")), null))
+                .hasAtMostStatements(3)
+                .hasNoFullScanOf("offices")
+                .initializesNoCollections();
+    }
+
+    @Test
+    void deleteOfficeByName() throws Exception {
+
+        String name = officeService.createOffice(officeRequest(uniqueKey("office"))).getOfficeName();
+
+        // office, delete, tombstone
+        capture(() -> officeService.deleteOfficeByName(name))
+                .hasAtMostStatements(3)
+                .hasNoFullScanOf("offices")
+                .initializesNoCollections();
+    }
+
+    @Test
+    void deleteOfficeAfterItsLastAssetMovedOut() {
+
+        String name = officeService.createOffice(officeRequest(uniqueKey("office"))).getOfficeName();
+        String serialNumber = assetService.createAsset(assetRequest(uniqueKey("asset"), name)).getSerialNumber();
+
+        // The counter row of the office drops to 0 but stays: it must not block the delete
+        assetService.moveAssetToOfficeByName(serialNumber, "milan", null);
+        officeService.deleteOfficeByName(name);
+
+        assertEquals(0L, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM offices WHERE name = ?", Long.class, name));
+    }
+}
@@ -0,0 +1,33 @@
+package com.spx.inventory_service.services;
+
+import com.spx.inventory_service.support.QueryBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class SearchServiceQueryBudgetTests extends QueryBudgetTestSupport {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Test
+    void getSuggestions() throws Exception {
+
+        // At most a prefix query and a fuzzy query per key, each one bounded by LIMIT
+        capture(() -> searchService.getSuggestions(" LAP-DEV ", 10))
+                .hasAtMostStatements(6)
+                .hasAtMostEntityFetches(0)
+                .hasNoFullScanOf("assets")
+                .hasNoFullScanOf("software_licenses")
+                .hasNoFullScanOf("offices")
+                .initializesNoCollections();
+    }
+
+    @Test
+    void getSuggestionsWithShortQuery() throws Exception {
+
+        // Two characters: prefix queries only
+        capture(() -> searchService.getSuggestions("mi", 10))
+                .hasAtMostStatements(3)
+                .hasNoStatementMatching("\\s%\\s");
+    }
+}
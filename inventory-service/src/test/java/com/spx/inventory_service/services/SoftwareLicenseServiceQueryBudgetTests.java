@@ -0,0 +1,231 @@
+package com.spx.inventory_service.services;
+
+import com.spx.inventory_service.dto.LicenseExpiryReportDTO;
+import com.spx.inventory_service.support.QueryBudgetTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.spx.inventory_service.support.TestFixtures.assetRequest;
+import static com.spx.inventory_service.support.TestFixtures.softwareLicenseRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SoftwareLicenseServiceQueryBudgetTests extends QueryBudgetTestSupport {
+
+    @Autowired
+    private SoftwareLicenseService softwareLicenseService;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private LicenseExpiryService licenseExpiryService;
+
+    // ==========================================================
+    // READ OPERATIONS
+    // ==========================================================
+
+    // Reads never touch installedAssets: summaries carry an aggregate installation count
+
+    @Test
+    void getAllSoftwareLicenses() throws Exception {
+
+        capture(() -> softwareLicenseService.getAllSoftwareLicenses())
+                .hasAtMostStatements(1)
+                .hasAtMostEntityFetches(0)
+                .initializesNoCollections();
+    }
+
+    @Test
+    void getSoftwareLicenseByName() throws Exception {
+
+        // license, installation count
+        capture(() -> softwareLicenseService.getSoftwareLicenseByName("JetBrains-DataGrip"))
+                .hasAtMostStatements(2)
+                .initializesNoCollections()
+                .hasNoFullScanOf("software_licenses");
+    }
+
+    @Test
+    void getInstallationsBySoftwareName() throws Exception {
+
+        // license id, one keyset page from the join table (no count query)
+        capture(() -> softwareLicenseService.getInstallationsBySoftwareName("JetBrains-DataGrip", 0, 20))
+                .hasAtMostStatements(2)
+                .hasAtMostEntityFetches(0)
+                .initializesNoCollections()
+                .hasNoStatementMatching("\\boffset\\b")
+                .hasNoFullScanOf("software_licenses");
+    }
+
+    @Test
+    void countInstallationsBySoftwareName() throws Exception {
+
+        // license id, count on the join table
+        capture(() -> softwareLicenseService.countInstallationsBySoftwareName("JetBrains-DataGrip"))
+                .hasAtMostStatements(2)
+                .initializesNoCollections()
+                .hasNoFullScanOf("software_licenses");
+    }
+
+    @Test
+    void getInstalledSoftwareLicenseBySerialNumber() throws Exception {
+
+        capture(() -> softwareLicenseService.getInstalledSoftwareLicenseBySerialNumber("lap-dev-001"))
+                .hasAtMostStatements(1)
+                .initializesNoCollections()
+                .hasNoFullScanOf("software_licenses");
+    }
+
+    @Test
+    void getSoftwareLicensesExpiringSoon() throws Exception {
+
+        softwareLicenseService.createSoftwareLicense(softwareLicenseRequest(uniqueKey("license"), LocalDate.now().plusDays(10)));
+
+        capture(() -> licenseExpiryService.getSoftwareLicensesExpiringWithin(30))
+                .hasAtMostStatements(1)
+                .initializesNoCollections()
+                .hasNoFullScanOf("software_licenses");
+    }
+
+    @Test
+    void getExpiryReport() throws Exception {
+
+        softwareLicenseService.createSoftwareLicense(softwareLicenseRequest(uniqueKey("license"), LocalDate.now().plusDays(10)));
+
+        // First call may build the snapshot (one grouped query), polling afterwards is served from memory
+        capture(() -> licenseExpiryService.getExpiryReport(90))
+                .hasAtMostStatements(1);
+
+        capture(() -> licenseExpiryService.getExpiryReport(90))
+                .hasAtMostStatements(0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void expiryReportAfterMidnightServesThePreviousSnapshot() throws Exception {
+
+        // The snapshot of yesterday (nothing expiring)
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        AtomicReference<LicenseExpirySnapshot> snapshot = (AtomicReference<LicenseExpirySnapshot>)
+                ReflectionTestUtils.getField(AopTestUtils.getTargetObject(licenseExpiryService), "snapshot");
+        snapshot.set(LicenseExpirySnapshot.of(yesterday, 365, List.of()));
+
+        // Served as is, the rebuild runs on another thread
+        AtomicReference<LicenseExpiryReportDTO> report = new AtomicReference<>();
+        capture(() -> report.set(licenseExpiryService.getExpiryReport(90)))
+                .hasAtMostStatements(0);
+        assertEquals(yesterday, report.get().getAsOf());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!snapshot.get().asOf().equals(LocalDate.now())) {
+            assertTrue(System.nanoTime() < deadline, "Snapshot not rebuilt within 10 seconds");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void getComplianceReport() throws Exception {
+
+        // one grouped query, no license or asset entity is loaded
+        capture(() -> softwareLicenseService.getComplianceReport(null, null, false))
+                .hasAtMostStatements(1)
+                .hasAtMostEntityFetches(0)
+                .initializesNoCollections();
+    }
+
+    @Test
+    void getComplianceReportByOfficeAndAssetType() throws Exception {
+
+        // office, asset type, one grouped query
+        capture(() -> softwareLicenseService.getComplianceReport("milan", "laptop", true))
+                .hasAtMostStatements(3)
+                .initializesNoCollections()
+                .hasNoFullScanOf("software_licenses");
+    }
+
+    // ==========================================================
+    // WRITE OPERATIONS
+    // ==========================================================
+
+    @Test
+    void createSoftwareLicense() throws Exception {
+
+        // exists check, insert
+        capture(() -> softwareLicenseService.createSoftwareLicense(softwareLicenseRequest(uniqueKey("license"), LocalDate.now().plusYears(1))))
+                .hasAtMostStatements(2)
+                .initializesNoCollections();
+    }
+
+    @Test
+    void updateSoftwareLicense() throws Exception {
+
+        String name = createLicense();
+
+        // license, new name exists check, installation count, update
+        capture(() -> softwareLicenseService.updateSoftwareLicense(name, softwareLicenseRequest(uniqueKey("license"), LocalDate.now().plusYears(2)), null))
+                .hasAtMostStatements(4)
+                .initializesNoCollections()
+                .hasNoFullScanOf("software_licenses");
+    }
+
+    @Test
+    void deleteSoftwareLicenseByName() throws Exception {
+
+        String name = createLicense();
+
+        // exists check, derived delete (select), join table rows, license row, tombstone
+        capture(() -> softwareLicenseService.deleteSoftwareLicenseByName(name))
+                .hasAtMostStatements(5)
+                .initializesNoCollections()
+                .hasNoFullScanOf("software_licenses");
+    }
+
+    @Test
+    void installSoftwareLicenseOnAsset() throws Exception {
+
+        String name = createLicense();
+        String serialNumber = createAsset();
+
+        // asset, license, installedAssets, asset softwareLicenses, join table insert, license change version, event_outbox insert
+        capture(() -> softwareLicenseService.installSoftwareLicenseOnAsset(name, serialNumber))
+                .hasAtMostStatements(7)
+                .hasAtMostCollectionFetches(2)
+                .hasNoFullScanOf("assets")
+                .hasNoFullScanOf("software_licenses");
+    }
+
+    @Test
+    void uninstallSoftwareLicenseFromAsset() throws Exception {
+
+        String name = createLicense();
+        String serialNumber = createAsset();
+        softwareLicenseService.installSoftwareLicenseOnAsset(name, serialNumber);
+
+        // asset, license, installedAssets, asset softwareLicenses, join table delete, license change version, event_outbox insert
+        capture(() -> softwareLicenseService.uninstallSoftwareLicenseFromAsset(name, serialNumber))
+                .hasAtMostStatements(7)
+                .hasAtMostCollectionFetches(2)
+                .hasNoFullScanOf("assets")
+                .hasNoFullScanOf("software_licenses");
+    }
+
+    // ==========================================================
+    // HELPERS
+    // ==========================================================
+
+    private String createLicense() {
+        return softwareLicenseService.createSoftwareLicense(softwareLicenseRequest(uniqueKey("license"), LocalDate.now().plusYears(1))).getSoftwareName();
+    }
+
+    private String createAsset() {
+        return assetService.createAsset(assetRequest(uniqueKey("asset"), "milan")).getSerialNumber();
+    }
+}
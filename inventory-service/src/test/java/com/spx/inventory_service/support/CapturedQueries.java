@@ -0,0 +1,80 @@
+package com.spx.inventory_service.support;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements and Hibernate statistics captured during one service call, with budget assertions.
+ *
+ * - statements: every SQL statement executed over JDBC (Hibernate and JdbcTemplate), one per round trip
+ * - entityFetches: entities loaded by a separate select (e.g. EAGER @ManyToOne N+1)
+ * - collectionFetches: lazy collections initialized by a separate select (e.g. MapStruct walking installedAssets)
+ */
+public record CapturedQueries(List<String> statements, long entityFetches, long collectionFetches) {
+
+    public CapturedQueries hasAtMostStatements(long max) {
+        check(statements.size() <= max, "Expected at most " + max + " statements but got " + statements.size());
+        return this;
+    }
+
+    public CapturedQueries hasAtMostSelects(long max) {
+        long selects = statements.stream().filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith("select")).count();
+        check(selects <= max, "Expected at most " + max + " selects but got " + selects);
+        return this;
+    }
+
+    public CapturedQueries hasAtMostEntityFetches(long max) {
+        check(entityFetches <= max, "Expected at most " + max + " entity fetches by separate select but got " + entityFetches);
+        return this;
+    }
+
+    public CapturedQueries hasAtMostCollectionFetches(long max) {
+        check(collectionFetches <= max, "Expected at most " + max + " lazy collection initializations but got " + collectionFetches);
+        return this;
+    }
+
+    public CapturedQueries initializesNoCollections() {
+        return hasAtMostCollectionFetches(0);
+    }
+
+    /* A select reading the given table (in FROM or JOIN) without any WHERE clause */
+    public CapturedQueries hasNoFullScanOf(String table) {
+
+        Pattern readsTable = Pattern.compile("\\b(from|join)\\s+" + Pattern.quote(table) + "\\b", Pattern.CASE_INSENSITIVE);
+        Pattern where = Pattern.compile("\\bwhere\\b", Pattern.CASE_INSENSITIVE);
+
+        for (String sql : statements) {
+            check(!(sql.toLowerCase(Locale.ROOT).startsWith("select") && readsTable.matcher(sql).find() && !where.matcher(sql).find()),
+                    "Full scan of '" + table + "': " + sql);
+        }
+        return this;
+    }
+
+    public CapturedQueries hasNoStatementMatching(String regex) {
+
+        Pattern forbidden = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+
+        for (String sql : statements) {
+            check(!forbidden.matcher(sql).find(), "Forbidden statement (" + regex + "): " + sql);
+        }
+        return this;
+    }
+
+    private void check(boolean condition, String message) {
+
+        if (!condition) {
+
+            StringBuilder details = new StringBuilder(message)
+                    .append("\nEntity fetches: ").append(entityFetches)
+                    .append(", collection fetches: ").append(collectionFetches)
+                    .append("\nStatements (").append(statements.size()).append("):");
+
+            for (int i = 0; i < statements.size(); i++) {
+                details.append("\n  ").append(i + 1).append(". ").append(statements.get(i));
+            }
+
+            throw new AssertionError(details.toString());
+        }
+    }
+}
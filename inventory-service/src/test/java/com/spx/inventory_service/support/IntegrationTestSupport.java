@@ -0,0 +1,55 @@
+package com.spx.inventory_service.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base class for tests against the whole application and a PostgreSQL container
+ * (schema.sql + data.sql are loaded by the dev profile).
+ *
+ * Every test class shares the same properties, so Spring reuses one context and one container for all of them.
+ * Service calls are NOT wrapped in a test transaction: writes commit. Tests create their own rows with unique keys (uniqueKey).
+ *
+ * Tests that check the SQL issued by a call extend QueryBudgetTestSupport instead.
+ */
+@SpringBootTest(properties = {
+        "spring.security.jwt.secret=Y2lhbXMtcXVlcnktYnVkZ2V0LXRlc3Qtc2VjcmV0LWtleS0zMiE=",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=warn",
+        "logging.level.org.hibernate.orm.jdbc.bind=warn",
+        "inventory.outbox.sink=memory",
+        "inventory.outbox.poll-interval=PT1H"
+})
+@Import({ TestcontainersConfiguration.class, JdbcStatementRecorder.class })
+public abstract class IntegrationTestSupport {
+
+    private static final AtomicInteger KEY_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Cached reads must hit the database in every test
+    @BeforeEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    /* Lowercase unique key, already normalized (TextNormalizer leaves it unchanged) */
+    protected static String uniqueKey(String prefix) {
+        return "qb-" + prefix + "-" + KEY_SEQUENCE.incrementAndGet() + "-" + System.nanoTime() % 1_000_000;
+    }
+
+    protected long countRows(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,157 @@
+package com.spx.inventory_service.support;
+
+import com.spx.inventory_service.datasource.WorkloadRoutingDataSource;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records every SQL statement executed over JDBC on the current thread while a capture is active
+ * (see QueryBudgetTestSupport.capture): Hibernate, Spring Data native queries and JdbcTemplate alike.
+ *
+ * The application DataSource (WorkloadRoutingDataSource) is replaced by a subclass proxy, so it can still be injected
+ * by type; its connections and statements are wrapped in JDK proxies. One execution = one recorded statement
+ * (a JDBC batch is one round trip and is recorded once).
+ */
+public class JdbcStatementRecorder implements BeanPostProcessor {
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+        if (!(bean instanceof WorkloadRoutingDataSource)) {
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            Object result = invocation.proceed();
+            return result instanceof Connection connection ? wrap(Connection.class, new ConnectionHandler(connection)) : result;
+        });
+        return proxyFactory.getProxy();
+    }
+
+    static void start() {
+        RECORDED.set(new ArrayList<>());
+    }
+
+    static List<String> stop() {
+        List<String> statements = RECORDED.get();
+        RECORDED.remove();
+        return statements == null ? List.of() : statements;
+    }
+
+    private static void record(String sql) {
+
+        List<String> statements = RECORDED.get();
+
+        if (statements != null) {
+            statements.add(sql.replaceAll("\\s+", " ").trim());
+        }
+    }
+
+    // ==========================================================
+    // JDBC PROXIES
+    // ==========================================================
+
+    private static <T> T wrap(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(JdbcStatementRecorder.class.getClassLoader(), new Class<?>[]{ type }, handler));
+    }
+
+    private abstract static class DelegatingHandler implements InvocationHandler {
+
+        private final Object target;
+
+        DelegatingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            // Identity of the proxy (Spring keeps connections in maps and compares them)
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+
+            before(method, args);
+
+            try {
+                return after(method, args, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        /* Called before the call on the target (also recorded when the statement fails) */
+        void before(Method method, Object[] args) {
+        }
+
+        /* Called after a successful call on the target, returns what the caller gets */
+        Object after(Method method, Object[] args, Object result) {
+            return result;
+        }
+    }
+
+    // Wraps the statements, remembering the SQL of the prepared ones
+    private static final class ConnectionHandler extends DelegatingHandler {
+
+        ConnectionHandler(Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        Object after(Method method, Object[] args, Object result) {
+            return switch (method.getName()) {
+                case "prepareCall" -> wrap(CallableStatement.class, new StatementHandler(result, (String) args[0]));
+                case "prepareStatement" -> wrap(PreparedStatement.class, new StatementHandler(result, (String) args[0]));
+                case "createStatement" -> wrap(Statement.class, new StatementHandler(result, null));
+                default -> result;
+            };
+        }
+    }
+
+    // Records one statement per execution: the prepared SQL, or the SQL passed to execute(sql) / addBatch(sql)
+    private static final class StatementHandler extends DelegatingHandler {
+
+        private final String preparedSql;
+
+        private String batchSql;
+
+        StatementHandler(Object statement, String preparedSql) {
+            super(statement);
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        void before(Method method, Object[] args) {
+
+            String name = method.getName();
+
+            if (name.equals("addBatch") && args != null && args.length == 1 && batchSql == null) {
+                batchSql = (String) args[0];
+            } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                record(preparedSql != null ? preparedSql : String.valueOf(batchSql));
+                batchSql = null;
+            } else if (name.startsWith("execute")) {
+                record(args != null && args.length > 0 && args[0] instanceof String sql ? sql : String.valueOf(preparedSql));
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.spx.inventory_service.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Base class for query-count and query-shape regression tests.
+ *
+ * Lets tests capture the SQL issued by a service call (application and container from IntegrationTestSupport).
+ * Statements are recorded at the JDBC level (JdbcStatementRecorder), so JdbcTemplate statements count like Hibernate ones:
+ *
+ *     capture(() -> assetService.getAssetBySerialNumber("lap-dev-001"))
+ *             .hasAtMostStatements(1)
+ *             .hasNoFullScanOf("assets");
+ *
+ * Service calls are NOT wrapped in a test transaction: writes commit, so flush-time
+ * inserts/updates/deletes are captured too.
+ */
+public abstract class QueryBudgetTestSupport extends IntegrationTestSupport {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @FunctionalInterface
+    protected interface ServiceCall {
+        void run() throws Exception;
+    }
+
+    /* Runs the call and returns every SQL statement it issued */
+    protected CapturedQueries capture(ServiceCall call) throws Exception {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        JdbcStatementRecorder.start();
+        List<String> statements;
+
+        try {
+            call.run();
+        } finally {
+            statements = JdbcStatementRecorder.stop();
+        }
+
+        return new CapturedQueries(statements, statistics.getEntityFetchCount(), statistics.getCollectionFetchCount());
+    }
+
+    /* Same as capture, inside a read-only transaction (like controllers annotated with @Transactional(readOnly = true)) */
+    protected CapturedQueries captureInReadOnlyTransaction(ServiceCall call) throws Exception {
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        return capture(() -> transaction.executeWithoutResult(status -> {
+            try {
+                call.run();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+    }
+}
@@ -0,0 +1,82 @@
+package com.spx.inventory_service.support;
+
+import com.spx.inventory_service.dto.AssetLookupRequestDTO;
+import com.spx.inventory_service.dto.AssetRequestDTO;
+import com.spx.inventory_service.dto.AssetTypeRequestDTO;
+import com.spx.inventory_service.dto.AssetUpsertRequestDTO;
+import com.spx.inventory_service.dto.OfficeRequestDTO;
+import com.spx.inventory_service.dto.SoftwareLicenseRequestDTO;
+import com.spx.inventory_service.events.InventoryEvent;
+import com.spx.inventory_service.models.Asset;
+import com.spx.inventory_service.models.AssetType;
+import com.spx.inventory_service.models.Office;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Request DTOs and events shared by the tests (static import).
+ */
+public final class TestFixtures {
+
+    // Constructor
+    private TestFixtures() {
+    }
+
+    /* A laptop bought on 2025-02-10 */
+    public static AssetRequestDTO assetRequest(String serialNumber, String officeName) {
+        AssetRequestDTO dto = new AssetRequestDTO();
+        dto.setSerialNumber(serialNumber);
+        dto.setOfficeName(officeName);
+        dto.setAssetTypeName("laptop");
+        dto.setPurchaseDate(LocalDate.of(2025, 2, 10));
+        return dto;
+    }
+
+    public static AssetUpsertRequestDTO upsertRequest(AssetRequestDTO... assets) {
+        AssetUpsertRequestDTO dto = new AssetUpsertRequestDTO();
+        dto.setAssets(List.of(assets));
+        return dto;
+    }
+
+    public static AssetLookupRequestDTO lookupRequest(String... serialNumbers) {
+        AssetLookupRequestDTO dto = new AssetLookupRequestDTO();
+        dto.setSerialNumbers(List.of(serialNumbers));
+        return dto;
+    }
+
+    public static OfficeRequestDTO officeRequest(String name) {
+        OfficeRequestDTO dto = new OfficeRequestDTO();
+        dto.setOfficeName(name);
+        return dto;
+    }
+
+    public static AssetTypeRequestDTO assetTypeRequest(String name) {
+        AssetTypeRequestDTO dto = new AssetTypeRequestDTO();
+        dto.setAssetTypeName(name);
+        dto.setAssetTypeDescription("Query budget test");
+        return dto;
+    }
+
+    /* 10 installations allowed */
+    public static SoftwareLicenseRequestDTO softwareLicenseRequest(String name, LocalDate expirationDate) {
+        SoftwareLicenseRequestDTO dto = new SoftwareLicenseRequestDTO();
+        dto.setSoftwareName(name);
+        dto.setMaxInstallations(10);
+        dto.setExpirationDate(expirationDate);
+        return dto;
+    }
+
+    /* A laptop in milan that is never saved: the event reaches the listeners without a write */
+    public static InventoryEvent assetCreatedEvent(String serialNumber) {
+        Office office = new Office();
+        office.setName("milan");
+        AssetType assetType = new AssetType();
+        assetType.setAssetTypeName("laptop");
+        Asset asset = new Asset();
+        asset.setSerialNumber(serialNumber);
+        asset.setOffice(office);
+        asset.setAssetType(assetType);
+        return InventoryEvent.assetCreated(asset);
+    }
+}
@@ -0,0 +1,44 @@
+package com.spx.inventory_service.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TextNormalizerTests {
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {
+            " ", "\t\n\r\f\u000B", "lap-dev-001", "LAP-DEV-001", "  Lap-Dev-001  ", "\tlap\t\tdev\n001\r\n",
+            "Milan  Office", "milan \t office", "a b", "a  b", "a \u000B b",
+            " milan ", "milan  office", "\u0001milan\u001F", "mi\u0001lan",
+            "\u00A0milan\u00A0", "milan\u00A0 office", " \u00A0 ",
+            "MÜNCHEN", "İstanbul", "ΣΊΣΥΦΟΣ", "𐐀 deseret", "ǅ", "x"
+    })
+    void sameResultAsTheRegex(String input) {
+        assertEquals(regexKey(input), TextNormalizer.normalizeKey(input));
+        assertEquals(regexText(input), TextNormalizer.normalizeText(input));
+    }
+
+    @Test
+    void normalizedInputIsReturnedAsIs() {
+        String key = "lap-dev-001 milan";
+        assertSame(key, TextNormalizer.normalizeKey(key));
+        assertSame(key, TextNormalizer.normalizeText(key));
+    }
+
+    // The implementation TextNormalizer replaced
+    private static String regexKey(String input) {
+        return input == null ? null : input.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String regexText(String input) {
+        return input == null ? null : input.trim().replaceAll("\\s+", " ");
+    }
+}